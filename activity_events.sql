@@ -0,0 +1,116 @@
+-- ============================================
+-- Activity Event Log
+-- ============================================
+-- Append-only stream of views, downloads, ratings, favorites and comments,
+-- written in batches by Services/ActivityLog, plus the hourly and daily
+-- rollups that /api/resources/{id}/stats reads (Services/ActivityStats).
+--
+-- resource_events is partitioned by month. The rollup job calls
+-- ensure_resource_event_partitions() so the current and next month always
+-- exist; anything outside them lands in the default partition rather than
+-- failing, and is moved into its month once that partition is created. Old
+-- months can be dropped with drop_resource_event_partitions().
+--
+-- All timestamps are UTC. event_type: 1 view, 2 download, 3 rate,
+-- 4 favorite, 5 comment (ActivityLog.Type).
+--
+-- Safe to re-run.
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS resource_events (
+    resource_id BIGINT NOT NULL,
+    user_id BIGINT,
+    event_type SMALLINT NOT NULL,
+    occurred_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE IF NOT EXISTS resource_events_default PARTITION OF resource_events DEFAULT;
+
+-- Rollups only ever scan one time range of the stream
+CREATE INDEX IF NOT EXISTS idx_resource_events_occurred_at ON resource_events USING BRIN (occurred_at);
+
+CREATE TABLE IF NOT EXISTS resource_event_hourly (
+    resource_id BIGINT NOT NULL,
+    event_type SMALLINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (resource_id, bucket_start, event_type)
+);
+
+CREATE TABLE IF NOT EXISTS resource_event_daily (
+    resource_id BIGINT NOT NULL,
+    event_type SMALLINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    event_count BIGINT NOT NULL,
+    PRIMARY KEY (resource_id, bucket_start, event_type)
+);
+
+-- Rollup deletes and rewrites whole time ranges
+CREATE INDEX IF NOT EXISTS idx_resource_event_hourly_bucket ON resource_event_hourly(bucket_start);
+CREATE INDEX IF NOT EXISTS idx_resource_event_daily_bucket ON resource_event_daily(bucket_start);
+
+-- Where the last rollup run started; the next one recomputes from an hour before it
+CREATE TABLE IF NOT EXISTS resource_event_rollup_state (
+    id INT PRIMARY KEY,
+    rolled_up_to TIMESTAMP NOT NULL
+);
+
+-- Monthly partitions for this month and the next. If the job missed a month
+-- boundary, that month's rows already sit in the default partition and
+-- attaching a partition over them would fail, so a missing month is created
+-- detached, its rows are moved out of the default partition, and only then is
+-- it attached. Inserts wait on the default partition's lock meanwhile.
+CREATE OR REPLACE FUNCTION ensure_resource_event_partitions()
+RETURNS VOID AS $$
+DECLARE
+    month_start DATE;
+    month_end DATE;
+    part TEXT;
+BEGIN
+    FOR i IN 0..1 LOOP
+        month_start := (date_trunc('month', now() AT TIME ZONE 'UTC') + make_interval(months => i))::DATE;
+        month_end := (month_start + INTERVAL '1 month')::DATE;
+        part := 'resource_events_' || to_char(month_start, 'YYYY_MM');
+        CONTINUE WHEN to_regclass(part) IS NOT NULL;
+
+        LOCK TABLE resource_events_default IN ACCESS EXCLUSIVE MODE;
+        EXECUTE format('CREATE TABLE %I (LIKE resource_events INCLUDING DEFAULTS)', part);
+        EXECUTE format('WITH moved AS (DELETE FROM resource_events_default '
+                || 'WHERE occurred_at >= %L AND occurred_at < %L RETURNING *) '
+                || 'INSERT INTO %I SELECT * FROM moved', month_start, month_end, part);
+        EXECUTE format('ALTER TABLE resource_events ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                part, month_start, month_end);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Drops monthly partitions that end before the given date (the rollups stay)
+CREATE OR REPLACE FUNCTION drop_resource_event_partitions(older_than DATE)
+RETURNS INT AS $$
+DECLARE
+    part RECORD;
+    dropped INT := 0;
+BEGIN
+    FOR part IN
+        SELECT c.relname FROM pg_inherits i
+        JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'resource_events'::regclass
+          AND c.relname ~ '^resource_events_\d{4}_\d{2}$'
+          AND (to_date(substring(c.relname FROM '\d{4}_\d{2}$'), 'YYYY_MM') + INTERVAL '1 month') <= older_than
+    LOOP
+        EXECUTE format('DROP TABLE %I', part.relname);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT ensure_resource_event_partitions();
+
+-- ============================================
+-- VERIFICATION
+-- ============================================
+SELECT c.relname AS partition
+FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'resource_events'::regclass
+ORDER BY c.relname;
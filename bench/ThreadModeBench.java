@@ -0,0 +1,98 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Closed-loop HTTP load client used by bench_thread_modes.sh.
+ *
+ * Runs {@code concurrency} virtual-thread workers, each cycling through the
+ * given paths for {@code seconds}, and prints one CSV line:
+ *   label,requests,errors,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms
+ *
+ * Usage: java ThreadModeBench.java BASE_URL LABEL CONCURRENCY SECONDS PATH...
+ */
+public class ThreadModeBench {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 5) {
+            System.err.println("usage: java ThreadModeBench.java BASE_URL LABEL CONCURRENCY SECONDS PATH...");
+            System.exit(2);
+        }
+        String baseUrl = args[0];
+        String label = args[1];
+        int concurrency = Integer.parseInt(args[2]);
+        long durationNanos = Duration.ofSeconds(Long.parseLong(args[3])).toNanos();
+        List<URI> targets = new ArrayList<>();
+        for (String path : Arrays.copyOfRange(args, 4, args.length)) {
+            targets.add(URI.create(baseUrl + path));
+        }
+
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        AtomicLong errors = new AtomicLong();
+        long[][] latencies = new long[concurrency][];
+        int[] counts = new int[concurrency];
+        long start = System.nanoTime();
+        long deadline = start + durationNanos;
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int w = 0; w < concurrency; w++) {
+                int worker = w;
+                workers.submit(() -> {
+                    long[] samples = new long[1024];
+                    int n = 0;
+                    int next = worker;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = HttpRequest.newBuilder(targets.get(next++ % targets.size()))
+                                .timeout(Duration.ofSeconds(30))
+                                .GET()
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) errors.incrementAndGet();
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        if (n == samples.length) samples = Arrays.copyOf(samples, n * 2);
+                        samples[n++] = System.nanoTime() - sent;
+                    }
+                    latencies[worker] = samples;
+                    counts[worker] = n;
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int w = 0; w < concurrency; w++) {
+            System.arraycopy(latencies[w], 0, all, offset, counts[w]);
+            offset += counts[w];
+        }
+        Arrays.sort(all);
+        System.out.printf("%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f%n",
+                label, total, errors.get(), total / elapsedSeconds,
+                percentile(all, 50), percentile(all, 95), percentile(all, 99),
+                total == 0 ? 0.0 : all[total - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+}
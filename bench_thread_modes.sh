@@ -0,0 +1,77 @@
+#!/bin/bash
+
+# Compares platform-thread and virtual-thread request handling.
+#
+# Starts the packaged app once per mode, warms it up, then drives the same
+# read/download mix at each concurrency level with bench/ThreadModeBench.java.
+# Results are appended to bench_results.csv. Needs PostgreSQL with the mockup
+# data loaded and at least one file in uploads/.
+#
+# Usage: ./bench_thread_modes.sh [seconds-per-run] [concurrency levels...]
+
+DURATION=${1:-30}
+[ $# -gt 0 ] && shift
+LEVELS=${*:-"50 200 800"}
+PORT=8080
+BASE_URL="http://localhost:$PORT"
+JAR=$(ls target/*-exec.jar 2>/dev/null | head -1)
+RESULTS="bench_results.csv"
+
+if [ -z "$JAR" ]; then
+    echo "No jar in target/ - run 'mvn -DskipTests package' first"
+    exit 1
+fi
+
+# One download path so the run includes file I/O, not just JDBC
+SAMPLE_FILE=$(ls uploads 2>/dev/null | head -1)
+PATHS="/api/resources /api/resources/search?keyword=java /api/resources/1/details /api/resources/by-tag/java"
+if [ -n "$SAMPLE_FILE" ]; then
+    PATHS="$PATHS /api/resources/download/$SAMPLE_FILE"
+fi
+
+[ -f "$RESULTS" ] || echo "mode,requests,errors,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms" > "$RESULTS"
+
+for MODE in platform virtual; do
+    VIRTUAL=false
+    [ "$MODE" = "virtual" ] && VIRTUAL=true
+
+    echo "=================================="
+    echo "Mode: $MODE"
+    echo "=================================="
+
+    # -Djdk.tracePinnedThreads prints a stack whenever a virtual thread pins its carrier.
+    # The load comes from one address, so rate limiting would turn most requests into 429s
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+        --server.port=$PORT \
+        --spring.threads.virtual.enabled=$VIRTUAL \
+        --ratelimit.enabled=false \
+        --logging.level.org.springframework.web=INFO \
+        --logging.level.org.springframework.security=INFO \
+        > "bench_$MODE.log" 2>&1 &
+    APP_PID=$!
+
+    until curl -s -o /dev/null "$BASE_URL/api/resources"; do
+        if ! kill -0 $APP_PID 2>/dev/null; then
+            echo "App failed to start, see bench_$MODE.log"
+            exit 1
+        fi
+        sleep 1
+    done
+
+    # Warm-up: JIT, connection pool, caches
+    java bench/ThreadModeBench.java "$BASE_URL" warmup 50 10 $PATHS > /dev/null
+
+    for C in $LEVELS; do
+        echo -n "Concurrency $C... "
+        java bench/ThreadModeBench.java "$BASE_URL" "$MODE-c$C" "$C" "$DURATION" $PATHS | tee -a "$RESULTS"
+    done
+
+    PINNED=$(grep -c "reason:" "bench_$MODE.log")
+    echo "Pinned-thread events logged: $PINNED"
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null
+done
+
+echo ""
+echo "Results written to $RESULTS"
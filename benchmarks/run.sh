@@ -0,0 +1,28 @@
+#!/bin/bash
+
+# Builds the app and the JMH module, runs the benchmarks and writes the
+# results as JSON to results/<git describe>.json. Extra arguments go to JMH,
+# e.g. a subset and smaller catalogs for a quick check:
+#   ./run.sh SearchBenchmark -p catalogSize=1000,10000
+#
+# Compare two runs (exits 1 on a regression above the threshold):
+#   ./run.sh --compare results/v1.2.0.json results/v1.3.0.json [threshold-percent]
+
+cd "$(dirname "$0")"
+
+if [ "$1" = "--compare" ]; then
+    shift
+    java -cp target/benchmarks.jar com.example.demo.Benchmarks.CompareResults "$@"
+    exit $?
+fi
+
+(cd .. && mvn -B -q -DskipTests install) || exit 1
+mvn -B -q package || exit 1
+
+mkdir -p results
+VERSION=$(git describe --tags --always --dirty 2>/dev/null || echo snapshot)
+OUTPUT="results/$VERSION.json"
+
+java -jar target/benchmarks.jar -rf json -rff "$OUTPUT" "$@"
+echo ""
+echo "Results written to benchmarks/$OUTPUT"
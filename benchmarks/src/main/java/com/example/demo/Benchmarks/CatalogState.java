@@ -0,0 +1,116 @@
+package com.example.demo.Benchmarks;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.demo.Controllers.ResourceController;
+import com.example.demo.Repositories.CategoryRepository;
+import com.example.demo.Repositories.FavoriteRepository;
+import com.example.demo.Repositories.RatingRepository;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Repositories.TagRepository;
+import com.example.demo.Services.ResourceIndex;
+import com.example.demo.Services.ResourceSearchService;
+import com.example.demo.Services.TagGraph;
+import com.example.demo.Services.UserAffinityService;
+
+/**
+ * The services behind search, recommendations and tag lookup, wired by hand
+ * to a {@link SyntheticCatalog} of the requested size.
+ */
+@State(Scope.Benchmark)
+public class CatalogState {
+
+    static final long FEED_USER_ID = 7L;
+
+    @Param({ "1000", "10000", "100000" })
+    public int catalogSize;
+
+    @Param({ "3", "8" })
+    public int tagsPerResource;
+
+    public SyntheticCatalog catalog;
+    public ResourceIndex resourceIndex;
+    public ResourceSearchService searchService;
+    public TagGraph tagGraph;
+    public UserAffinityService userAffinityService;
+    public ResourceController resourceController;
+    public MethodHandle recommendedIds;
+
+    // Typical query inputs: the most used tag plus a mid-popularity one
+    public String popularTag;
+    public String midTag;
+    public List<String> oneCategory;
+    public List<String> twoTags;
+    public long[] pickedTagIds;
+    public long sampleResourceId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        catalog = new SyntheticCatalog(catalogSize, tagsPerResource);
+        ResourceRepository resources = SyntheticCatalog.repository(ResourceRepository.class, catalog.resourceRepositoryHandlers());
+        TagRepository tags = SyntheticCatalog.repository(TagRepository.class, Map.of("findAll", args -> catalog.tags));
+        CategoryRepository categories = SyntheticCatalog.repository(CategoryRepository.class, Map.of("findAll", args -> catalog.categories));
+        FavoriteRepository favorites = SyntheticCatalog.repository(FavoriteRepository.class,
+                Map.of("findResourceIdsByUserId", args -> catalog.sampleIds(30, (Long) args[0])));
+        RatingRepository ratings = SyntheticCatalog.repository(RatingRepository.class,
+                Map.of("findResourceRatingsByUserId", args -> ratingRows((Long) args[0])));
+
+        resourceIndex = new ResourceIndex();
+        SyntheticCatalog.inject(resourceIndex, "resourceRepository", resources);
+        SyntheticCatalog.inject(resourceIndex, "tagRepository", tags);
+        SyntheticCatalog.inject(resourceIndex, "categoryRepository", categories);
+        resourceIndex.rebuild();
+
+        searchService = new ResourceSearchService();
+        SyntheticCatalog.inject(searchService, "resourceIndex", resourceIndex);
+        SyntheticCatalog.inject(searchService, "resourceRepository", resources);
+
+        tagGraph = new TagGraph();
+        SyntheticCatalog.inject(tagGraph, "resourceIndex", resourceIndex);
+        tagGraph.rebuild();
+
+        userAffinityService = new UserAffinityService();
+        SyntheticCatalog.inject(userAffinityService, "resourceIndex", resourceIndex);
+        SyntheticCatalog.inject(userAffinityService, "favoriteRepository", favorites);
+        SyntheticCatalog.inject(userAffinityService, "ratingRepository", ratings);
+        SyntheticCatalog.inject(userAffinityService, "resourceRepository", resources);
+        // Load the profile once: the benchmark measures ranking, not the profile query
+        userAffinityService.profileOf(FEED_USER_ID);
+
+        // ENDPOINT 13's scoring lives in a private method behind the query cache; call it directly
+        resourceController = new ResourceController();
+        SyntheticCatalog.inject(resourceController, "resourceRepository", resources);
+        recommendedIds = MethodHandles.privateLookupIn(ResourceController.class, MethodHandles.lookup())
+                .findVirtual(ResourceController.class, "recommendedIds",
+                        MethodType.methodType(List.class, Long.class, int.class))
+                .bindTo(resourceController);
+
+        popularTag = catalog.tags.get(0).name;
+        midTag = catalog.tags.get(24).name;
+        oneCategory = List.of(catalog.categories.get(0).name);
+        twoTags = List.of(popularTag, midTag);
+        pickedTagIds = new long[] { catalog.tags.get(0).id, catalog.tags.get(3).id };
+        sampleResourceId = catalogSize / 2;
+    }
+
+    private List<Object[]> ratingRows(long userId) {
+        List<Object[]> rows = new ArrayList<>();
+        int value = 1;
+        for (Long resourceId : catalog.sampleIds(20, userId * 31)) {
+            rows.add(new Object[] { resourceId, value });
+            value = value % 5 + 1;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.demo.Benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares two JMH JSON result files (-rf json) and flags regressions.
+ *
+ * Usage: java -cp target/benchmarks.jar com.example.demo.Benchmarks.CompareResults
+ *            BASELINE.json CURRENT.json [threshold-percent, default 10]
+ *
+ * A benchmark regresses when it got worse by more than the threshold AND by
+ * more than the two runs' combined error bars. Exits with status 1 if
+ * anything regressed, so it can gate a release build.
+ */
+public class CompareResults {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: CompareResults BASELINE.json CURRENT.json [threshold-percent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(mapper.readTree(new File(args[0])));
+        Map<String, JsonNode> current = index(mapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-90s %14s %14s %9s%n", "benchmark", "baseline", "current", "change");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  (new) %s%n", entry.getKey(), "-", newScore, "", unit);
+                continue;
+            }
+            double oldScore = before.path("primaryMetric").path("score").asDouble();
+            double error = errorOf(before) + errorOf(after);
+            // Throughput: higher is better. Every other JMH mode reports time: lower is better
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            double change = oldScore == 0 ? 0 : (newScore - oldScore) / oldScore * 100;
+            double worse = higherIsBetter ? oldScore - newScore : newScore - oldScore;
+            boolean regressed = worse > 0 && Math.abs(change) > threshold && worse > error;
+            if (regressed) regressions++;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%%s %s%n",
+                    entry.getKey(), oldScore, newScore, change, regressed ? "  REGRESSION" : "", unit);
+        }
+        for (String key : baseline.keySet()) {
+            if (!current.containsKey(key)) {
+                System.out.printf("%-90s  (missing from current run)%n", key);
+            }
+        }
+
+        System.out.println();
+        System.out.println(regressions == 0 ? "No regressions above " + threshold + "%"
+                : regressions + " regression(s) above " + threshold + "%");
+        System.exit(regressions == 0 ? 0 : 1);
+    }
+
+    // Key: benchmark name plus its params, e.g. "...SearchBenchmark.unfiltered{catalogSize=1000, tagsPerResource=3}"
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new TreeMap<>();
+        for (JsonNode result : results) {
+            Map<String, String> params = new LinkedHashMap<>();
+            Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> param = fields.next();
+                params.put(param.getKey(), param.getValue().asText());
+            }
+            byKey.put(result.path("benchmark").asText() + (params.isEmpty() ? "" : params.toString()), result);
+        }
+        return byKey;
+    }
+
+    private static double errorOf(JsonNode result) {
+        double error = result.path("primaryMetric").path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+}
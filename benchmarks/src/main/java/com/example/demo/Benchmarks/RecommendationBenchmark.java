@@ -0,0 +1,37 @@
+package com.example.demo.Benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.Services.UserAffinityService;
+
+/**
+ * Recommendation scoring: the tag-overlap scan behind ENDPOINT 13
+ * (getRecommendations) and the affinity ranking behind the feed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecommendationBenchmark {
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<Long> tagOverlapRecommendations(CatalogState state) throws Throwable {
+        return (List<Long>) state.recommendedIds.invoke(state.sampleResourceId, 10);
+    }
+
+    @Benchmark
+    public List<UserAffinityService.ScoredResource> feedRanking(CatalogState state) {
+        return state.userAffinityService.rankFeed(CatalogState.FEED_USER_ID, 0, 20);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.demo.Benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.Services.ResourceSearchService;
+
+/**
+ * ENDPOINT 10 (searchResources) below the query cache: bitmap filtering and
+ * facet counting in ResourceSearchService.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmark {
+
+    @Benchmark
+    public ResourceSearchService.SearchResult unfiltered(CatalogState state) {
+        return state.searchService.search(null, List.of(), List.of(), 0);
+    }
+
+    @Benchmark
+    public ResourceSearchService.SearchResult categoryAndTags(CatalogState state) {
+        return state.searchService.search(null, state.oneCategory, state.twoTags, 0);
+    }
+
+    @Benchmark
+    public ResourceSearchService.SearchResult keywordCategoryAndTags(CatalogState state) {
+        return state.searchService.search("notes", state.oneCategory, state.twoTags, 0);
+    }
+
+    @Benchmark
+    public ResourceSearchService.SearchResult categoryAndTagsWithFacets(CatalogState state) {
+        return state.searchService.search(null, state.oneCategory, state.twoTags, 10);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.demo.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.DTO.ResourceDetailResponse;
+import com.example.demo.DTO.ResourceSummary;
+import com.example.demo.Entities.Resource;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+
+/**
+ * JSON serialisation of what the controllers return: a details response, a
+ * page of DTOs, and a page of entities (what ENDPOINT 1, search and by-tag
+ * still return).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    static final int PAGE_SIZE = 20;
+
+    @Param({ "3", "8" })
+    public int tagsPerResource;
+
+    private ObjectMapper objectMapper;
+    private ResourceDetailResponse details;
+    private List<ResourceSummary> summaryPage;
+    private List<Resource> entityPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // Configured like Boot's auto-configured mapper: java.time support, ISO dates
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        SyntheticCatalog catalog = new SyntheticCatalog(PAGE_SIZE, tagsPerResource);
+        entityPage = catalog.resources;
+        summaryPage = new ArrayList<>();
+        for (Resource resource : entityPage) {
+            summaryPage.add(new ResourceSummary(resource, resource.tags.stream().map(t -> t.name).toList(), null));
+        }
+
+        Resource resource = entityPage.get(0);
+        details = new ResourceDetailResponse();
+        details.id = resource.id;
+        details.title = resource.title;
+        details.description = resource.description;
+        details.filePath = resource.filePath;
+        details.uploaderId = resource.uploaderId;
+        details.uploaderName = "Synthetic Uploader";
+        details.uploaderEmail = "uploader@example.com";
+        details.averageRating = resource.averageRating;
+        details.viewCount = resource.viewCount;
+        details.downloadCount = resource.downloadCount;
+        details.categories = resource.categories.stream().map(c -> c.name).toList();
+        details.tags = resource.tags.stream().map(t -> t.name).toList();
+        details.commentCount = 12;
+        details.favoriteCount = 40;
+        details.createdAt = resource.createdAt;
+    }
+
+    @Benchmark
+    public byte[] detailResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(details);
+    }
+
+    @Benchmark
+    public byte[] summaryPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summaryPage);
+    }
+
+    @Benchmark
+    public byte[] entityPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(entityPage);
+    }
+}
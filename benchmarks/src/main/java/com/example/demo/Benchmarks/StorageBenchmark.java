@@ -0,0 +1,126 @@
+package com.example.demo.Benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.example.demo.Services.HotFileCache;
+import com.example.demo.Services.SingleFlight;
+import com.example.demo.Services.StorageService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * StorageService upload (ENDPOINT 2) and download (ENDPOINT 3) paths against
+ * a temp directory. Each stored copy is deleted inside the measured method so
+ * the disk doesn't fill up; that delete is part of every store score.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StorageBenchmark {
+
+    @Param({ "4", "256", "4096" })
+    public int fileSizeKb;
+
+    private Path root;
+    private StorageService storageService;
+    private byte[] content;
+    private Path sourceFile;
+    private String storedName;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        root = Files.createTempDirectory("storage-bench");
+        storageService = new StorageService();
+        // rootLocation is a fixed relative path; point it at the temp dir
+        Field rootLocation = StorageService.class.getDeclaredField("rootLocation");
+        rootLocation.setAccessible(true);
+        rootLocation.set(storageService, root);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        SyntheticCatalog.inject(storageService, "meterRegistry", registry);
+        // Disabled (max-bytes 0): download measures the disk path, comparable with earlier results
+        SyntheticCatalog.inject(storageService, "hotFiles",
+                new HotFileCache(0, 0, 0, 2, 1000, new SingleFlight(500, 100, registry), registry));
+
+        content = new byte[fileSizeKb * 1024];
+        new SplittableRandom(1).nextBytes(content);
+        sourceFile = Files.write(root.resolve("source.bin"), content);
+        storedName = storageService.store(sourceFile);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public String storeMultipart() throws IOException {
+        String name = storageService.store(new InMemoryMultipartFile("notes.bin", content));
+        Files.delete(root.resolve(name));
+        return name;
+    }
+
+    @Benchmark
+    public String storeFromPath() throws IOException {
+        String name = storageService.store(sourceFile);
+        Files.delete(root.resolve(name));
+        return name;
+    }
+
+    // What ResourceHttpMessageConverter does with the Resource returned by ENDPOINT 3
+    @Benchmark
+    public long download() throws IOException {
+        try (InputStream in = storageService.loadAsResource(storedName).getInputStream()) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    static class InMemoryMultipartFile implements MultipartFile {
+        private final String filename;
+        private final byte[] bytes;
+
+        InMemoryMultipartFile(String filename, byte[] bytes) {
+            this.filename = filename;
+            this.bytes = bytes;
+        }
+
+        @Override public String getName() { return "file"; }
+        @Override public String getOriginalFilename() { return filename; }
+        @Override public String getContentType() { return "application/octet-stream"; }
+        @Override public boolean isEmpty() { return bytes.length == 0; }
+        @Override public long getSize() { return bytes.length; }
+        @Override public byte[] getBytes() { return bytes; }
+        @Override public InputStream getInputStream() { return new ByteArrayInputStream(bytes); }
+        @Override public void transferTo(File dest) throws IOException { Files.write(dest.toPath(), bytes); }
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.Benchmarks;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.function.Function;
+
+import com.example.demo.Entities.Category;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+
+/**
+ * Deterministic in-memory catalog for the benchmarks, plus the plumbing to run
+ * the app's services against it without Spring or a database.
+ *
+ * Tag usage follows a Zipf distribution (a few tags on most resources, a long
+ * tail used once or twice), which is what the real tag table looks like and
+ * what makes bitmap sizes and overlap scoring skewed.
+ */
+public class SyntheticCatalog {
+
+    static final int TAG_COUNT = 500;
+    static final int CATEGORY_COUNT = 12;
+    static final double ZIPF_EXPONENT = 1.07;
+
+    private static final String[] WORDS = {
+        "java", "spring", "react", "sql", "python", "notes", "lecture", "exam", "algorithms", "graphs",
+        "linear", "algebra", "calculus", "networks", "operating", "systems", "compiler", "design", "cheatsheet", "lab"
+    };
+
+    public final List<Tag> tags = new ArrayList<>();
+    public final List<Category> categories = new ArrayList<>();
+    public final List<Resource> resources = new ArrayList<>();
+    public final Map<Long, Resource> resourcesById = new HashMap<>();
+    private final Map<String, List<Long>> keywordResults = new HashMap<>();
+
+    public SyntheticCatalog(int resourceCount, int tagsPerResource) {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 1; i <= TAG_COUNT; i++) {
+            Tag tag = new Tag(i <= WORDS.length ? WORDS[i - 1] : "tag-" + i, "Synthetic tag " + i, i <= 20);
+            tag.id = (long) i;
+            tags.add(tag);
+        }
+        for (int i = 1; i <= CATEGORY_COUNT; i++) {
+            Category category = new Category();
+            category.id = (long) i;
+            category.name = "Category " + i;
+            categories.add(category);
+        }
+
+        double[] cumulative = zipfCumulative(TAG_COUNT, ZIPF_EXPONENT);
+        for (long id = 1; id <= resourceCount; id++) {
+            Resource resource = new Resource();
+            resource.id = id;
+            resource.title = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            resource.description = "Synthetic resource " + id + " about " + WORDS[random.nextInt(WORDS.length)];
+            resource.filePath = "resource-" + id + ".pdf";
+            resource.uploaderId = 1 + (long) random.nextInt(1000);
+            resource.averageRating = random.nextInt(501) / 100.0;
+            resource.viewCount = random.nextInt(5000);
+            resource.downloadCount = random.nextInt(1000);
+            resource.createdAt = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id);
+            while (resource.tags.size() < Math.min(tagsPerResource, TAG_COUNT)) {
+                resource.tags.add(tags.get(sample(cumulative, random)));
+            }
+            resource.categories.add(categories.get(random.nextInt(CATEGORY_COUNT)));
+            resources.add(resource);
+            resourcesById.put(id, resource);
+        }
+        for (Resource resource : resources) {
+            for (Tag tag : resource.tags) {
+                tag.usageCount++;
+            }
+        }
+    }
+
+    public List<Object[]> resourceTagPairs() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Resource resource : resources) {
+            for (Tag tag : resource.tags) {
+                rows.add(new Object[] { resource.id, tag.id });
+            }
+        }
+        return rows;
+    }
+
+    public List<Object[]> resourceCategoryPairs() {
+        List<Object[]> rows = new ArrayList<>();
+        for (Resource resource : resources) {
+            for (Category category : resource.categories) {
+                rows.add(new Object[] { resource.id, category.id });
+            }
+        }
+        return rows;
+    }
+
+    // Stands in for the SQL LIKE query. Answers are memoised so the database's
+    // share of a keyword search is not what the benchmark measures.
+    public List<Long> idsMatching(String likePattern) {
+        return keywordResults.computeIfAbsent(likePattern, pattern -> {
+            String needle = pattern.substring(1, pattern.length() - 1)
+                    .replace("\\%", "%").replace("\\_", "_").replace("\\\\", "\\");
+            List<Long> ids = new ArrayList<>();
+            for (Resource resource : resources) {
+                if (resource.title.toLowerCase(Locale.ROOT).contains(needle)
+                        || resource.description.toLowerCase(Locale.ROOT).contains(needle)) {
+                    ids.add(resource.id);
+                }
+            }
+            return ids;
+        });
+    }
+
+    // Some resource ids spread over the catalog, e.g. a user's favorites
+    public List<Long> sampleIds(int count, long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(1 + (long) random.nextInt(resources.size()));
+        }
+        return ids;
+    }
+
+    /**
+     * A Spring Data repository interface backed by the given handlers, keyed
+     * by method name. Anything not handled throws, so a benchmark can't
+     * silently measure a code path that would hit the database.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T repository(Class<T> type, Map<String, Function<Object[], Object>> handlers) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> handler = handlers.get(method.getName());
+            if (handler != null) {
+                return handler.apply(args);
+            }
+            return switch (method.getName()) {
+                case "toString" -> type.getSimpleName() + " stub";
+                case "hashCode" -> System.identityHashCode(proxy);
+                case "equals" -> proxy == args[0];
+                default -> throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                        + Arrays.toString(method.getParameterTypes()) + " is not stubbed");
+            };
+        });
+    }
+
+    public Map<String, Function<Object[], Object>> resourceRepositoryHandlers() {
+        Map<String, Function<Object[], Object>> handlers = new HashMap<>();
+        handlers.put("findAll", args -> resources);
+        handlers.put("findById", args -> Optional.ofNullable(resourcesById.get((Long) args[0])));
+        handlers.put("findAllById", args -> {
+            List<Resource> found = new ArrayList<>();
+            for (Object id : (Iterable<?>) args[0]) {
+                Resource resource = resourcesById.get((Long) id);
+                if (resource != null) found.add(resource);
+            }
+            return found;
+        });
+        handlers.put("findAllIds", args -> resources.stream().map(r -> r.id).toList());
+        handlers.put("findAllResourceTagPairs", args -> resourceTagPairs());
+        handlers.put("findAllResourceCategoryPairs", args -> resourceCategoryPairs());
+        handlers.put("findIdsByKeywordPattern", args -> idsMatching((String) args[0]));
+        handlers.put("findIdsByUploaderId", args -> List.of());
+        return handlers;
+    }
+
+    // Sets an @Autowired field the way Spring would
+    public static void inject(Object target, String fieldName, Object value) {
+        try {
+            Field field = target.getClass().getDeclaredField(fieldName);
+            field.setAccessible(true);
+            field.set(target, value);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot inject " + fieldName + " into " + target.getClass().getSimpleName(), e);
+        }
+    }
+
+    private static double[] zipfCumulative(int n, double exponent) {
+        double[] cumulative = new double[n];
+        double sum = 0;
+        for (int rank = 1; rank <= n; rank++) {
+            sum += 1.0 / Math.pow(rank, exponent);
+            cumulative[rank - 1] = sum;
+        }
+        for (int i = 0; i < n; i++) {
+            cumulative[i] /= sum;
+        }
+        return cumulative;
+    }
+
+    private static int sample(double[] cumulative, SplittableRandom random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulative.length - 1);
+    }
+}
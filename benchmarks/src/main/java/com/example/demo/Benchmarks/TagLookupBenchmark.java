@@ -0,0 +1,48 @@
+package com.example.demo.Benchmarks;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.demo.Services.TagGraph;
+
+/**
+ * Tag lookups: by-tag postings (ENDPOINT 14), tag names for a resource, and
+ * the co-occurrence graph behind /api/tags/{id}/related and /suggest.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TagLookupBenchmark {
+
+    @Benchmark
+    public BitSet resourcesByTagName(CatalogState state) {
+        Long tagId = state.resourceIndex.tagIdByName(state.midTag);
+        return tagId == null ? null : state.resourceIndex.resourcesWithTag(tagId);
+    }
+
+    @Benchmark
+    public List<String> tagNamesOfResource(CatalogState state) {
+        return state.resourceIndex.tagNamesOf(state.sampleResourceId);
+    }
+
+    @Benchmark
+    public List<TagGraph.RelatedTag> relatedTags(CatalogState state) {
+        return state.tagGraph.related(state.pickedTagIds[0], 10);
+    }
+
+    @Benchmark
+    public List<TagGraph.RelatedTag> suggestTags(CatalogState state) {
+        return state.tagGraph.suggest(state.pickedTagIds, 10);
+    }
+}
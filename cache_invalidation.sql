@@ -0,0 +1,112 @@
+-- ============================================
+-- Cluster Cache Invalidation (LISTEN/NOTIFY)
+-- ============================================
+-- Every write to a table that feeds an in-process cache sends a
+-- notification on channel 'innohacks_changes', delivered to every node
+-- listening (see Services/InvalidationBus) when the transaction commits.
+--
+-- Payload: '<table>:<id>,<id>,...' where the ids are resource ids (for
+-- resources and everything hanging off a resource) or tag/category ids.
+-- More than 100 ids in one statement (bulk import) sends '<table>:*' instead,
+-- which makes listeners drop everything they cached from that table.
+--
+-- Statement-level triggers with transition tables, so a multi-row
+-- statement costs one notification, not one per row. View and download
+-- counts are bumped by every activity flush and tag usage counts by every
+-- tagging, and none of them is cached (ChangeVersions treats them the same
+-- way), so an UPDATE that only touches view_count/download_count or
+-- usage_count sends nothing.
+--
+-- Safe to re-run (PostgreSQL 14+ for CREATE OR REPLACE TRIGGER).
+-- ============================================
+
+-- TG_ARGV[0]: column holding the id to broadcast
+-- TG_ARGV[1]: primary key, and TG_ARGV[2..]: columns whose changes are not
+--             broadcast (UPDATE only; both optional)
+CREATE OR REPLACE FUNCTION notify_cache_change()
+RETURNS TRIGGER AS $$
+DECLARE
+    key_column TEXT := TG_ARGV[0];
+    changed_ids TEXT;
+    changed_count INT;
+BEGIN
+    IF TG_OP = 'TRUNCATE' THEN
+        PERFORM pg_notify('innohacks_changes', TG_TABLE_NAME || ':*');
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'INSERT' THEN
+        EXECUTE format('SELECT count(*), string_agg(k::text, '','') FROM '
+                || '(SELECT DISTINCT %I AS k FROM new_rows LIMIT 101) s', key_column)
+            INTO changed_count, changed_ids;
+    ELSIF TG_OP = 'DELETE' THEN
+        EXECUTE format('SELECT count(*), string_agg(k::text, '','') FROM '
+                || '(SELECT DISTINCT %I AS k FROM old_rows LIMIT 101) s', key_column)
+            INTO changed_count, changed_ids;
+    ELSIF TG_NARGS > 2 THEN
+        EXECUTE format('SELECT count(*), string_agg(k::text, '','') FROM '
+                || '(SELECT DISTINCT n.%I AS k FROM new_rows n JOIN old_rows o ON o.%I = n.%I '
+                || 'WHERE (to_jsonb(n) - $1) IS DISTINCT FROM (to_jsonb(o) - $1) LIMIT 101) s',
+                key_column, TG_ARGV[1], TG_ARGV[1])
+            USING TG_ARGV[2:]
+            INTO changed_count, changed_ids;
+    ELSE
+        -- Old and new ids both count: a row may have moved to another resource
+        EXECUTE format('SELECT count(*), string_agg(k::text, '','') FROM '
+                || '(SELECT %I AS k FROM new_rows UNION SELECT %I FROM old_rows LIMIT 101) s',
+                key_column, key_column)
+            INTO changed_count, changed_ids;
+    END IF;
+
+    IF changed_count > 100 THEN
+        changed_ids := '*';
+    END IF;
+    IF changed_count > 0 THEN
+        PERFORM pg_notify('innohacks_changes', TG_TABLE_NAME || ':' || changed_ids);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- One set of triggers per table: (table, id column to broadcast, update arguments)
+DO $$
+DECLARE
+    t RECORD;
+BEGIN
+    FOR t IN SELECT * FROM (VALUES
+            ('resources',           'id',          ', ''id'', ''view_count'', ''download_count'''),
+            ('resource_tags',       'resource_id', ''),
+            ('resource_categories', 'resource_id', ''),
+            ('comments',            'resource_id', ''),
+            ('favorites',           'resource_id', ''),
+            ('ratings',             'resource_id', ''),
+            ('tags',                'id',          ', ''id'', ''usage_count'''),
+            ('categories',          'id',          '')
+        ) AS v(table_name, key_column, update_args)
+    LOOP
+        EXECUTE format('CREATE OR REPLACE TRIGGER cache_notify_insert AFTER INSERT ON %I '
+                || 'REFERENCING NEW TABLE AS new_rows FOR EACH STATEMENT '
+                || 'EXECUTE FUNCTION notify_cache_change(%L)', t.table_name, t.key_column);
+        EXECUTE format('CREATE OR REPLACE TRIGGER cache_notify_update AFTER UPDATE ON %I '
+                || 'REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows FOR EACH STATEMENT '
+                || 'EXECUTE FUNCTION notify_cache_change(%L%s)', t.table_name, t.key_column, t.update_args);
+        EXECUTE format('CREATE OR REPLACE TRIGGER cache_notify_delete AFTER DELETE ON %I '
+                || 'REFERENCING OLD TABLE AS old_rows FOR EACH STATEMENT '
+                || 'EXECUTE FUNCTION notify_cache_change(%L)', t.table_name, t.key_column);
+        EXECUTE format('CREATE OR REPLACE TRIGGER cache_notify_truncate AFTER TRUNCATE ON %I '
+                || 'FOR EACH STATEMENT EXECUTE FUNCTION notify_cache_change(%L)', t.table_name, t.key_column);
+    END LOOP;
+END;
+$$;
+
+-- ============================================
+-- VERIFICATION
+-- ============================================
+-- Should list 4 triggers for each of the 8 tables
+SELECT event_object_table, COUNT(DISTINCT trigger_name) AS triggers
+FROM information_schema.triggers
+WHERE trigger_name LIKE 'cache_notify_%'
+GROUP BY event_object_table
+ORDER BY event_object_table;
+
+-- To watch the channel from psql:  LISTEN innohacks_changes;
@@ -0,0 +1,90 @@
+#!/bin/bash
+
+# Load-tests the blocking read endpoints (servlet app, :8080) against the
+# reactive read API (reactive-read-api, :8081) with the same request mix.
+#
+# For every run it records throughput and latency (bench/ThreadModeBench.java)
+# plus, sampled halfway through, the app's live JVM thread count and the
+# number of PostgreSQL connections it holds. Results go to read_stacks.csv.
+#
+# Build both jars first:
+#   mvn -DskipTests package && (cd reactive-read-api && mvn -DskipTests package)
+#
+# Usage: ./compare_read_stacks.sh [seconds-per-run] [concurrency levels...]
+
+DURATION=${1:-30}
+[ $# -gt 0 ] && shift
+LEVELS=${*:-"100 500 2000"}
+DB_NAME=${DB_NAME:-innohacks}
+DB_USER=${DB_USER:-postgres}
+RESULTS="read_stacks.csv"
+
+SERVLET_JAR=$(ls target/*-exec.jar 2>/dev/null | head -1)
+REACTIVE_JAR=$(ls reactive-read-api/target/*.jar 2>/dev/null | grep -v original | head -1)
+if [ -z "$SERVLET_JAR" ] || [ -z "$REACTIVE_JAR" ]; then
+    echo "Missing jar(s) - build both projects first (see header)"
+    exit 1
+fi
+
+PATHS="/api/resources /api/resources/search?keyword=java /api/resources/1/comments /api/resources/categories /api/tags /api/tags/popular"
+
+# pgjdbc and r2dbc-postgresql report different application_name values by default
+db_connections() {
+    psql -U "$DB_USER" -d "$DB_NAME" -Atc \
+        "SELECT COUNT(*) FROM pg_stat_activity WHERE datname = '$DB_NAME' AND application_name = '$1'"
+}
+
+wait_for() {
+    until curl -s -o /dev/null "$1"; do
+        if ! kill -0 "$2" 2>/dev/null; then
+            echo "App failed to start, see $3"
+            exit 1
+        fi
+        sleep 1
+    done
+}
+
+[ -f "$RESULTS" ] || echo "stack,requests,errors,throughput_rps,p50_ms,p95_ms,p99_ms,max_ms,jvm_threads,db_connections" > "$RESULTS"
+
+for STACK in servlet reactive; do
+    if [ "$STACK" = "servlet" ]; then
+        PORT=8080; JAR=$SERVLET_JAR; APP_NAME="PostgreSQL JDBC Driver"
+    else
+        PORT=8081; JAR=$REACTIVE_JAR; APP_NAME="r2dbc-postgresql"
+    fi
+    BASE_URL="http://localhost:$PORT"
+
+    echo "=================================="
+    echo "Stack: $STACK ($BASE_URL)"
+    echo "=================================="
+
+    # One client address: without this the servlet app answers most requests with 429
+    java -jar "$JAR" --server.port=$PORT \
+        --ratelimit.enabled=false \
+        --logging.level.org.springframework.web=INFO \
+        --logging.level.org.springframework.security=INFO \
+        > "read_stacks_$STACK.log" 2>&1 &
+    APP_PID=$!
+    wait_for "$BASE_URL/api/tags" $APP_PID "read_stacks_$STACK.log"
+
+    java bench/ThreadModeBench.java "$BASE_URL" warmup 50 10 $PATHS > /dev/null
+
+    for C in $LEVELS; do
+        echo -n "Concurrency $C... "
+        OUT=$(mktemp)
+        java bench/ThreadModeBench.java "$BASE_URL" "$STACK-c$C" "$C" "$DURATION" $PATHS > "$OUT" &
+        BENCH_PID=$!
+        sleep $((DURATION / 2))
+        THREADS=$(ps -o nlwp= -p $APP_PID | tr -d ' ')
+        CONNECTIONS=$(db_connections "$APP_NAME")
+        wait $BENCH_PID
+        echo "$(cat "$OUT"),$THREADS,$CONNECTIONS" | tee -a "$RESULTS"
+        rm -f "$OUT"
+    done
+
+    kill $APP_PID
+    wait $APP_PID 2>/dev/null
+done
+
+echo ""
+echo "Results written to $RESULTS"
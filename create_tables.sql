@@ -51,6 +51,7 @@ CREATE TABLE resources (
     view_count INTEGER DEFAULT 0 NOT NULL,
     download_count INTEGER DEFAULT 0 NOT NULL,
     uploaded_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    minhash_signature BYTEA, -- packed 64-slot MinHash (SimilarityIndex); NULL until computed
     FOREIGN KEY (uploader_id) REFERENCES users(id) ON DELETE CASCADE
 );
 
@@ -0,0 +1,452 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.CopyManager;
+
+/**
+ * Fills the app's PostgreSQL database with a production-shaped catalog.
+ *
+ * Distributions:
+ *  - tags: Zipf (s=1.1) over the predefined tags, 1-6 per resource
+ *  - resource popularity: Zipf over a shuffled ranking; views, downloads,
+ *    ratings, favorites and comments all follow it
+ *  - activity per user: Zipf, so a few power users do most of the rating
+ *  - uploads per user: Zipf; file sizes: log-normal (median 256 KB)
+ *
+ * Rows go in through COPY, with the ratings trigger disabled during the load
+ * and average_rating/usage_count recomputed in one statement each afterwards.
+ * Generated users are loadtest-N@example.com; a manifest for the load driver
+ * is written to --manifest.
+ *
+ * Usage: java -cp target/loadtest.jar com.example.loadtest.DatasetGenerator
+ *   [--url jdbc:postgresql://localhost:5432/innohacks] [--user postgres] [--password ...]
+ *   [--resources 100000] [--users 5000] [--ratings 2000000] [--favorites 1000000]
+ *   [--comments 500000] [--files 500] [--uploads ../uploads]
+ *   [--manifest dataset.properties] [--seed 42] [--reset]
+ */
+public class DatasetGenerator {
+
+    static final String EMAIL_PATTERN = "loadtest-%d@example.com";
+    static final String FILE_PREFIX = "loadtest_";
+    static final String[] WORDS = {
+        "java", "spring", "react", "sql", "python", "notes", "lecture", "exam", "algorithms", "graphs",
+        "linear", "algebra", "calculus", "networks", "operating", "systems", "compiler", "design", "cheatsheet", "lab",
+        "physics", "chemistry", "biology", "statistics", "probability", "databases", "security", "machine", "learning", "web"
+    };
+    static final String[] EXTENSIONS = { "pdf", "pdf", "pdf", "pptx", "docx", "zip", "txt", "md" };
+
+    private final Connection connection;
+    private final CopyManager copyManager;
+    private final SplittableRandom random;
+
+    DatasetGenerator(Connection connection, long seed) throws SQLException {
+        this.connection = connection;
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        this.random = new SplittableRandom(seed);
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = new Options(args);
+        String url = options.get("url", "jdbc:postgresql://localhost:5432/innohacks");
+        try (Connection connection = DriverManager.getConnection(url,
+                options.get("user", "postgres"), options.get("password", ""))) {
+            new DatasetGenerator(connection, options.getLong("seed", 42)).generate(options);
+        }
+    }
+
+    void generate(Options options) throws Exception {
+        int resourceCount = options.getInt("resources", 100_000);
+        int userCount = options.getInt("users", 5_000);
+        long ratingCount = options.getLong("ratings", 2_000_000);
+        long favoriteCount = options.getLong("favorites", 1_000_000);
+        long commentCount = options.getLong("comments", 500_000);
+        int fileCount = options.getInt("files", 500);
+        Path uploads = Paths.get(options.get("uploads", "../uploads"));
+        long start = System.currentTimeMillis();
+
+        if (options.getBoolean("reset")) {
+            reset();
+        } else if (count("SELECT COUNT(*) FROM users WHERE email LIKE 'loadtest-%@example.com'") > 0) {
+            throw new IllegalStateException("Load-test data already present; rerun with --reset to replace it");
+        }
+
+        List<long[]> tagRows = query("SELECT id FROM tags WHERE is_predefined = TRUE ORDER BY id");
+        List<String> tagNames = queryStrings("SELECT name FROM tags WHERE is_predefined = TRUE ORDER BY id");
+        List<long[]> categoryRows = query("SELECT id FROM categories ORDER BY id");
+        if (tagRows.isEmpty() || categoryRows.isEmpty()) {
+            throw new IllegalStateException("Need predefined tags and categories: load tags_schema.sql and mockup_data.sql first");
+        }
+        long[] tagIds = tagRows.stream().mapToLong(r -> r[0]).toArray();
+        long[] categoryIds = categoryRows.stream().mapToLong(r -> r[0]).toArray();
+
+        long firstUserId = nextId("users");
+        long firstResourceId = nextId("resources");
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+
+        List<String> files = writeFiles(uploads, fileCount);
+        copyUsers(firstUserId, userCount, now);
+
+        // Popularity: rank -> resource offset. Zipf over ranks drives every kind of activity
+        int[] popularity = Zipf.shuffledRanks(resourceCount, random);
+        Zipf resourceZipf = new Zipf(resourceCount, 1.0);
+        Zipf userZipf = new Zipf(userCount, 1.0);
+        int[] userActivity = Zipf.shuffledRanks(userCount, random);
+
+        copyResources(firstResourceId, resourceCount, firstUserId, userZipf, userActivity, popularity, files, now);
+        copyResourceTags(firstResourceId, resourceCount, tagIds);
+        copyResourceCategories(firstResourceId, resourceCount, categoryIds);
+
+        // The average-rating trigger would fire per copied row; recomputed once in finish()
+        execute("ALTER TABLE ratings DISABLE TRIGGER USER");
+        try {
+            copyRatings(firstUserId, userCount, firstResourceId, ratingCount, userZipf, userActivity, resourceZipf, popularity, now);
+        } finally {
+            execute("ALTER TABLE ratings ENABLE TRIGGER USER");
+        }
+        copyFavorites(firstUserId, userCount, firstResourceId, favoriteCount, userZipf, userActivity, resourceZipf, popularity, now);
+        copyComments(firstUserId, userCount, firstResourceId, commentCount, userZipf, userActivity, resourceZipf, popularity, now);
+
+        finish();
+        writeManifest(Paths.get(options.get("manifest", "dataset.properties")), firstUserId, userCount,
+                firstResourceId, resourceCount, files, tagNames);
+        System.out.printf("Dataset generated in %.1f s%n", (System.currentTimeMillis() - start) / 1000.0);
+    }
+
+    private void reset() throws SQLException {
+        System.out.println("Removing previous load-test data...");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DELETE FROM comments WHERE user_id IN (SELECT id FROM users WHERE email LIKE 'loadtest-%@example.com')");
+            statement.execute("DELETE FROM favorites WHERE user_id IN (SELECT id FROM users WHERE email LIKE 'loadtest-%@example.com')");
+            statement.execute("DELETE FROM ratings WHERE user_id IN (SELECT id FROM users WHERE email LIKE 'loadtest-%@example.com')");
+            String generated = "SELECT id FROM resources WHERE file_path LIKE '" + FILE_PREFIX + "%'";
+            statement.execute("DELETE FROM comments WHERE resource_id IN (" + generated + ")");
+            statement.execute("DELETE FROM favorites WHERE resource_id IN (" + generated + ")");
+            statement.execute("DELETE FROM ratings WHERE resource_id IN (" + generated + ")");
+            statement.execute("DELETE FROM resource_tags WHERE resource_id IN (" + generated + ")");
+            statement.execute("DELETE FROM resource_categories WHERE resource_id IN (" + generated + ")");
+            statement.execute("DELETE FROM resources WHERE file_path LIKE '" + FILE_PREFIX + "%'");
+            statement.execute("DELETE FROM users WHERE email LIKE 'loadtest-%@example.com'");
+        }
+    }
+
+    private List<String> writeFiles(Path uploads, int fileCount) throws IOException {
+        Files.createDirectories(uploads);
+        List<String> names = new ArrayList<>(fileCount);
+        long totalBytes = 0;
+        byte[] chunk = new byte[64 * 1024];
+        for (int i = 0; i < fileCount; i++) {
+            String extension = EXTENSIONS[random.nextInt(EXTENSIONS.length)];
+            String name = FILE_PREFIX + i + "_" + WORDS[random.nextInt(WORDS.length)] + "." + extension;
+            // log-normal: median 256 KB, clamped to 1 KB .. 25 MB
+            long size = (long) Math.exp(Math.log(256 * 1024) + 1.2 * random.nextGaussian());
+            size = Math.max(1024, Math.min(size, 25L * 1024 * 1024));
+            try (OutputStream out = Files.newOutputStream(uploads.resolve(name))) {
+                boolean text = extension.equals("txt") || extension.equals("md");
+                for (long written = 0; written < size; written += chunk.length) {
+                    int length = (int) Math.min(chunk.length, size - written);
+                    if (text) {
+                        fillWithWords(chunk, length);
+                    } else {
+                        random.nextBytes(chunk);
+                    }
+                    out.write(chunk, 0, length);
+                }
+            }
+            names.add(name);
+            totalBytes += size;
+        }
+        System.out.printf("files: %d written to %s (%.1f MB)%n", fileCount, uploads.toAbsolutePath(), totalBytes / 1048576.0);
+        return names;
+    }
+
+    private void copyUsers(long firstId, int count, LocalDateTime now) throws Exception {
+        try (CopyWriter copy = copy("users", "id, name, email, created_at")) {
+            for (int i = 0; i < count; i++) {
+                long id = firstId + i;
+                copy.row(id, "Load Test User " + i, String.format(EMAIL_PATTERN, i), now.minusDays(random.nextInt(730)));
+            }
+        }
+    }
+
+    private void copyResources(long firstId, int count, long firstUserId, Zipf userZipf, int[] userActivity,
+            int[] popularity, List<String> files, LocalDateTime now) throws Exception {
+        // Inverse of popularity: offset -> rank
+        int[] rankOf = new int[count];
+        for (int rank = 0; rank < count; rank++) {
+            rankOf[popularity[rank]] = rank;
+        }
+        try (CopyWriter copy = copy("resources",
+                "id, title, description, file_path, uploader_id, view_count, download_count, average_rating, created_at")) {
+            for (int i = 0; i < count; i++) {
+                int rank = rankOf[i];
+                int views = (int) (50_000 / Math.pow(rank + 1, 0.8)) + random.nextInt(20);
+                int downloads = views / (3 + random.nextInt(5));
+                long uploader = firstUserId + userActivity[userZipf.sample(random)];
+                copy.row(firstId + i, title(), sentence(12 + random.nextInt(30)), files.get(random.nextInt(files.size())),
+                        uploader, views, downloads, 0.0, now.minusMinutes(random.nextInt(730 * 24 * 60)));
+            }
+        }
+    }
+
+    private void copyResourceTags(long firstId, int count, long[] tagIds) throws Exception {
+        Zipf tagZipf = new Zipf(tagIds.length, 1.1);
+        try (CopyWriter copy = copy("resource_tags", "resource_id, tag_id")) {
+            Set<Long> picked = new HashSet<>();
+            for (int i = 0; i < count; i++) {
+                picked.clear();
+                int tagCount = 1 + Math.min(5, (int) (-Math.log(1 - random.nextDouble()) * 1.5));
+                while (picked.size() < Math.min(tagCount, tagIds.length)) {
+                    picked.add(tagIds[tagZipf.sample(random)]);
+                }
+                for (long tagId : picked) {
+                    copy.row(firstId + i, tagId);
+                }
+            }
+        }
+    }
+
+    private void copyResourceCategories(long firstId, int count, long[] categoryIds) throws Exception {
+        try (CopyWriter copy = copy("resource_categories", "resource_id, category_id")) {
+            for (int i = 0; i < count; i++) {
+                int first = random.nextInt(categoryIds.length);
+                copy.row(firstId + i, categoryIds[first]);
+                if (categoryIds.length > 1 && random.nextInt(4) == 0) {
+                    copy.row(firstId + i, categoryIds[(first + 1 + random.nextInt(categoryIds.length - 1)) % categoryIds.length]);
+                }
+            }
+        }
+    }
+
+    private void copyRatings(long firstUserId, int userCount, long firstResourceId, long total, Zipf userZipf,
+            int[] userActivity, Zipf resourceZipf, int[] popularity, LocalDateTime now) throws Exception {
+        int[] perUser = spread(total, userCount, userZipf, userActivity, resourceZipf.size());
+        try (CopyWriter copy = copy("ratings", "user_id, resource_id, rating_value, created_at")) {
+            Set<Integer> seen = new HashSet<>();
+            for (int u = 0; u < userCount; u++) {
+                seen.clear();
+                while (seen.size() < perUser[u]) {
+                    int offset = distinctResource(seen, resourceZipf, popularity);
+                    // Skewed towards 4-5 stars, like most rating sites
+                    int value = Math.min(5, 1 + (int) Math.round(Math.sqrt(random.nextDouble()) * 4.4));
+                    copy.row(firstUserId + u, firstResourceId + offset, value, now.minusMinutes(random.nextInt(365 * 24 * 60)));
+                }
+            }
+        }
+    }
+
+    private void copyFavorites(long firstUserId, int userCount, long firstResourceId, long total, Zipf userZipf,
+            int[] userActivity, Zipf resourceZipf, int[] popularity, LocalDateTime now) throws Exception {
+        int[] perUser = spread(total, userCount, userZipf, userActivity, resourceZipf.size());
+        try (CopyWriter copy = copy("favorites", "user_id, resource_id, created_at")) {
+            Set<Integer> seen = new HashSet<>();
+            for (int u = 0; u < userCount; u++) {
+                seen.clear();
+                while (seen.size() < perUser[u]) {
+                    int offset = distinctResource(seen, resourceZipf, popularity);
+                    copy.row(firstUserId + u, firstResourceId + offset, now.minusMinutes(random.nextInt(365 * 24 * 60)));
+                }
+            }
+        }
+    }
+
+    private void copyComments(long firstUserId, int userCount, long firstResourceId, long total, Zipf userZipf,
+            int[] userActivity, Zipf resourceZipf, int[] popularity, LocalDateTime now) throws Exception {
+        try (CopyWriter copy = copy("comments", "user_id, resource_id, content, created_at")) {
+            for (long i = 0; i < total; i++) {
+                long user = firstUserId + userActivity[userZipf.sample(random)];
+                long resource = firstResourceId + popularity[resourceZipf.sample(random)];
+                copy.row(user, resource, sentence(4 + random.nextInt(40)), now.minusMinutes(random.nextInt(365 * 24 * 60)));
+            }
+        }
+    }
+
+    /**
+     * A popular resource the user hasn't touched yet. Heavy users exhaust the
+     * head of the Zipf curve quickly, and sampling the long tail by rejection
+     * would take forever, so after a few misses fall back to uniform.
+     */
+    private int distinctResource(Set<Integer> seen, Zipf resourceZipf, int[] popularity) {
+        for (int attempt = 0; attempt < 8; attempt++) {
+            int offset = popularity[resourceZipf.sample(random)];
+            if (seen.add(offset)) return offset;
+        }
+        while (true) {
+            int offset = random.nextInt(popularity.length);
+            if (seen.add(offset)) return offset;
+        }
+    }
+
+    // How many distinct resources each user touches, Zipf-distributed and capped at half the catalog
+    private int[] spread(long total, int userCount, Zipf userZipf, int[] userActivity, int resourceCount) {
+        int[] perUser = new int[userCount];
+        int cap = Math.max(1, resourceCount / 2);
+        for (long i = 0; i < total; i++) {
+            int user = userActivity[userZipf.sample(random)];
+            if (perUser[user] < cap) perUser[user]++;
+        }
+        return perUser;
+    }
+
+    private void finish() throws SQLException {
+        System.out.println("Recomputing averages, usage counts and sequences...");
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("UPDATE resources r SET average_rating = a.avg FROM "
+                    + "(SELECT resource_id, AVG(rating_value) AS avg FROM ratings GROUP BY resource_id) a WHERE a.resource_id = r.id");
+            statement.execute("UPDATE tags t SET usage_count = c.n FROM "
+                    + "(SELECT tag_id, COUNT(*) AS n FROM resource_tags GROUP BY tag_id) c WHERE c.tag_id = t.id");
+            for (String table : new String[] { "users", "resources", "ratings", "favorites", "comments" }) {
+                statement.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), "
+                        + "(SELECT COALESCE(MAX(id), 1) FROM " + table + "))");
+            }
+            statement.execute("ANALYZE");
+        }
+    }
+
+    private void writeManifest(Path manifest, long firstUserId, int userCount, long firstResourceId, int resourceCount,
+            List<String> files, List<String> tagNames) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("users.email-pattern", EMAIL_PATTERN);
+        properties.setProperty("users.count", String.valueOf(userCount));
+        properties.setProperty("users.first-id", String.valueOf(firstUserId));
+        properties.setProperty("resources.first-id", String.valueOf(firstResourceId));
+        properties.setProperty("resources.count", String.valueOf(resourceCount));
+        properties.setProperty("files", String.join(",", files));
+        properties.setProperty("tags", String.join(",", tagNames));
+        properties.setProperty("keywords", String.join(",", WORDS));
+        try (Writer out = Files.newBufferedWriter(manifest)) {
+            properties.store(out, "Written by DatasetGenerator, read by LoadDriver");
+        }
+        System.out.println("Manifest written to " + manifest.toAbsolutePath());
+    }
+
+    private CopyWriter copy(String table, String columns) throws SQLException {
+        return new CopyWriter(table, copyManager.copyIn("COPY " + table + " (" + columns + ") FROM STDIN WITH (FORMAT csv)"));
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private long nextId(String table) throws SQLException {
+        return count("SELECT COALESCE(MAX(id), 0) + 1 FROM " + table);
+    }
+
+    private long count(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private List<long[]> query(String sql) throws SQLException {
+        List<long[]> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) rows.add(new long[] { rs.getLong(1) });
+        }
+        return rows;
+    }
+
+    private List<String> queryStrings(String sql) throws SQLException {
+        List<String> rows = new ArrayList<>();
+        try (Statement statement = connection.createStatement(); ResultSet rs = statement.executeQuery(sql)) {
+            while (rs.next()) rows.add(rs.getString(1));
+        }
+        return rows;
+    }
+
+    private String title() {
+        String first = WORDS[random.nextInt(WORDS.length)];
+        return Character.toUpperCase(first.charAt(0)) + first.substring(1) + " " + sentence(1 + random.nextInt(5));
+    }
+
+    private String sentence(int words) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (i > 0) text.append(i % 9 == 8 ? ", " : " ");
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    private void fillWithWords(byte[] buffer, int length) {
+        int i = 0;
+        while (i < length) {
+            byte[] word = (WORDS[random.nextInt(WORDS.length)] + (random.nextInt(12) == 0 ? "\n" : " ")).getBytes(StandardCharsets.US_ASCII);
+            int n = Math.min(word.length, length - i);
+            System.arraycopy(word, 0, buffer, i, n);
+            i += n;
+        }
+    }
+
+    /**
+     * Buffers CSV rows and streams them into a COPY in ~1 MB chunks.
+     */
+    static class CopyWriter implements AutoCloseable {
+        private static final int FLUSH_BYTES = 1 << 20;
+
+        private final String table;
+        private final CopyIn copyIn;
+        private final StringBuilder buffer = new StringBuilder(FLUSH_BYTES + 4096);
+        private final long started = System.currentTimeMillis();
+        private long rows;
+
+        CopyWriter(String table, CopyIn copyIn) {
+            this.table = table;
+            this.copyIn = copyIn;
+        }
+
+        void row(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) buffer.append(',');
+                Object value = values[i];
+                if (value instanceof String text) {
+                    buffer.append('"').append(text.replace("\"", "\"\"")).append('"');
+                } else {
+                    buffer.append(value);
+                }
+            }
+            buffer.append('\n');
+            rows++;
+            if (buffer.length() >= FLUSH_BYTES) {
+                flush();
+            }
+        }
+
+        private void flush() throws SQLException {
+            byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+            copyIn.writeToCopy(bytes, 0, bytes.length);
+            buffer.setLength(0);
+        }
+
+        @Override
+        public void close() throws SQLException {
+            flush();
+            copyIn.endCopy();
+            long elapsed = Math.max(1, System.currentTimeMillis() - started);
+            System.out.printf("%s: %,d rows in %.1f s (%,d rows/s)%n", table, rows, elapsed / 1000.0, rows * 1000 / elapsed);
+        }
+    }
+}
@@ -0,0 +1,383 @@
+package com.example.loadtest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a weighted mix of real API calls against a running app, using the
+ * manifest written by DatasetGenerator.
+ *
+ * Two load shapes:
+ * - closed loop (default): --concurrency virtual users, each sending its next
+ *   request when the previous one returns (plus --think-ms).
+ * - open loop (--rate N): N requests/second are scheduled on a fixed timeline
+ *   whatever the server does, and latency is measured from the intended send
+ *   time, so a stalled server shows up in the percentiles instead of silently
+ *   slowing the driver down (coordinated omission).
+ *
+ * Authenticated calls (details, rate, favorite) use a pool of --sessions
+ * generated users. Each logs in once through LoadTestAuthFilter (the app must
+ * run with loadtest.auth.secret set) and then reuses its login cookie:
+ * JSESSIONID, or ACCESS_TOKEN when the app runs with auth.mode=token.
+ *
+ * Usage: java -cp target/loadtest.jar com.example.loadtest.LoadDriver [--base-url http://localhost:8080]
+ *   [--manifest dataset.properties] [--secret S] [--duration 60] [--warmup 10]
+ *   [--concurrency 64 | --rate 500] [--think-ms 0] [--sessions 200]
+ *   [--mix list=1,search=30,details=35,download=14,rate=10,favorite=10]
+ *   [--zipf 1.1] [--output results.csv] [--label run]
+ */
+public class LoadDriver {
+
+    private static final String DEFAULT_MIX = "list=1,search=30,details=35,download=14,rate=10,favorite=10";
+    private static final List<String> LOGIN_COOKIES = List.of("JSESSIONID", "ACCESS_TOKEN");
+
+    private final Options options;
+    private final String baseUrl;
+    private final String secret;
+    private final HttpClient client;
+
+    private final int firstResourceId;
+    private final int[] popularity;
+    private final Zipf resourceZipf;
+    private final List<String> files;
+    private final Zipf fileZipf;
+    private final List<String> tags;
+    private final Zipf tagZipf;
+    private final List<String> keywords;
+    private final Session[] sessions;
+
+    private final String[] opNames;
+    private final int[] cumulativeWeights;
+    private final Map<String, Stats> stats = new LinkedHashMap<>();
+
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    public LoadDriver(Options options) throws IOException {
+        this.options = options;
+        this.baseUrl = options.get("base-url", "http://localhost:8080").replaceAll("/+$", "");
+        this.secret = options.get("secret", System.getenv().getOrDefault("LOADTEST_AUTH_SECRET", ""));
+
+        Properties manifest = new Properties();
+        try (Reader in = Files.newBufferedReader(Paths.get(options.get("manifest", "dataset.properties")))) {
+            manifest.load(in);
+        }
+        SplittableRandom setup = new SplittableRandom(options.getLong("seed", 7));
+        double exponent = Double.parseDouble(options.get("zipf", "1.1"));
+
+        this.firstResourceId = Integer.parseInt(manifest.getProperty("resources.first-id"));
+        int resourceCount = Integer.parseInt(manifest.getProperty("resources.count"));
+        // The driver's hot set is its own permutation; the skew, not which ids are hot, is what matters here
+        this.popularity = Zipf.shuffledRanks(resourceCount, setup);
+        this.resourceZipf = new Zipf(resourceCount, exponent);
+        this.files = List.of(manifest.getProperty("files", "").split(","));
+        this.fileZipf = new Zipf(files.size(), exponent);
+        this.tags = List.of(manifest.getProperty("tags", "").split(","));
+        this.tagZipf = new Zipf(tags.size(), exponent);
+        this.keywords = List.of(manifest.getProperty("keywords", "").split(","));
+
+        int userCount = Integer.parseInt(manifest.getProperty("users.count"));
+        String emailPattern = manifest.getProperty("users.email-pattern");
+        this.sessions = new Session[Math.min(options.getInt("sessions", 200), userCount)];
+        for (int i = 0; i < sessions.length; i++) {
+            sessions[i] = new Session(String.format(emailPattern, setup.nextInt(userCount)));
+        }
+
+        Map<String, Integer> mix = options.getWeights("mix", DEFAULT_MIX);
+        this.opNames = mix.keySet().toArray(new String[0]);
+        this.cumulativeWeights = new int[opNames.length];
+        int sum = 0;
+        for (int i = 0; i < opNames.length; i++) {
+            if (!List.of("list", "search", "details", "download", "rate", "favorite").contains(opNames[i])) {
+                throw new IllegalArgumentException("Unknown operation in --mix: " + opNames[i]);
+            }
+            sum += mix.get(opNames[i]);
+            cumulativeWeights[i] = sum;
+            stats.put(opNames[i], new Stats());
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("--mix has no operations");
+        }
+        if (secret.isBlank() && (mix.containsKey("rate") || mix.containsKey("favorite"))) {
+            throw new IllegalArgumentException("rate/favorite need --secret (the app's loadtest.auth.secret)");
+        }
+
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadDriver(new Options(args)).run();
+    }
+
+    public void run() throws Exception {
+        int warmup = options.getInt("warmup", 10);
+        int duration = options.getInt("duration", 60);
+        int rate = options.getInt("rate", 0);
+
+        System.out.printf("Driving %s: %s, warmup %ds, measure %ds%n", baseUrl,
+                rate > 0 ? "open loop at " + rate + " req/s" : "closed loop with "
+                        + options.getInt("concurrency", 64) + " users", warmup, duration);
+
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            Thread dispatcher = rate > 0
+                    ? Thread.ofPlatform().name("dispatcher").start(() -> openLoop(workers, rate))
+                    : null;
+            if (dispatcher == null) {
+                int concurrency = options.getInt("concurrency", 64);
+                long thinkNanos = TimeUnit.MILLISECONDS.toNanos(options.getLong("think-ms", 0));
+                for (int i = 0; i < concurrency; i++) {
+                    long seed = options.getLong("seed", 7) * 31 + i;
+                    workers.submit(() -> closedLoop(new SplittableRandom(seed), thinkNanos));
+                }
+            }
+
+            Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+            recording = true;
+            long measureStart = System.nanoTime();
+            Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+            recording = false;
+            double seconds = (System.nanoTime() - measureStart) / 1e9;
+            running = false;
+            if (dispatcher != null) {
+                dispatcher.join();
+            }
+
+            report(seconds);
+            workers.shutdown();
+            if (!workers.awaitTermination(30, TimeUnit.SECONDS)) {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    private void closedLoop(SplittableRandom random, long thinkNanos) {
+        while (running) {
+            long start = System.nanoTime();
+            execute(pickOperation(random), random, start);
+            if (thinkNanos > 0) {
+                LockSupport.parkNanos(thinkNanos);
+            }
+        }
+    }
+
+    private void openLoop(ExecutorService workers, int rate) {
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long next = System.nanoTime();
+        SplittableRandom random = new SplittableRandom(options.getLong("seed", 7));
+        while (running) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intended = next;
+            SplittableRandom taskRandom = random.split();
+            String operation = pickOperation(random);
+            workers.submit(() -> execute(operation, taskRandom, intended));
+            next += interval;
+        }
+    }
+
+    private String pickOperation(SplittableRandom random) {
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return opNames[i];
+            }
+        }
+        return opNames[opNames.length - 1];
+    }
+
+    // startNanos is the intended send time in open-loop mode, so queueing counts as latency
+    private void execute(String operation, SplittableRandom random, long startNanos) {
+        boolean ok;
+        try {
+            ok = switch (operation) {
+                case "list" -> get("/api/resources", null);
+                case "search" -> get(searchPath(random), null);
+                case "details" -> get("/api/resources/" + resourceId(random) + "/details",
+                        secret.isBlank() ? null : session(random));
+                case "download" -> get("/api/resources/download/"
+                        + encode(files.get(fileZipf.sample(random))), null);
+                case "rate" -> post("/api/resources/" + resourceId(random) + "/rate",
+                        "{\"rating\":" + (1 + random.nextInt(5)) + "}", session(random));
+                case "favorite" -> post("/api/resources/" + resourceId(random) + "/favorite", null,
+                        session(random));
+                default -> throw new IllegalStateException(operation);
+            };
+        } catch (IOException | UncheckedIOException e) {
+            ok = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (recording) {
+            stats.get(operation).record(System.nanoTime() - startNanos, ok);
+        }
+    }
+
+    private String searchPath(SplittableRandom random) {
+        String keyword = keywords.get(random.nextInt(keywords.size()));
+        String tag = tags.get(tagZipf.sample(random));
+        return switch (random.nextInt(3)) {
+            case 0 -> "/api/resources/search?keyword=" + encode(keyword);
+            case 1 -> "/api/resources/search?tags=" + encode(tag);
+            default -> "/api/resources/search?keyword=" + encode(keyword) + "&tags=" + encode(tag);
+        };
+    }
+
+    private long resourceId(SplittableRandom random) {
+        return firstResourceId + popularity[resourceZipf.sample(random)];
+    }
+
+    private Session session(SplittableRandom random) {
+        return sessions[random.nextInt(sessions.length)];
+    }
+
+    private boolean get(String path, Session session) throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + path)).GET(), session);
+    }
+
+    private boolean post(String path, String json, Session session) throws IOException, InterruptedException {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path));
+        if (json != null) {
+            builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(json));
+        } else {
+            builder.POST(HttpRequest.BodyPublishers.noBody());
+        }
+        return send(builder, session);
+    }
+
+    private boolean send(HttpRequest.Builder builder, Session session) throws IOException, InterruptedException {
+        builder.timeout(Duration.ofSeconds(30));
+        String cookie = session == null ? null : session.cookie;
+        if (session != null) {
+            if (cookie != null) {
+                builder.header("Cookie", cookie);
+            } else {
+                builder.header("X-Load-Test-Secret", secret).header("X-Load-Test-User", session.email);
+            }
+        }
+
+        // Bodies are drained (downloads included) so transfer time is part of the latency
+        HttpResponse<Void> response = client.send(builder.build(), HttpResponse.BodyHandlers.discarding());
+        int status = response.statusCode();
+
+        if (session != null) {
+            response.headers().allValues("Set-Cookie").stream()
+                    .map(c -> c.substring(0, indexOrLength(c, ';')))
+                    .filter(c -> LOGIN_COOKIES.contains(c.substring(0, indexOrLength(c, '='))) && !c.endsWith("="))
+                    .findFirst()
+                    .ifPresent(value -> session.cookie = value);
+            // A redirect on an authenticated call is a bounce to the login page: the session was lost
+            if (status >= 300 && status < 400 && session.cookie != null && session.cookie.equals(cookie)) {
+                session.cookie = null;
+            }
+        }
+        return status < 300;
+    }
+
+    private static int indexOrLength(String value, char c) {
+        int index = value.indexOf(c);
+        return index < 0 ? value.length() : index;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private void report(double seconds) throws IOException {
+        String label = options.get("label", "run");
+        List<String> rows = new ArrayList<>();
+        rows.add("label,operation,requests,errors,rps,p50_ms,p90_ms,p99_ms,p999_ms,max_ms");
+
+        System.out.printf("%n%-10s %9s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        Stats total = new Stats();
+        for (Map.Entry<String, Stats> entry : stats.entrySet()) {
+            rows.add(printRow(label, entry.getKey(), entry.getValue(), seconds));
+            total.merge(entry.getValue());
+        }
+        rows.add(printRow(label, "total", total, seconds));
+
+        String output = options.get("output", "");
+        if (!output.isBlank()) {
+            Path path = Paths.get(output);
+            boolean header = !Files.exists(path);
+            try (Writer out = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String row : header ? rows : rows.subList(1, rows.size())) {
+                    out.write(row);
+                    out.write('\n');
+                }
+            }
+            System.out.println("Results appended to " + path.toAbsolutePath());
+        }
+    }
+
+    private static String printRow(String label, String name, Stats s, double seconds) {
+        LatencyHistogram h = s.latency;
+        double rps = h.count() / seconds;
+        System.out.printf("%-10s %9d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, h.count(), s.errors.get(),
+                rps, h.percentileMillis(50), h.percentileMillis(90), h.percentileMillis(99),
+                h.percentileMillis(99.9), h.maxMillis());
+        return String.format(Locale.ROOT, "%s,%s,%d,%d,%.1f,%.2f,%.2f,%.2f,%.2f,%.2f", label, name, h.count(),
+                s.errors.get(), rps, h.percentileMillis(50), h.percentileMillis(90), h.percentileMillis(99),
+                h.percentileMillis(99.9), h.maxMillis());
+    }
+
+    private static final class Session {
+        final String email;
+        volatile String cookie;
+
+        Session(String email) {
+            this.email = email;
+        }
+    }
+
+    private static final class Stats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+
+        void record(long nanos, boolean ok) {
+            latency.recordNanos(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        // Only used for the total row, after recording has stopped
+        void merge(Stats other) {
+            latency.add(other.latency);
+            errors.addAndGet(other.errors.get());
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.loadtest;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * --key=value / --key value command-line options with defaults.
+ */
+public class Options {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    public Options(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 0) {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            } else if (i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                values.put(arg.substring(2), args[++i]);
+            } else {
+                values.put(arg.substring(2), "true");
+            }
+        }
+    }
+
+    public String get(String key, String defaultValue) {
+        return values.getOrDefault(key, defaultValue);
+    }
+
+    public int getInt(String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+
+    public long getLong(String key, long defaultValue) {
+        return values.containsKey(key) ? Long.parseLong(values.get(key)) : defaultValue;
+    }
+
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(values.getOrDefault(key, "false"));
+    }
+
+    // "a=3,b=1" -> {a=3, b=1}, in the given order
+    public Map<String, Integer> getWeights(String key, String defaultValue) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : get(key, defaultValue).split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length == 2 && Integer.parseInt(pair[1].trim()) > 0) {
+                weights.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+            }
+        }
+        return weights;
+    }
+}
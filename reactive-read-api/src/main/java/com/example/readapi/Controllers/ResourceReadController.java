@@ -0,0 +1,84 @@
+package com.example.readapi.Controllers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.readapi.DTO.CategoryResponse;
+import com.example.readapi.DTO.CommentResponse;
+import com.example.readapi.DTO.ResourceDetailResponse;
+import com.example.readapi.DTO.ResourceView;
+import com.example.readapi.Repositories.ResourceReadRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-only mirror of the servlet app's ResourceController GET endpoints.
+// List endpoints stream: a JSON array by default, or one object per line with
+// Accept: application/x-ndjson.
+@RestController
+@RequestMapping("/api/resources")
+public class ResourceReadController {
+
+    @Autowired
+    private ResourceReadRepository resourceReadRepository;
+
+    // ENDPOINT 1: LIST ALL RESOURCES
+    @GetMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<ResourceView> listResources() {
+        return resourceReadRepository.findAll();
+    }
+
+    // ENDPOINT 5: GET DETAILED RESOURCE INFO
+    // Unlike the servlet endpoint this does not bump view_count: this API never writes
+    @GetMapping("/{id}/details")
+    public Mono<ResourceDetailResponse> getResourceDetails(@PathVariable Long id) {
+        return resourceReadRepository.findDetails(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Resource not found")));
+    }
+
+    // ENDPOINT 7: GET COMMENTS FOR RESOURCE
+    @GetMapping(value = "/{id}/comments", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<CommentResponse> getComments(@PathVariable Long id) {
+        return resourceReadRepository.findComments(id);
+    }
+
+    // ENDPOINT 10: SEARCH RESOURCES (facets are only served by the servlet app's in-memory index)
+    @GetMapping(value = "/search", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<ResourceView> searchResources(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) List<String> tags) {
+
+        List<String> selectedCategories = new ArrayList<>();
+        if (category != null && !category.trim().isEmpty()) {
+            selectedCategories.add(category);
+        }
+        if (categories != null) {
+            selectedCategories.addAll(categories);
+        }
+        return resourceReadRepository.search(keyword, selectedCategories, tags);
+    }
+
+    // ENDPOINT 11: GET ALL CATEGORIES
+    @GetMapping("/categories")
+    public Flux<CategoryResponse> getAllCategories() {
+        return resourceReadRepository.findCategories();
+    }
+
+    // ENDPOINT 14: GET RESOURCES BY TAG
+    @GetMapping(value = "/by-tag/{tagName}", produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE })
+    public Flux<ResourceView> getResourcesByTag(@PathVariable String tagName) {
+        return resourceReadRepository.findByTagName(tagName);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.readapi.Controllers;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.readapi.DTO.TagResponse;
+import com.example.readapi.Repositories.TagReadRepository;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Read-only mirror of the servlet app's TagController GET endpoints
+@RestController
+@RequestMapping("/api/tags")
+public class TagReadController {
+
+    @Autowired
+    private TagReadRepository tagReadRepository;
+
+    // ENDPOINT 1: GET ALL TAGS
+    @GetMapping
+    public Flux<TagResponse> getAllTags() {
+        return tagReadRepository.findAll();
+    }
+
+    // ENDPOINT 2: GET PREDEFINED TAGS
+    @GetMapping("/predefined")
+    public Flux<TagResponse> getPredefinedTags() {
+        return tagReadRepository.findByIsPredefined(true);
+    }
+
+    // ENDPOINT 3: GET POPULAR TAGS
+    @GetMapping("/popular")
+    public Flux<TagResponse> getPopularTags(@RequestParam(defaultValue = "20") int limit) {
+        return tagReadRepository.findTopByUsageCount(Math.max(limit, 0));
+    }
+
+    // ENDPOINT 4: SEARCH TAGS BY KEYWORD
+    @GetMapping("/search")
+    public Flux<TagResponse> searchTags(@RequestParam String keyword) {
+        return tagReadRepository.findByNameContaining(keyword);
+    }
+
+    // ENDPOINT 8: GET TAG DETAILS
+    @GetMapping("/{id}")
+    public Mono<TagResponse> getTagDetails(@PathVariable Long id) {
+        return tagReadRepository.findById(id)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Tag not found")));
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.readapi.DTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ResourceView {
+    public Long id;
+    public String title;
+    public String description;
+    public String filePath;
+    public Long uploaderId;
+    public Double averageRating;
+    public Integer viewCount;
+    public Integer downloadCount;
+    public List<String> categories;
+    public List<String> tags;
+    public LocalDateTime createdAt;
+}
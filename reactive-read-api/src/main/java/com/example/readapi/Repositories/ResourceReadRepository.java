@@ -0,0 +1,193 @@
+package com.example.readapi.Repositories;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.readapi.DTO.CategoryResponse;
+import com.example.readapi.DTO.CommentResponse;
+import com.example.readapi.DTO.ResourceDetailResponse;
+import com.example.readapi.DTO.ResourceView;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Read-only SQL over the tables the servlet app maps with JPA.
+ *
+ * Tag and category names are folded into each row with ARRAY(...) subqueries,
+ * so a listing is one statement no matter how many resources it returns. Rows
+ * are fetched {@link #FETCH_SIZE} at a time and only as fast as the HTTP
+ * client reads them: demand from the response flows back to the cursor.
+ */
+@Repository
+public class ResourceReadRepository {
+
+    static final int FETCH_SIZE = 250;
+
+    private static final String RESOURCE_COLUMNS = """
+            r.id, r.title, r.description, r.file_path, r.uploader_id, r.average_rating,
+            r.view_count, r.download_count, r.created_at,
+            ARRAY(SELECT c.name FROM resource_categories rc JOIN categories c ON c.id = rc.category_id
+                  WHERE rc.resource_id = r.id ORDER BY c.name) AS categories,
+            ARRAY(SELECT t.name FROM resource_tags rt JOIN tags t ON t.id = rt.tag_id
+                  WHERE rt.resource_id = r.id ORDER BY t.name) AS tags
+            """;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<ResourceView> findAll() {
+        return databaseClient.sql("SELECT " + RESOURCE_COLUMNS + " FROM resources r ORDER BY r.id")
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ResourceReadRepository::toView)
+                .all();
+    }
+
+    /**
+     * Same semantics as the servlet app's ResourceSearchService: keyword is a
+     * case-insensitive substring of title or description, and a resource must
+     * be in at least one of the categories and carry at least one of the tags.
+     */
+    public Flux<ResourceView> search(String keyword, List<String> categories, List<String> tags) {
+        String pattern = keyword == null || keyword.isBlank() ? null : "%" + escapeLike(keyword.trim().toLowerCase()) + "%";
+        String[] categoryNames = lowercase(categories);
+        String[] tagNames = lowercase(tags);
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(RESOURCE_COLUMNS).append(" FROM resources r WHERE TRUE");
+        if (pattern != null) {
+            sql.append(" AND (LOWER(r.title) LIKE :pattern OR LOWER(r.description) LIKE :pattern)");
+        }
+        if (categoryNames.length > 0) {
+            sql.append(" AND EXISTS (SELECT 1 FROM resource_categories rc JOIN categories c ON c.id = rc.category_id")
+               .append(" WHERE rc.resource_id = r.id AND LOWER(c.name) = ANY(:categories))");
+        }
+        if (tagNames.length > 0) {
+            sql.append(" AND EXISTS (SELECT 1 FROM resource_tags rt JOIN tags t ON t.id = rt.tag_id")
+               .append(" WHERE rt.resource_id = r.id AND LOWER(t.name) = ANY(:tags))");
+        }
+        sql.append(" ORDER BY r.id");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString());
+        if (pattern != null) spec = spec.bind("pattern", pattern);
+        if (categoryNames.length > 0) spec = spec.bind("categories", categoryNames);
+        if (tagNames.length > 0) spec = spec.bind("tags", tagNames);
+        return spec.filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ResourceReadRepository::toView)
+                .all();
+    }
+
+    public Flux<ResourceView> findByTagName(String tagName) {
+        return databaseClient.sql("SELECT " + RESOURCE_COLUMNS + " FROM resources r"
+                        + " WHERE EXISTS (SELECT 1 FROM resource_tags rt JOIN tags t ON t.id = rt.tag_id"
+                        + " WHERE rt.resource_id = r.id AND LOWER(t.name) = LOWER(:tag)) ORDER BY r.id")
+                .bind("tag", tagName.trim())
+                .filter((statement, next) -> next.execute(statement.fetchSize(FETCH_SIZE)))
+                .map(ResourceReadRepository::toView)
+                .all();
+    }
+
+    public Mono<ResourceDetailResponse> findDetails(Long id) {
+        return databaseClient.sql("SELECT " + RESOURCE_COLUMNS + """
+                        , u.name AS uploader_name, u.email AS uploader_email,
+                        (SELECT COUNT(*) FROM comments x WHERE x.resource_id = r.id) AS comment_count,
+                        (SELECT COUNT(*) FROM favorites f WHERE f.resource_id = r.id) AS favorite_count
+                        FROM resources r LEFT JOIN users u ON u.id = r.uploader_id
+                        WHERE r.id = :id
+                        """)
+                .bind("id", id)
+                .map(row -> {
+                    ResourceView view = toView(row);
+                    ResourceDetailResponse response = new ResourceDetailResponse();
+                    response.id = view.id;
+                    response.title = view.title;
+                    response.description = view.description;
+                    response.filePath = view.filePath;
+                    response.uploaderId = view.uploaderId;
+                    String uploaderName = row.get("uploader_name", String.class);
+                    String uploaderEmail = row.get("uploader_email", String.class);
+                    response.uploaderName = uploaderName != null ? uploaderName : "Unknown";
+                    response.uploaderEmail = uploaderEmail != null ? uploaderEmail : "";
+                    response.averageRating = view.averageRating;
+                    response.viewCount = view.viewCount;
+                    response.downloadCount = view.downloadCount;
+                    response.categories = view.categories;
+                    response.tags = view.tags;
+                    response.commentCount = row.get("comment_count", Long.class).intValue();
+                    response.favoriteCount = row.get("favorite_count", Long.class).intValue();
+                    response.createdAt = view.createdAt;
+                    return response;
+                })
+                .one();
+    }
+
+    public Flux<CommentResponse> findComments(Long resourceId) {
+        return databaseClient.sql("""
+                        SELECT c.id, c.content, u.name, u.email, c.created_at
+                        FROM comments c JOIN users u ON u.id = c.user_id
+                        WHERE c.resource_id = :resourceId
+                        ORDER BY c.created_at DESC
+                        """)
+                .bind("resourceId", resourceId)
+                .map(row -> new CommentResponse(
+                        row.get("id", Long.class),
+                        row.get("content", String.class),
+                        row.get("name", String.class),
+                        row.get("email", String.class),
+                        row.get("created_at", LocalDateTime.class)))
+                .all();
+    }
+
+    public Flux<CategoryResponse> findCategories() {
+        return databaseClient.sql("SELECT id, name, description, icon_emoji, created_at FROM categories ORDER BY id")
+                .map(row -> new CategoryResponse(
+                        row.get("id", Long.class),
+                        row.get("name", String.class),
+                        row.get("description", String.class),
+                        row.get("icon_emoji", String.class),
+                        row.get("created_at", LocalDateTime.class)))
+                .all();
+    }
+
+    static ResourceView toView(Readable row) {
+        ResourceView view = new ResourceView();
+        view.id = row.get("id", Long.class);
+        view.title = row.get("title", String.class);
+        view.description = row.get("description", String.class);
+        view.filePath = row.get("file_path", String.class);
+        view.uploaderId = row.get("uploader_id", Long.class);
+        // average_rating is NUMERIC in create_tables.sql but float8 when Hibernate created it
+        Number rating = (Number) row.get("average_rating");
+        view.averageRating = rating == null ? null : rating.doubleValue();
+        view.viewCount = row.get("view_count", Integer.class);
+        view.downloadCount = row.get("download_count", Integer.class);
+        view.categories = names(row.get("categories", String[].class));
+        view.tags = names(row.get("tags", String[].class));
+        view.createdAt = row.get("created_at", LocalDateTime.class);
+        return view;
+    }
+
+    private static List<String> names(String[] values) {
+        return values == null ? List.of() : Arrays.asList(values);
+    }
+
+    private static String[] lowercase(List<String> values) {
+        if (values == null) {
+            return new String[0];
+        }
+        return values.stream()
+                .filter(v -> v != null && !v.isBlank())
+                .map(v -> v.trim().toLowerCase())
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
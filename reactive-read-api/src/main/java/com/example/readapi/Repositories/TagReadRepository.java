@@ -0,0 +1,64 @@
+package com.example.readapi.Repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.readapi.DTO.TagResponse;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public class TagReadRepository {
+
+    private static final String TAG_COLUMNS = "SELECT id, name, description, is_predefined, usage_count FROM tags";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    public Flux<TagResponse> findAll() {
+        return databaseClient.sql(TAG_COLUMNS + " ORDER BY id")
+                .map(TagReadRepository::toResponse)
+                .all();
+    }
+
+    public Flux<TagResponse> findByIsPredefined(boolean predefined) {
+        return databaseClient.sql(TAG_COLUMNS + " WHERE is_predefined = :predefined ORDER BY id")
+                .bind("predefined", predefined)
+                .map(TagReadRepository::toResponse)
+                .all();
+    }
+
+    public Flux<TagResponse> findTopByUsageCount(int limit) {
+        return databaseClient.sql(TAG_COLUMNS + " ORDER BY usage_count DESC NULLS LAST LIMIT :limit")
+                .bind("limit", limit)
+                .map(TagReadRepository::toResponse)
+                .all();
+    }
+
+    // Same semantics as TagRepository.findByNameContaining: keyword is not escaped
+    public Flux<TagResponse> findByNameContaining(String keyword) {
+        return databaseClient.sql(TAG_COLUMNS + " WHERE LOWER(name) LIKE LOWER(CONCAT('%', :keyword, '%')) ORDER BY id")
+                .bind("keyword", keyword)
+                .map(TagReadRepository::toResponse)
+                .all();
+    }
+
+    public Mono<TagResponse> findById(Long id) {
+        return databaseClient.sql(TAG_COLUMNS + " WHERE id = :id")
+                .bind("id", id)
+                .map(TagReadRepository::toResponse)
+                .one();
+    }
+
+    private static TagResponse toResponse(Readable row) {
+        return new TagResponse(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("is_predefined", Boolean.class),
+                row.get("usage_count", Integer.class));
+    }
+}
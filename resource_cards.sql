@@ -0,0 +1,25 @@
+-- ============================================
+-- Resource Cards (read model)
+-- ============================================
+-- One prebuilt JSON body per resource, exactly as the list, search, by-tag
+-- and favorites endpoints return it. Services/ResourceCards rebuilds a card
+-- shortly after any of its source rows change, and those endpoints copy the
+-- stored text into the response instead of loading entities.
+--
+-- Without this table the endpoints work as before (the app logs a warning).
+-- After a change to the Resource JSON shape, TRUNCATE it; cards come back as
+-- they are read.
+--
+-- Safe to re-run.
+-- ============================================
+
+CREATE TABLE IF NOT EXISTS resource_cards (
+    resource_id BIGINT PRIMARY KEY,
+    card TEXT NOT NULL,
+    refreshed_at TIMESTAMP NOT NULL
+);
+
+-- ============================================
+-- VERIFICATION
+-- ============================================
+SELECT COUNT(*) AS cards, MIN(refreshed_at) AS oldest FROM resource_cards;
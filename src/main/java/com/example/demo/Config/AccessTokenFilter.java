@@ -0,0 +1,72 @@
+package com.example.demo.Config;
+
+import java.io.IOException;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * auth.mode=token: authenticates each request from its access token (Bearer
+ * header first, then the cookie) instead of an HTTP session. An invalid or
+ * expired cookie is cleared and the request carries on anonymously, so
+ * protected endpoints send it back through the Google login.
+ */
+public class AccessTokenFilter extends OncePerRequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final AccessTokens accessTokens;
+
+    public AccessTokenFilter(AccessTokens accessTokens) {
+        this.accessTokens = accessTokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        if (current == null || !current.isAuthenticated()) {
+            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+            boolean fromCookie = header == null || !header.startsWith(BEARER);
+            String token = fromCookie ? cookieValue(request) : header.substring(BEARER.length()).trim();
+
+            if (token != null && !token.isEmpty()) {
+                Jwt jwt = accessTokens.decode(token);
+                if (jwt != null) {
+                    SecurityContext context = SecurityContextHolder.createEmptyContext();
+                    context.setAuthentication(accessTokens.authenticationOf(jwt));
+                    SecurityContextHolder.setContext(context);
+                    if (fromCookie && accessTokens.dueForRenewal(jwt)) {
+                        accessTokens.writeCookie(response, accessTokens.renew(jwt));
+                    }
+                } else if (fromCookie) {
+                    accessTokens.clearCookie(response);
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    private static String cookieValue(HttpServletRequest request) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies != null) {
+            for (Cookie cookie : cookies) {
+                if (AccessTokens.COOKIE.equals(cookie.getName())) {
+                    return cookie.getValue();
+                }
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.demo.Config;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import javax.crypto.spec.SecretKeySpec;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtEncoder;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+
+import com.example.demo.Entities.User;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Signed access tokens for auth.mode=token: an HS256 JWT carrying the
+ * internal user id (sub), email and name, valid for auth.token.ttl-minutes.
+ * Any node with the same auth.token.secret can check one without a session
+ * or a database lookup, so nodes can sit behind a plain load balancer and be
+ * restarted without logging anyone out.
+ *
+ * Browsers get the token as an HttpOnly cookie; other clients can send it as
+ * "Authorization: Bearer ...". Tokens cannot be revoked before they expire,
+ * which is why they are short-lived and renewed while in use.
+ */
+public class AccessTokens {
+
+    public static final String COOKIE = "ACCESS_TOKEN";
+    static final String ISSUER = "innohacks";
+    static final String REGISTRATION_ID = "google";
+    private static final List<SimpleGrantedAuthority> AUTHORITIES = List.of(new SimpleGrantedAuthority("OAUTH2_USER"));
+
+    private final JwtEncoder encoder;
+    private final JwtDecoder decoder;
+    private final Duration ttl;
+    private final boolean secureCookie;
+    private final byte[] key;
+
+    public AccessTokens(String secret, Duration ttl, boolean secureCookie) {
+        this.key = secret.getBytes(StandardCharsets.UTF_8);
+        if (key.length < 32) {
+            throw new IllegalStateException("auth.token.secret must be at least 32 bytes for HS256");
+        }
+        this.encoder = new NimbusJwtEncoder(new ImmutableSecret<>(key));
+        this.decoder = NimbusJwtDecoder.withSecretKey(new SecretKeySpec(key, "HmacSHA256"))
+                .macAlgorithm(MacAlgorithm.HS256)
+                .build();
+        this.ttl = ttl;
+        this.secureCookie = secureCookie;
+    }
+
+    public String issue(User user) {
+        return issue(user.id.toString(), user.email, user.name);
+    }
+
+    private String issue(String userId, String email, String name) {
+        Instant now = Instant.now();
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(ISSUER)
+                .subject(userId)
+                .issuedAt(now)
+                .expiresAt(now.plus(ttl))
+                .claim("email", email)
+                .claim("name", name == null ? email : name)
+                .build();
+        return encoder.encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+    }
+
+    /** The verified token, or null if it is malformed, tampered with or expired. */
+    public Jwt decode(String token) {
+        try {
+            Jwt jwt = decoder.decode(token);
+            return ISSUER.equals(jwt.getClaimAsString("iss")) ? jwt : null;
+        } catch (JwtException e) {
+            return null;
+        }
+    }
+
+    // Same principal shape as an OIDC login, so @AuthenticationPrincipal OAuth2User keeps working
+    public OAuth2AuthenticationToken authenticationOf(Jwt jwt) {
+        Map<String, Object> attributes = Map.of(
+                "sub", jwt.getSubject(),
+                "userId", Long.valueOf(jwt.getSubject()),
+                "email", jwt.getClaimAsString("email"),
+                "name", jwt.getClaimAsString("name"));
+        return new OAuth2AuthenticationToken(new DefaultOAuth2User(AUTHORITIES, attributes, "email"),
+                AUTHORITIES, REGISTRATION_ID);
+    }
+
+    // Past half its lifetime: hand out a fresh one so active users never hit the expiry
+    public boolean dueForRenewal(Jwt jwt) {
+        return jwt.getIssuedAt() == null || jwt.getIssuedAt().plus(ttl.dividedBy(2)).isBefore(Instant.now());
+    }
+
+    public String renew(Jwt jwt) {
+        return issue(jwt.getSubject(), jwt.getClaimAsString("email"), jwt.getClaimAsString("name"));
+    }
+
+    public void writeCookie(HttpServletResponse response, String token) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie(token, ttl).toString());
+    }
+
+    public void clearCookie(HttpServletResponse response) {
+        response.addHeader(HttpHeaders.SET_COOKIE, cookie("", Duration.ZERO).toString());
+    }
+
+    private ResponseCookie cookie(String value, Duration maxAge) {
+        return ResponseCookie.from(COOKIE, value)
+                .httpOnly(true)
+                .secure(secureCookie)
+                .sameSite("Lax")
+                .path("/")
+                .maxAge(maxAge)
+                .build();
+    }
+
+    byte[] key() {
+        return key;
+    }
+
+    boolean secureCookie() {
+        return secureCookie;
+    }
+}
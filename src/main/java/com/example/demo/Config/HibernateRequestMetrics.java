@@ -0,0 +1,109 @@
+package com.example.demo.Config;
+
+import java.io.IOException;
+
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.spi.BootstrapContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-request Hibernate work, tagged like http.server.requests (method + URI
+ * pattern): SQL statements prepared, entities loaded and lazy collections
+ * initialised. Hibernate's own statistics are global, so an N+1 in one
+ * endpoint is invisible there; here it shows up as a high mean for that URI.
+ *
+ * Counts live in a thread-local for the duration of the request, so work done
+ * on another thread (async exports, @Async) is not attributed to it, and
+ * neither is SQL that bypasses Hibernate (JdbcTemplate, COPY).
+ */
+public class HibernateRequestMetrics extends OncePerRequestFilter {
+
+    private static final ThreadLocal<Counts> CURRENT = new ThreadLocal<>();
+
+    private final MeterRegistry registry;
+
+    public HibernateRequestMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    // Registered as hibernate.session_factory.statement_inspector
+    public static final StatementInspector STATEMENT_COUNTER = sql -> {
+        Counts counts = CURRENT.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    };
+
+    // Registered through hibernate.integrator_provider; appends counting listeners after the defaults
+    public static final Integrator LISTENERS = new Integrator() {
+        @Override
+        public void integrate(Metadata metadata, BootstrapContext bootstrapContext,
+                SessionFactoryImplementor sessionFactory) {
+            EventListenerRegistry listeners = sessionFactory.getServiceRegistry().getService(EventListenerRegistry.class);
+            listeners.appendListeners(EventType.POST_LOAD, event -> {
+                Counts counts = CURRENT.get();
+                if (counts != null) {
+                    counts.entityLoads++;
+                }
+            });
+            listeners.appendListeners(EventType.INIT_COLLECTION, event -> {
+                Counts counts = CURRENT.get();
+                if (counts != null) {
+                    counts.collectionFetches++;
+                }
+            });
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry registry) {
+        }
+    };
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Counts counts = new Counts();
+        CURRENT.set(counts);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            CURRENT.remove();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+            record("hibernate.request.statements", "SQL statements prepared per request", request, uri, counts.statements);
+            record("hibernate.request.entity.loads", "Entities loaded per request", request, uri, counts.entityLoads);
+            record("hibernate.request.collection.fetches", "Lazy collections initialised per request", request, uri,
+                    counts.collectionFetches);
+        }
+    }
+
+    private void record(String name, String description, HttpServletRequest request, String uri, int value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(registry)
+                .record(value);
+    }
+
+    private static final class Counts {
+        int statements;
+        int entityLoads;
+        int collectionFetches;
+    }
+}
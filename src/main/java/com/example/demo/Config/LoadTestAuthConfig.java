@@ -0,0 +1,50 @@
+package com.example.demo.Config;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import com.example.demo.Repositories.UserRepository;
+
+/**
+ * Header logins for the load driver (see LoadTestAuthFilter). Only exists
+ * with the loadtest profile active, so a stray loadtest.auth.secret in a
+ * production config does nothing.
+ */
+@Configuration
+@Profile("loadtest")
+public class LoadTestAuthConfig {
+
+    @Bean
+    public LoadTestAuthFilter loadTestAuthFilter(
+            @Value("${loadtest.auth.secret:}") String secret,
+            @Value("${import.admins:}") String importAdmins,
+            UserRepository userRepository,
+            ObjectProvider<AccessTokens> accessTokens) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("The loadtest profile needs loadtest.auth.secret");
+        }
+        Set<String> refused = Arrays.stream(importAdmins.split(","))
+                .map(String::trim)
+                .filter(email -> !email.isEmpty())
+                .map(String::toLowerCase)
+                .collect(Collectors.toSet());
+        System.out.println("WARNING: load-test authentication is enabled (loadtest profile)");
+        return new LoadTestAuthFilter(secret, refused, userRepository, accessTokens.getIfAvailable());
+    }
+
+    // Runs inside the security chain only (SecurityConfig adds it), not as a servlet filter of its own
+    @Bean
+    public FilterRegistrationBean<LoadTestAuthFilter> loadTestAuthFilterRegistration(LoadTestAuthFilter filter) {
+        FilterRegistrationBean<LoadTestAuthFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setEnabled(false);
+        return registration;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.demo.Config;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.core.user.DefaultOAuth2User;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.springframework.security.web.context.SecurityContextRepository;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.demo.Entities.User;
+import com.example.demo.Repositories.UserRepository;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Lets the load driver log in without Google: a request carrying
+ * X-Load-Test-Secret (matching loadtest.auth.secret) and X-Load-Test-User
+ * (an email) is authenticated as that user, exactly as if the OIDC login had
+ * just completed, and the context is stored in the HTTP session. Later
+ * requests then ride on the JSESSIONID cookie like a real browser. With
+ * auth.mode=token an access-token cookie is issued instead. The emails in
+ * import.admins are refused, so the shared secret never grants admin rights.
+ *
+ * Only installed with the loadtest profile (see LoadTestAuthConfig) - never
+ * activate it in production.
+ */
+public class LoadTestAuthFilter extends OncePerRequestFilter {
+
+    static final String SECRET_HEADER = "X-Load-Test-Secret";
+    static final String USER_HEADER = "X-Load-Test-User";
+
+    private final byte[] secret;
+    private final Set<String> refusedEmails;
+    private final UserRepository userRepository;
+    private final AccessTokens accessTokens;
+    private final SecurityContextRepository contextRepository = new HttpSessionSecurityContextRepository();
+
+    // refusedEmails are lower-case; accessTokens is null unless auth.mode=token
+    public LoadTestAuthFilter(String secret, Set<String> refusedEmails, UserRepository userRepository,
+            AccessTokens accessTokens) {
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.refusedEmails = refusedEmails;
+        this.userRepository = userRepository;
+        this.accessTokens = accessTokens;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+
+        Authentication current = SecurityContextHolder.getContext().getAuthentication();
+        String presented = request.getHeader(SECRET_HEADER);
+        String email = request.getHeader(USER_HEADER);
+
+        if ((current == null || !current.isAuthenticated()) && presented != null && email != null
+                && MessageDigest.isEqual(secret, presented.getBytes(StandardCharsets.UTF_8))) {
+            if (refusedEmails.contains(email.trim().toLowerCase())) {
+                response.sendError(HttpServletResponse.SC_FORBIDDEN, "Load-test logins may not act as import.admins");
+                return;
+            }
+            User user = userRepository.findByEmail(email).orElseGet(() -> {
+                User newUser = new User();
+                newUser.email = email;
+                newUser.name = email;
+                return userRepository.save(newUser);
+            });
+
+            if (accessTokens != null) {
+                String token = accessTokens.issue(user);
+                SecurityContext context = SecurityContextHolder.createEmptyContext();
+                context.setAuthentication(accessTokens.authenticationOf(accessTokens.decode(token)));
+                SecurityContextHolder.setContext(context);
+                accessTokens.writeCookie(response, token);
+                chain.doFilter(request, response);
+                return;
+            }
+
+            List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("OAUTH2_USER"));
+            OAuth2User principal = new DefaultOAuth2User(authorities,
+                    Map.of("sub", "loadtest-" + user.id, "email", user.email, "name", user.name), "email");
+            SecurityContext context = SecurityContextHolder.createEmptyContext();
+            context.setAuthentication(new OAuth2AuthenticationToken(principal, authorities, "loadtest"));
+            SecurityContextHolder.setContext(context);
+            contextRepository.saveContext(context, request, response);
+        }
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.demo.Config;
+
+import java.util.List;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.util.function.SingletonSupplier;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+
+/**
+ * Instrumentation that Boot's actuator does not provide by itself. The rest
+ * comes from auto-configuration once the dependencies are present:
+ * http.server.requests (per-endpoint latency), spring.data.repository.invocations
+ * (per repository method), hikaricp.* pool gauges and the global hibernate.*
+ * statistics (with hibernate.generate_statistics=true). Storage and
+ * query-cache meters are registered by their services.
+ *
+ * Repository calls also get a tracing span, a child of the request's span.
+ * Only sampled traces (management.tracing.sampling.probability) record
+ * anything; for the rest the span is a no-op.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateRequestStatistics() {
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_INSPECTOR, HibernateRequestMetrics.STATEMENT_COUNTER);
+            properties.put("hibernate.integrator_provider",
+                    (IntegratorProvider) () -> List.of(HibernateRequestMetrics.LISTENERS));
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<HibernateRequestMetrics> hibernateRequestMetricsFilter(MeterRegistry registry) {
+        FilterRegistrationBean<HibernateRequestMetrics> registration =
+                new FilterRegistrationBean<>(new HibernateRequestMetrics(registry));
+        // Ahead of Spring Security, so the user lookups during authentication are counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    // Static and lazy: repository factory beans are created early, before the tracer exists
+    @Bean
+    public static BeanPostProcessor repositorySpans(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxy, information) -> proxy.addAdvice(
+                                    traced(information.getRepositoryInterface().getSimpleName(), tracer))));
+                }
+                return bean;
+            }
+        };
+    }
+
+    static MethodInterceptor traced(String repository, ObjectProvider<Tracer> tracerProvider) {
+        SingletonSupplier<Tracer> tracer = SingletonSupplier.of(() -> tracerProvider.getIfAvailable(() -> Tracer.NOOP));
+        return invocation -> {
+            String method = invocation.getMethod().getName();
+            Span span = tracer.obtain().nextSpan()
+                    .name(repository + "." + method)
+                    .tag("repository", repository)
+                    .tag("method", method)
+                    .start();
+            try (Tracer.SpanInScope scope = tracer.obtain().withSpan(span)) {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                span.error(e);
+                throw e;
+            } finally {
+                span.end();
+            }
+        };
+    }
+}
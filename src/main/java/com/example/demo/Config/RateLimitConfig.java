@@ -0,0 +1,47 @@
+package com.example.demo.Config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Installs RateLimitFilter (ratelimit.enabled=false turns it off, e.g. for
+ * load tests). Defaults allow a logged-in user a burst of 120 cost units and
+ * 20 per second after that, an anonymous address half of that.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    static final String DEFAULT_COSTS = "GET /api/resources=5, GET /api/resources/search=5, "
+            + "GET /api/resources/export=20, POST /api/resources/import=20, POST /api/resources=10, "
+            + "GET /api/resources/*/recommendations=3, GET /api/resources/feed=3, "
+            + "POST /api/resources/download/*/increment=2, GET /api/resources/download/**=2, "
+            + "POST /api/resources/*/download-link=2";
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            MeterRegistry registry,
+            @Value("${ratelimit.user.capacity:120}") double userCapacity,
+            @Value("${ratelimit.user.refill-per-second:20}") double userRefill,
+            @Value("${ratelimit.ip.capacity:60}") double ipCapacity,
+            @Value("${ratelimit.ip.refill-per-second:10}") double ipRefill,
+            @Value("${ratelimit.costs:" + DEFAULT_COSTS + "}") String costs,
+            @Value("${ratelimit.expensive.cost:5}") int expensiveCost,
+            @Value("${ratelimit.expensive.max-concurrent:16}") int maxConcurrent,
+            @Value("${ratelimit.expensive.shed-latency-ms:500}") long shedLatencyMillis) {
+        RateLimitFilter filter = new RateLimitFilter(registry,
+                new RateLimitFilter.Limits(userCapacity, userRefill),
+                new RateLimitFilter.Limits(ipCapacity, ipRefill),
+                costs, expensiveCost, maxConcurrent, shedLatencyMillis);
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        // Right after Spring Security, so the logged-in user is known
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,319 @@
+package com.example.demo.Config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Per-client token buckets plus load shedding for expensive endpoints.
+ *
+ * Clients are keyed by OAuth email when logged in, by remote address
+ * otherwise, each with its own bucket size and refill rate. A request costs
+ * the weight of the first matching "METHOD /pattern" rule (1 if none), so a
+ * search drains a bucket faster than a details page. An empty bucket gets
+ * 429 with Retry-After set to when enough tokens will be back.
+ *
+ * Buckets sit in a ConcurrentHashMap (striped by key) and are updated with a
+ * compare-and-set on an immutable state, so there is no lock on the request
+ * path. A bucket idle long enough to have refilled completely is the same as
+ * a new one, so such buckets are swept out now and then.
+ *
+ * Requests whose cost reaches the expensive threshold also take a slot in a
+ * global concurrency limit. While their smoothed latency is above the shed
+ * threshold, only half the slots are handed out; the rest get 503 with
+ * Retry-After rather than queueing behind slow requests. A streamed (async)
+ * response keeps its slot until the async request completes, errors or
+ * times out, and that is the latency recorded.
+ *
+ * Metrics: ratelimit.rejected{reason=rate|shed, client=user|ip},
+ * ratelimit.buckets, ratelimit.expensive.inflight and
+ * ratelimit.expensive.latency (smoothed, ms).
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final long SWEEP_INTERVAL_NANOS = 60_000_000_000L;
+    // Weight of the newest sample in the smoothed latency
+    private static final double LATENCY_ALPHA = 0.2;
+
+    /** Bucket size and refill rate for one kind of client. */
+    public static final class Limits {
+        final double capacity;
+        final double refillPerNano;
+
+        public Limits(double capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerNano = refillPerSecond / 1e9;
+        }
+
+        long nanosToFill() {
+            return (long) (capacity / refillPerNano);
+        }
+    }
+
+    private static final class Rule {
+        final String method;
+        final String pattern;
+        final int cost;
+
+        Rule(String method, String pattern, int cost) {
+            this.method = method;
+            this.pattern = pattern;
+            this.cost = cost;
+        }
+    }
+
+    private static final class BucketState {
+        final double tokens;
+        final long updatedNanos;
+
+        BucketState(double tokens, long updatedNanos) {
+            this.tokens = tokens;
+            this.updatedNanos = updatedNanos;
+        }
+    }
+
+    static final class Bucket {
+        final Limits limits;
+        final AtomicReference<BucketState> state;
+
+        Bucket(Limits limits, long now) {
+            this.limits = limits;
+            this.state = new AtomicReference<>(new BucketState(limits.capacity, now));
+        }
+
+        // 0 if the tokens were taken, otherwise nanoseconds until there will be enough
+        long tryTake(int cost, long now) {
+            while (true) {
+                BucketState current = state.get();
+                double tokens = Math.min(limits.capacity,
+                        current.tokens + Math.max(0, now - current.updatedNanos) * limits.refillPerNano);
+                if (tokens < cost) {
+                    return (long) Math.ceil((cost - tokens) / limits.refillPerNano);
+                }
+                if (state.compareAndSet(current, new BucketState(tokens - cost, now))) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean idleSince(long now) {
+            return now - state.get().updatedNanos > limits.nanosToFill();
+        }
+    }
+
+    private final ConcurrentHashMap<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong(System.nanoTime());
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final Limits userLimits;
+    private final Limits ipLimits;
+    private final List<Rule> rules;
+    private final int expensiveCost;
+    private final int maxExpensive;
+    private final long shedLatencyNanos;
+    private final AtomicInteger expensiveInFlight = new AtomicInteger();
+    private volatile double expensiveLatencyNanos;
+    private final MeterRegistry registry;
+
+    public RateLimitFilter(MeterRegistry registry, Limits userLimits, Limits ipLimits, String costs,
+            int expensiveCost, int maxExpensive, long shedLatencyMillis) {
+        this.registry = registry;
+        this.userLimits = userLimits;
+        this.ipLimits = ipLimits;
+        this.rules = parseRules(costs);
+        this.expensiveCost = expensiveCost;
+        this.maxExpensive = maxExpensive;
+        this.shedLatencyNanos = shedLatencyMillis * 1_000_000;
+        Gauge.builder("ratelimit.buckets", buckets, ConcurrentHashMap::size)
+                .description("Clients with a live token bucket")
+                .register(registry);
+        Gauge.builder("ratelimit.expensive.inflight", expensiveInFlight, AtomicInteger::get)
+                .description("Expensive requests in progress")
+                .register(registry);
+        Gauge.builder("ratelimit.expensive.latency", this, f -> f.expensiveLatencyNanos / 1e6)
+                .description("Smoothed latency of expensive requests (ms)")
+                .baseUnit("milliseconds")
+                .register(registry);
+    }
+
+    // "GET /api/resources/search=5, POST /api/resources/import=20"
+    static List<Rule> parseRules(String costs) {
+        List<Rule> rules = new ArrayList<>();
+        for (String entry : costs.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int equals = trimmed.lastIndexOf('=');
+            int space = trimmed.indexOf(' ');
+            if (equals < 0 || space < 0 || space > equals) {
+                throw new IllegalArgumentException("Expected 'METHOD /pattern=cost', got: " + trimmed);
+            }
+            rules.add(new Rule(trimmed.substring(0, space).trim(), trimmed.substring(space + 1, equals).trim(),
+                    Integer.parseInt(trimmed.substring(equals + 1).trim())));
+        }
+        return rules;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return path(request).startsWith("/actuator/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+        sweepIdleBuckets(now);
+
+        String user = currentUser();
+        String client = user != null ? "user" : "ip";
+        String key = user != null ? "user:" + user : "ip:" + request.getRemoteAddr();
+        Limits limits = user != null ? userLimits : ipLimits;
+        int cost = costOf(request);
+
+        long waitNanos = buckets.computeIfAbsent(key, k -> new Bucket(limits, now)).tryTake(cost, now);
+        if (waitNanos > 0) {
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, "rate", client,
+                    Math.max(1, (waitNanos + 999_999_999) / 1_000_000_000));
+            return;
+        }
+
+        if (cost < expensiveCost) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        int limit = expensiveLatencyNanos > shedLatencyNanos ? Math.max(1, maxExpensive / 2) : maxExpensive;
+        if (expensiveInFlight.incrementAndGet() > limit) {
+            expensiveInFlight.decrementAndGet();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, "shed", client, 1);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean async = false;
+        try {
+            chain.doFilter(request, response);
+            // Streamed responses do their work after the chain returns; hold the slot until they finish
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ExpensiveAsyncListener(start));
+                async = true;
+            }
+        } finally {
+            if (!async) {
+                releaseExpensive(start);
+            }
+        }
+    }
+
+    private void releaseExpensive(long start) {
+        expensiveInFlight.decrementAndGet();
+        // Racy read-modify-write is fine for a smoothed value
+        long elapsed = System.nanoTime() - start;
+        expensiveLatencyNanos += LATENCY_ALPHA * (elapsed - expensiveLatencyNanos);
+    }
+
+    // Releases the expensive slot once, whichever of complete/error/timeout comes first
+    private class ExpensiveAsyncListener implements AsyncListener {
+        private final long start;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        ExpensiveAsyncListener(long start) {
+            this.start = start;
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                releaseExpensive(start);
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    int costOf(HttpServletRequest request) {
+        String path = path(request);
+        for (Rule rule : rules) {
+            if (rule.method.equalsIgnoreCase(request.getMethod()) && matcher.match(rule.pattern, path)) {
+                return rule.cost;
+            }
+        }
+        return 1;
+    }
+
+    private static String path(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof OAuth2User user) {
+            return user.getAttribute("email");
+        }
+        return null;
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, String reason, String client,
+            long retryAfterSeconds) throws IOException {
+        Counter.builder("ratelimit.rejected")
+                .description("Requests turned away by the rate limiter or load shedding")
+                .tag("reason", reason)
+                .tag("client", client)
+                .register(registry)
+                .increment();
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(status == HttpStatus.TOO_MANY_REQUESTS
+                ? "Too many requests, try again later."
+                : "Server busy, try again shortly.");
+    }
+
+    // At most once per interval, by whichever request wins the CAS
+    private void sweepIdleBuckets(long now) {
+        long last = lastSweep.get();
+        if (now - last > SWEEP_INTERVAL_NANOS && lastSweep.compareAndSet(last, now)) {
+            buckets.values().removeIf(bucket -> bucket.idleSince(now));
+        }
+    }
+}
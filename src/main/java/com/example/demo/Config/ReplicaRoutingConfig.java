@@ -0,0 +1,119 @@
+package com.example.demo.Config;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * datasource.replicas.urls set: read-only transactions go to PostgreSQL
+ * streaming replicas, everything else to the primary (spring.datasource.*).
+ *
+ * The application DataSource is a LazyConnectionDataSourceProxy. It fetches
+ * the real connection at the first statement, when it already knows whether
+ * the transaction is read-only, and takes read-only ones from
+ * ReplicaRoutingDataSource. Repository interfaces are
+ * @Transactional(readOnly = true), as are Spring Data's inherited finders, so
+ * list, search, details, comments and tags reads qualify; work outside a
+ * transaction (lazy loading in the view, plain JdbcTemplate) and
+ * UserRepository stay on the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "datasource.replicas.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            DataSourceProperties properties,
+            Environment environment,
+            MeterRegistry meterRegistry,
+            @Value("${datasource.replicas.urls}") List<String> urls,
+            @Value("${datasource.replicas.username:}") String username,
+            @Value("${datasource.replicas.password:}") String password,
+            @Value("${datasource.replicas.max-lag-ms:1000}") long maxLagMs) {
+        List<HikariDataSource> pools = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            pool.setPassword(username.isEmpty() ? properties.determinePassword() : password);
+            pool.setReadOnly(true);
+            // Lazy: a replica that is down at startup is simply out of rotation
+            pool.setInitializationFailTimeout(-1);
+            pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            ThreadingConfig.size(pool, environment);
+            pools.add(pool);
+        }
+        System.out.println("Read replicas: " + urls.size() + ", out of rotation beyond " + maxLagMs + " ms lag");
+        return new ReplicaRoutingDataSource(primaryDataSource, pools, maxLagMs, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("replicaRoutingDataSource") DataSource replicaRoutingDataSource) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaryDataSource);
+        proxy.setReadOnlyDataSource(replicaRoutingDataSource);
+        return proxy;
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${datasource.replicas.max-lag-ms:1000}") long maxLagMs,
+            @Value("${datasource.replicas.check-interval-ms:2000}") long checkIntervalMs,
+            @Value("${auth.token.secure-cookie:false}") boolean secureCookie) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(
+                new ReadYourWritesFilter(Duration.ofMillis(maxLagMs + checkIntervalMs), secureCookie));
+        // Ahead of Spring Security, so the whole request is routed the same way
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    // Streamed responses are written on the applicationTaskExecutor; carry the request's pin over
+    @Bean
+    public TaskDecorator primaryOnlyPropagation() {
+        return task -> {
+            Boolean primaryOnly = ReplicaRoutingDataSource.PRIMARY_ONLY.get();
+            if (primaryOnly == null) {
+                return task;
+            }
+            return () -> {
+                ReplicaRoutingDataSource.PRIMARY_ONLY.set(primaryOnly);
+                try {
+                    task.run();
+                } finally {
+                    ReplicaRoutingDataSource.PRIMARY_ONLY.remove();
+                }
+            };
+        };
+    }
+}
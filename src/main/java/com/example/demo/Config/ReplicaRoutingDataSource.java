@@ -0,0 +1,149 @@
+package com.example.demo.Config;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Where read-only transactions get their connection: one of the replicas,
+ * round-robin, or the primary when none is fit to serve.
+ *
+ * A replica serves only while its last health check succeeded and showed it
+ * at most maxLagMs behind the primary. A replica that has replayed everything
+ * it received counts as 0 ms behind, so an idle primary does not make it look
+ * stale. Requests pinned with {@link #PRIMARY_ONLY} (writes, and reads
+ * shortly after a write - see ReadYourWritesFilter) always get the primary.
+ *
+ * Only reached through LazyConnectionDataSourceProxy's read-only path, so
+ * nothing that writes ever asks for a connection here.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    // Set for the current request when its reads must see its own (or a very recent) write
+    public static final ThreadLocal<Boolean> PRIMARY_ONLY = new ThreadLocal<>();
+
+    private static final String LAG_QUERY = "SELECT CASE"
+            + " WHEN NOT pg_is_in_recovery() THEN 0"
+            + " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0"
+            + " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0) END";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMs;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter primaryReads;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicaPools, long maxLagMs,
+            MeterRegistry meterRegistry) {
+        this.primary = primary;
+        this.maxLagMs = maxLagMs;
+        for (HikariDataSource pool : replicaPools) {
+            Replica replica = new Replica(pool, Counter.builder("datasource.routing.reads")
+                    .tag("target", pool.getPoolName()).register(meterRegistry));
+            Gauge.builder("datasource.replica.lag", replica, r -> r.lagMs)
+                    .tag("replica", pool.getPoolName()).baseUnit("milliseconds").register(meterRegistry);
+            Gauge.builder("datasource.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .tag("replica", pool.getPoolName()).register(meterRegistry);
+            replicas.add(replica);
+        }
+        this.primaryReads = Counter.builder("datasource.routing.reads").tag("target", "primary")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return pick().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return pick().getConnection(username, password);
+    }
+
+    DataSource pick() {
+        if (!Boolean.TRUE.equals(PRIMARY_ONLY.get())) {
+            int size = replicas.size();
+            int start = Math.floorMod(next.getAndIncrement(), size);
+            for (int i = 0; i < size; i++) {
+                Replica replica = replicas.get((start + i) % size);
+                if (replica.healthy) {
+                    replica.reads.increment();
+                    return replica.pool;
+                }
+            }
+        }
+        primaryReads.increment();
+        return primary;
+    }
+
+    @Scheduled(fixedDelayString = "${datasource.replicas.check-interval-ms:2000}")
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            check(replica);
+        }
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.pool.getConnection();
+                Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(2);
+            try (ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                replica.lagMs = rs.getDouble(1);
+            }
+            markHealthy(replica, replica.lagMs <= maxLagMs);
+        } catch (SQLException e) {
+            replica.lagMs = Double.NaN;
+            markHealthy(replica, false);
+        }
+    }
+
+    private void markHealthy(Replica replica, boolean healthy) {
+        if (replica.healthy != healthy) {
+            System.out.println("Replica " + replica.pool.getPoolName() + (healthy ? " is serving reads again"
+                    : " taken out of rotation (lag " + replica.lagMs + " ms)"));
+        }
+        replica.healthy = healthy;
+    }
+
+    // For tests: skip the health check
+    void setHealthy(int replica, boolean healthy) {
+        replicas.get(replica).healthy = healthy;
+    }
+
+    @Override
+    public void close() {
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+
+    private static final class Replica {
+        final HikariDataSource pool;
+        final Counter reads;
+        // Out of rotation until the first check has passed
+        volatile boolean healthy;
+        volatile double lagMs = Double.NaN;
+
+        Replica(HikariDataSource pool, Counter reads) {
+            this.pool = pool;
+            this.reads = reads;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.example.demo.Config;
 
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -10,9 +13,16 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserRequest;
 import org.springframework.security.oauth2.client.oidc.userinfo.OidcUserService;
 import org.springframework.security.oauth2.client.userinfo.OAuth2UserService;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 import org.springframework.security.oauth2.core.oidc.user.OidcUser;
+import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.AnonymousAuthenticationFilter;
+import org.springframework.security.web.authentication.AuthenticationSuccessHandler;
 import org.springframework.security.web.authentication.SimpleUrlAuthenticationSuccessHandler;
+import org.springframework.security.web.savedrequest.NullRequestCache;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -27,6 +37,20 @@ public class SecurityConfig { // <-- Notice: NO "extends WebSecurityConfigurerAd
     @Autowired
     private UserRepository userRepository;
 
+    // Header-based logins for the load driver; only present with the loadtest profile (see LoadTestAuthConfig)
+    @Autowired(required = false)
+    private LoadTestAuthFilter loadTestAuthFilter;
+
+    // Metrics are open only on a separate management port (management.server.port); -1 = none
+    @Value("${management.server.port:-1}")
+    private int managementPort;
+    @Value("${server.port:8080}")
+    private int serverPort;
+
+    // Only present with auth.mode=token (see TokenAuthConfig); otherwise logins live in the HTTP session
+    @Autowired(required = false)
+    private AccessTokens accessTokens;
+
     // THIS IS THE NEW WAY TO CONFIGURE HTTPSECURITY
     // THIS IS THE NEW WAY TO CONFIGURE HTTPSECURITY
     @Bean
@@ -41,21 +65,30 @@ public class SecurityConfig { // <-- Notice: NO "extends WebSecurityConfigurerAd
                                 "/error", 
                                 "/api/resources", 
                                 "/api/resources/download/**",
+                                "/api/resources/*/download-link",
                                 "/api/resources/*/details",
                                 "/api/resources/*/comments",
                                 "/api/resources/search",
                                 "/api/resources/categories",
                                 "/api/resources/*/tags",
+                                "/api/resources/*/similar",
+                                "/api/resources/*/stats",
                                 "/api/tags",
                                 "/api/tags/*",
                                 "/api/tags/predefined",
                                 "/api/tags/popular",
                                 "/api/tags/search",
                                 "/api/tags/*/resources",
+                                "/api/tags/*/related",
                                 "/api/test/**",
                                 "/oauth2/**",
-                                "/login/**"
+                                "/login/**",
+                                "/actuator/health"
                         ).permitAll()
+                        // Scraped without a session, so only on the internal management port; on the
+                        // application port per-URI latency, rate-limit and cache metrics need a login
+                        .requestMatchers(request -> managementPort > 0 && managementPort != serverPort
+                                && request.getLocalPort() == managementPort).permitAll()
                         .anyRequest().authenticated()
                 )
                 .oauth2Login(oauth -> oauth
@@ -65,6 +98,23 @@ public class SecurityConfig { // <-- Notice: NO "extends WebSecurityConfigurerAd
                         .successHandler(successHandler()) // Tell oauth2Login to use your handler
                 );
 
+        if (accessTokens != null) {
+            // No HttpSession anywhere: the token, or the signed auth-request cookie mid-login, carries the state
+            http
+                    .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                    .requestCache(cache -> cache.requestCache(new NullRequestCache()))
+                    .oauth2Login(oauth -> oauth
+                            .authorizationEndpoint(endpoint -> endpoint.authorizationRequestRepository(
+                                    new CookieAuthorizationRequestRepository(accessTokens.key(), accessTokens.secureCookie())))
+                            .successHandler(tokenSuccessHandler()))
+                    .logout(logout -> logout.deleteCookies(AccessTokens.COOKIE))
+                    .addFilterBefore(new AccessTokenFilter(accessTokens), AnonymousAuthenticationFilter.class);
+        }
+
+        if (loadTestAuthFilter != null) {
+            http.addFilterBefore(loadTestAuthFilter, AnonymousAuthenticationFilter.class);
+        }
+
         return http.build(); // <-- Return the built HttpSecurity object
     }
 
@@ -94,9 +144,15 @@ public class SecurityConfig { // <-- Notice: NO "extends WebSecurityConfigurerAd
                     });
             
             System.out.println("User found/created: " + user.id + " - " + user.email);
-           
-            
-            return oidcUser;
+
+            // Carry the user id on the principal, as token logins do, so requests can use it without a lookup
+            Map<String, Object> claims = new HashMap<>();
+            if (oidcUser.getUserInfo() != null) {
+                claims.putAll(oidcUser.getUserInfo().getClaims());
+            }
+            claims.put("sub", oidcUser.getSubject());
+            claims.put("userId", user.id);
+            return new DefaultOidcUser(oidcUser.getAuthorities(), oidcUser.getIdToken(), new OidcUserInfo(claims));
         };
     }
 
@@ -107,6 +163,18 @@ public class SecurityConfig { // <-- Notice: NO "extends WebSecurityConfigurerAd
         return handler;
     }
 
+    // Token mode: swap the finished OIDC login for an access-token cookie, then go to the frontend
+    private AuthenticationSuccessHandler tokenSuccessHandler() {
+        SimpleUrlAuthenticationSuccessHandler redirect = successHandler();
+        return (request, response, authentication) -> {
+            OAuth2User principal = (OAuth2User) authentication.getPrincipal();
+            String email = principal.getAttribute("email");
+            User user = userRepository.findByEmail(email).orElseThrow();
+            accessTokens.writeCookie(response, accessTokens.issue(user));
+            redirect.onAuthenticationSuccess(request, response, authentication);
+        };
+    }
+
     // This bean allows your React frontend (on localhost:3000) to talk to this backend
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
@@ -0,0 +1,67 @@
+package com.example.demo.Config;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Thread-mode dependent setup.
+ *
+ * With spring.threads.virtual.enabled=true, Boot runs Tomcat requests, the
+ * applicationTaskExecutor (@Async, StreamingResponseBody) and the scheduler on
+ * virtual threads; with it off, on the usual platform pools. Either way
+ * @Async and @Scheduled work goes through those Boot-managed executors, so
+ * nothing here creates threads of its own.
+ *
+ * In virtual mode the request thread is no longer the concurrency limit - the
+ * connection pool is. Thousands of virtual threads will queue on Hikari, so
+ * the pool stays small (the usual cores * 2 + 1) and fails fast instead of
+ * letting waiters pile up for the 30 s default. Explicit
+ * spring.datasource.hikari.* settings always win, and platform-thread mode
+ * is left at Hikari's defaults.
+ */
+@Configuration
+@EnableAsync
+@EnableScheduling
+public class ThreadingConfig {
+
+    static final long VIRTUAL_CONNECTION_TIMEOUT_MS = 5_000;
+
+    @Bean
+    public static BeanPostProcessor hikariSizing(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof HikariDataSource hikari) {
+                    size(hikari, environment);
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Platform-thread mode keeps Hikari's defaults: Tomcat's thread pool already bounds the waiters
+    static void size(HikariDataSource hikari, Environment environment) {
+        boolean virtual = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        if (!virtual) {
+            return;
+        }
+        if (!environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            hikari.setMaximumPoolSize(poolSize(Runtime.getRuntime().availableProcessors()));
+        }
+        if (!environment.containsProperty("spring.datasource.hikari.connection-timeout")) {
+            hikari.setConnectionTimeout(VIRTUAL_CONNECTION_TIMEOUT_MS);
+        }
+    }
+
+    // HikariCP's pool-sizing rule of thumb (cores * 2 + effective spindles), never below Hikari's default of 10
+    static int poolSize(int cores) {
+        return Math.max(10, cores * 2 + 1);
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.Config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * auth.mode=token: logins are carried by signed access tokens instead of the
+ * Tomcat session (see AccessTokens). Every node must share auth.token.secret.
+ */
+@Configuration
+@ConditionalOnProperty(name = "auth.mode", havingValue = "token")
+public class TokenAuthConfig {
+
+    @Bean
+    public AccessTokens accessTokens(
+            @Value("${auth.token.secret:}") String secret,
+            @Value("${auth.token.ttl-minutes:30}") long ttlMinutes,
+            @Value("${auth.token.secure-cookie:false}") boolean secureCookie) {
+        if (secret.isBlank()) {
+            throw new IllegalStateException("auth.mode=token needs auth.token.secret (the same on every node)");
+        }
+        System.out.println("Stateless auth: access tokens valid for " + ttlMinutes + " minutes");
+        return new AccessTokens(secret, Duration.ofMinutes(ttlMinutes), secureCookie);
+    }
+}
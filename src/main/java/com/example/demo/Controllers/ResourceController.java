@@ -1,12 +1,34 @@
 package com.example.demo.Controllers;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
@@ -18,12 +40,18 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.example.demo.DTO.CategoryResponse;
 import com.example.demo.DTO.CommentRequest;
 import com.example.demo.DTO.CommentResponse;
 import com.example.demo.DTO.RatingRequest;
 import com.example.demo.DTO.ResourceDetailResponse;
+import com.example.demo.DTO.ResourceStatsResponse;
+import com.example.demo.DTO.ResourceSummary;
 import com.example.demo.Entities.Category;
 import com.example.demo.Entities.Comment;
 import com.example.demo.Entities.Favorite;
@@ -35,7 +63,22 @@ import com.example.demo.Repositories.FavoriteRepository;
 import com.example.demo.Repositories.RatingRepository;
 import com.example.demo.Repositories.ResourceRepository;
 import com.example.demo.Repositories.UserRepository;
+import com.example.demo.Services.ActivityLog;
+import com.example.demo.Services.ActivityStats;
+import com.example.demo.Services.BulkImportService;
+import com.example.demo.Services.ChangeVersions;
+import com.example.demo.Services.DownloadOffload;
+import com.example.demo.Services.CatalogExportService;
+import com.example.demo.Services.NearCache;
+import com.example.demo.Services.QueryCache;
+import com.example.demo.Services.ResourceJsonWriter;
+import com.example.demo.Services.ResourceIndex;
+import com.example.demo.Services.ResourceSearchService;
+import com.example.demo.Services.SimilarityIndex;
+import com.example.demo.Services.SingleFlight;
 import com.example.demo.Services.StorageService;
+import com.example.demo.Services.TagGraph;
+import com.example.demo.Services.UserAffinityService;
 
 @RestController
 @RequestMapping("/api/resources")
@@ -57,11 +100,62 @@ public class ResourceController {
     private FavoriteRepository favoriteRepository;
     @Autowired
     private com.example.demo.Repositories.TagRepository tagRepository;
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private UserAffinityService userAffinityService;
+    @Autowired
+    private SimilarityIndex similarityIndex;
+    @Autowired
+    private TagGraph tagGraph;
+    @Autowired
+    private ResourceSearchService resourceSearchService;
+    @Autowired
+    private QueryCache queryCache;
+    @Autowired
+    private BulkImportService bulkImportService;
+    @Autowired
+    private CatalogExportService catalogExportService;
+    @Autowired
+    private ChangeVersions changeVersions;
+    @Autowired
+    private ResourceJsonWriter resourceJsonWriter;
+    @Autowired
+    private NearCache nearCache;
+    @Autowired
+    private ActivityLog activityLog;
+    @Autowired
+    private ActivityStats activityStats;
+    @Autowired
+    private SingleFlight singleFlight;
+    @Autowired
+    private DownloadOffload downloadOffload;
+
+    // Emails allowed to run POST /import (comma-separated); empty = nobody, use the CLI runner
+    @Value("${import.admins:}")
+    private String importAdmins;
+
+    // Conditional GET: the ETag comes from ChangeVersions and is checked before any query runs.
+    // Polled lists are revalidated on every use; details are per-user, so browser-only.
+    private static final CacheControl CATALOG_CACHING = CacheControl.noCache().cachePublic();
+    private static final CacheControl CATEGORIES_CACHING = CacheControl.maxAge(Duration.ofMinutes(5)).cachePublic();
+    private static final CacheControl DETAILS_CACHING = CacheControl.noCache().cachePrivate();
 
     // ENDPOINT 1: LIST ALL RESOURCES (Public)
+    // Resource lists (here, favorites, search, recommendations, by-tag) are streamed off the
+    // database and take fields=id,title,... to return only those properties
     @GetMapping
-    public List<com.example.demo.Entities.Resource> listResources() {
-        return resourceRepository.findAll();
+    public ResponseEntity<StreamingResponseBody> listResources(
+            @RequestParam(required = false) String fields,
+            WebRequest request) {
+
+        String etag = changeVersions.catalogETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CATALOG_CACHING).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(CATALOG_CACHING)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(resourceJsonWriter.all(fields));
     }
 
     // ENDPOINT 2: UPLOAD A NEW RESOURCE (Requires Login)
@@ -127,14 +221,44 @@ public class ResourceController {
             }
         }
 
-        resourceRepository.save(newResource);
-
-        return ResponseEntity.ok().body("File uploaded successfully: " + filename);
+        // MinHash over title, description and (for plain-text files) the first 64 KB of content
+        int[] signature = SimilarityIndex.signatureOf(title, description,
+                storageService.readTextPrefix(filename, 64 * 1024));
+        if (signature != null) {
+            newResource.minhashSignature = SimilarityIndex.encode(signature);
+        }
+        List<SimilarityIndex.Match> duplicates =
+                similarityIndex.query(signature, null, 5, SimilarityIndex.DUPLICATE_THRESHOLD);
+
+        com.example.demo.Entities.Resource savedResource = resourceRepository.save(newResource);
+        resourceIndex.indexResource(savedResource);
+        tagGraph.onResourceTagged(resourceIndex.tagsOf(savedResource.id));
+        similarityIndex.add(savedResource.id, signature);
+        userAffinityService.onUpload(user.id, savedResource.id);
+        queryCache.catalogChanged();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("message", "File uploaded successfully: " + filename);
+        response.put("filename", filename);
+        response.put("resourceId", savedResource.id);
+        if (!duplicates.isEmpty()) {
+            response.put("duplicateWarning", "This looks very similar to resources that already exist.");
+            response.put("possibleDuplicates", toSimilarList(duplicates));
+        }
+        return ResponseEntity.ok().body(response);
     }
 
     // ENDPOINT 3: DOWNLOAD A FILE (Public)
+    // With downloads.offload set, only the header goes back and the front proxy sends the file
     @GetMapping("/download/{filename:.+}")
     public ResponseEntity<Resource> downloadFile(@PathVariable String filename) {
+        if (downloadOffload.offloading()) {
+            Path file = storageService.locate(filename);
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + file.getFileName() + "\"")
+                    .header(downloadOffload.header(), downloadOffload.headerValue(file))
+                    .build();
+        }
         Resource resource = storageService.loadAsResource(filename);
         return ResponseEntity.ok()
                 .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + resource.getFilename() + "\"")
@@ -174,6 +298,9 @@ public class ResourceController {
         newRating.resourceId = id;
         newRating.ratingValue = ratingRequest.getRating();
         ratingRepository.save(newRating);
+        activityLog.record(id, userId, ActivityLog.Type.RATE);
+        userAffinityService.onRating(userId, id, newRating.ratingValue);
+        queryCache.catalogChanged(); // average rating feeds recommendation order
 
         // 4. Just return "OK". The frontend can re-fetch to see the new avg.
         return ResponseEntity.ok().body("Rating submitted.");
@@ -183,15 +310,42 @@ public class ResourceController {
     @GetMapping("/{id}/details")
     public ResponseEntity<?> getResourceDetails(
             @PathVariable Long id,
-            @AuthenticationPrincipal OAuth2User oauthUser) {
+            @AuthenticationPrincipal OAuth2User oauthUser,
+            WebRequest request) {
+
+        String etag = changeVersions.resourceETag(id, oauthUser == null ? null : oauthUser.getAttribute("email"));
+        // Logins put the user id on the principal, so a revalidation needs no query for it
+        Long viewerId = oauthUser == null ? null : oauthUser.getAttribute("userId");
+        if (request.checkNotModified(etag)) {
+            // A revalidated copy is still a view; the count reaches the database with the next flush
+            if (resourceIndex.contains(id)) {
+                activityLog.record(id, viewerId, ActivityLog.Type.VIEW);
+            }
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(DETAILS_CACHING).build();
+        }
 
+        // The anonymous body is shared across viewers; the favorite flag goes on a copy
+        ResourceDetailResponse response = nearCache.resource(id, () -> loadDetails(id));
+        if (oauthUser != null) {
+            String email = oauthUser.getAttribute("email");
+            User user = userRepository.findByEmail(email).orElse(null);
+            if (user != null) {
+                viewerId = user.id;
+                response = response.copy();
+                response.isFavoritedByCurrentUser = 
+                    favoriteRepository.existsByUserIdAndResourceId(user.id, id);
+            }
+        }
+        // Only now is the resource known to exist
+        activityLog.record(id, viewerId, ActivityLog.Type.VIEW);
+
+        return ResponseEntity.ok().eTag(etag).cacheControl(DETAILS_CACHING).body(response);
+    }
+
+    private ResourceDetailResponse loadDetails(Long id) {
         com.example.demo.Entities.Resource resource = resourceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Resource not found"));
 
-        // Increment view count
-        resource.viewCount++;
-        resourceRepository.save(resource);
-
         User uploader = userRepository.findById(resource.uploaderId).orElse(null);
 
         ResourceDetailResponse response = new ResourceDetailResponse();
@@ -214,18 +368,7 @@ public class ResourceController {
         response.commentCount = resource.comments.size();
         response.favoriteCount = resource.favorites.size();
         response.createdAt = resource.createdAt;
-
-        // Check if current user has favorited
-        if (oauthUser != null) {
-            String email = oauthUser.getAttribute("email");
-            User user = userRepository.findByEmail(email).orElse(null);
-            if (user != null) {
-                response.isFavoritedByCurrentUser = 
-                    favoriteRepository.existsByUserIdAndResourceId(user.id, id);
-            }
-        }
-
-        return ResponseEntity.ok(response);
+        return response;
     }
 
     // ENDPOINT 6: ADD COMMENT (Requires Login)
@@ -251,16 +394,24 @@ public class ResourceController {
         comment.resource = resource;
         comment.user = user;
         commentRepository.save(comment);
+        activityLog.record(id, user.id, ActivityLog.Type.COMMENT);
 
         return ResponseEntity.ok("Comment added successfully");
     }
 
     // ENDPOINT 7: GET COMMENTS FOR RESOURCE
+    // A shared link brings many readers at once: they share one load, keyed by the resource's version
     @GetMapping("/{id}/comments")
     public ResponseEntity<?> getComments(@PathVariable Long id) {
+        List<CommentResponse> response = singleFlight.get("comments", changeVersions.resourceETag(id, null),
+                () -> loadComments(id));
+        return ResponseEntity.ok(response);
+    }
+
+    private List<CommentResponse> loadComments(Long id) {
         List<Comment> comments = commentRepository.findByResourceIdOrderByCreatedAtDesc(id);
-        
-        List<CommentResponse> response = comments.stream()
+
+        return comments.stream()
                 .map(c -> new CommentResponse(
                     c.id,
                     c.content,
@@ -268,9 +419,7 @@ public class ResourceController {
                     c.user.email,
                     c.createdAt
                 ))
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(response);
+                .collect(Collectors.toUnmodifiableList());
     }
 
     // ENDPOINT 8: TOGGLE FAVORITE (Requires Login)
@@ -293,100 +442,123 @@ public class ResourceController {
 
         if (favoriteRepository.existsByUserIdAndResourceId(user.id, id)) {
             favoriteRepository.deleteByUserIdAndResourceId(user.id, id);
+            userAffinityService.onFavorite(user.id, id, false);
             return ResponseEntity.ok().body("{\"favorited\": false, \"message\": \"Removed from favorites\"}");
         } else {
             Favorite favorite = new Favorite();
             favorite.user = user;
             favorite.resource = resource;
             favoriteRepository.save(favorite);
+            activityLog.record(id, user.id, ActivityLog.Type.FAVORITE);
+            userAffinityService.onFavorite(user.id, id, true);
             return ResponseEntity.ok().body("{\"favorited\": true, \"message\": \"Added to favorites\"}");
         }
     }
 
     // ENDPOINT 9: GET USER'S FAVORITES (Requires Login)
     @GetMapping("/favorites")
-    public ResponseEntity<?> getUserFavorites(@AuthenticationPrincipal OAuth2User oauthUser) {
+    public ResponseEntity<StreamingResponseBody> getUserFavorites(
+            @RequestParam(required = false) String fields,
+            @AuthenticationPrincipal OAuth2User oauthUser) {
         if (oauthUser == null) {
-            return new ResponseEntity<>("You must be logged in.", HttpStatus.UNAUTHORIZED);
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You must be logged in.");
         }
-
         String email = oauthUser.getAttribute("email");
         User user = userRepository.findByEmail(email)
                 .orElseThrow(() -> new RuntimeException("User not found in DB"));
 
-        List<Favorite> favorites = favoriteRepository.findByUserId(user.id);
-        List<com.example.demo.Entities.Resource> resources = favorites.stream()
-                .map(f -> f.resource)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(resources);
+        List<Long> ids = favoriteRepository.findResourceIdsByUserId(user.id);
+        return streamed(resourceJsonWriter.ordered(ids, fields));
     }
 
     // ENDPOINT 10: SEARCH RESOURCES
+    // Filters are intersected as bitmaps from the resource index. With facets=true the
+    // response is an object with results plus per-category/per-tag counts for the filter UI.
     @GetMapping("/search")
-    public ResponseEntity<?> searchResources(
+    public ResponseEntity<StreamingResponseBody> searchResources(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String category,
-            @RequestParam(required = false) List<String> tags) {
-
-        List<com.example.demo.Entities.Resource> allResources = resourceRepository.findAll();
-
-        // Filter by keyword in title or description
-        if (keyword != null && !keyword.trim().isEmpty()) {
-            String lowerKeyword = keyword.toLowerCase();
-            allResources = allResources.stream()
-                    .filter(r -> r.title.toLowerCase().contains(lowerKeyword) ||
-                                (r.description != null && r.description.toLowerCase().contains(lowerKeyword)))
-                    .collect(Collectors.toList());
-        }
-
-        // Filter by category
+            @RequestParam(required = false) List<String> categories,
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "false") boolean facets,
+            @RequestParam(defaultValue = "10") int facetLimit,
+            @RequestParam(required = false) String fields) {
+
+        // "category" is the original single-select parameter; "categories" allows multi-select
+        List<String> selectedCategories = new ArrayList<>();
         if (category != null && !category.trim().isEmpty()) {
-            allResources = allResources.stream()
-                    .filter(r -> r.categories.stream().anyMatch(c -> c.name.equalsIgnoreCase(category)))
-                    .collect(Collectors.toList());
+            selectedCategories.add(category);
+        }
+        if (categories != null) {
+            selectedCategories.addAll(categories);
         }
 
-        // Filter by tags (resources must have at least one of the specified tags)
-        if (tags != null && !tags.isEmpty()) {
-            allResources = allResources.stream()
-                    .filter(r -> r.tags.stream().anyMatch(t -> 
-                        tags.stream().anyMatch(tagName -> t.name.equalsIgnoreCase(tagName))))
-                    .collect(Collectors.toList());
+        List<String> selectedTags = tags == null ? List.of() : tags;
+        int topFacets = facets ? Math.min(Math.max(facetLimit, 1), 100) : 0;
+        String cacheKey = QueryCache.normalise(keyword) + "|" + QueryCache.normaliseSet(selectedCategories)
+                + "|" + QueryCache.normaliseSet(selectedTags) + "|" + topFacets;
+        ResourceSearchService.SearchResult result = queryCache.get("search", cacheKey,
+                () -> resourceSearchService.search(keyword, selectedCategories, selectedTags, topFacets));
+
+        if (!facets) {
+            return streamed(resourceJsonWriter.ordered(result.ids, fields));
         }
 
-        return ResponseEntity.ok(allResources);
+        Map<String, Object> facetCounts = new HashMap<>();
+        facetCounts.put("categories", result.categoryFacets);
+        facetCounts.put("tags", result.tagFacets);
+
+        // total and facets go out first, then the results as they are loaded
+        Map<String, Object> head = new LinkedHashMap<>();
+        head.put("total", result.ids.size());
+        head.put("facets", facetCounts);
+        return streamed(resourceJsonWriter.ordered(head, "results", result.ids, fields));
     }
 
     // ENDPOINT 11: GET ALL CATEGORIES
     @GetMapping("/categories")
-    public ResponseEntity<?> getAllCategories() {
-        return ResponseEntity.ok(categoryRepository.findAll());
+    public ResponseEntity<?> getAllCategories(WebRequest request) {
+        String etag = changeVersions.categoriesETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(CATEGORIES_CACHING).build();
+        }
+        List<CategoryResponse> response = nearCache.categories("all", () -> categoryRepository.findAll().stream()
+                .map(c -> new CategoryResponse(c.id, c.name, c.description, c.iconEmoji, c.createdAt))
+                .toList());
+        return ResponseEntity.ok().eTag(etag).cacheControl(CATEGORIES_CACHING).body(response);
     }
 
     // ENDPOINT 12: INCREMENT DOWNLOAD COUNT
     @PostMapping("/download/{id}/increment")
     public ResponseEntity<?> incrementDownloadCount(@PathVariable Long id) {
-        com.example.demo.Entities.Resource resource = resourceRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Resource not found"));
-        
-        resource.downloadCount++;
-        resourceRepository.save(resource);
+        if (!resourceRepository.existsById(id)) {
+            throw new RuntimeException("Resource not found");
+        }
+        activityLog.record(id, null, ActivityLog.Type.DOWNLOAD);
 
         return ResponseEntity.ok("Download count incremented");
     }
 
     // ENDPOINT 13: GET RECOMMENDED RESOURCES BASED ON TAGS
     @GetMapping("/{id}/recommendations")
-    public ResponseEntity<?> getRecommendations(@PathVariable Long id, @RequestParam(defaultValue = "10") int limit) {
+    public ResponseEntity<StreamingResponseBody> getRecommendations(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(required = false) String fields) {
+
+        int top = Math.min(Math.max(limit, 1), 100);
+        List<Long> ids = queryCache.get("recommendations", id + "|" + top, () -> recommendedIds(id, top));
+        return streamed(resourceJsonWriter.ordered(ids, fields));
+    }
+
+    private List<Long> recommendedIds(Long id, int limit) {
         com.example.demo.Entities.Resource currentResource = resourceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Resource not found"));
 
         // Get tags of current resource
         if (currentResource.tags.isEmpty()) {
             // If no tags, return popular resources
-            return ResponseEntity.ok(
-                resourceRepository.findAll().stream()
+            return resourceRepository.findAll().stream()
                     .filter(r -> !r.id.equals(id))
                     .sorted((r1, r2) -> {
                         int score1 = r1.downloadCount * 2 + r1.viewCount;
@@ -394,14 +566,14 @@ public class ResourceController {
                         return Integer.compare(score2, score1);
                     })
                     .limit(limit)
-                    .collect(Collectors.toList())
-            );
+                    .map(r -> r.id)
+                    .collect(Collectors.toList());
         }
 
         // Find resources with matching tags
         List<com.example.demo.Entities.Resource> allResources = resourceRepository.findAll();
         
-        List<com.example.demo.Entities.Resource> recommendations = allResources.stream()
+        return allResources.stream()
                 .filter(r -> !r.id.equals(id)) // Exclude current resource
                 .filter(r -> !r.tags.isEmpty()) // Only resources with tags
                 .map(r -> {
@@ -426,21 +598,238 @@ public class ResourceController {
                     return Double.compare(ratingB, ratingA);
                 })
                 .limit(limit)
-                .map(item -> item.resource)
+                .map(item -> item.resource.id)
                 .collect(Collectors.toList());
-
-        return ResponseEntity.ok(recommendations);
     }
 
     // ENDPOINT 14: GET RESOURCES BY TAG
     @GetMapping("/by-tag/{tagName}")
-    public ResponseEntity<?> getResourcesByTag(@PathVariable String tagName) {
-        List<com.example.demo.Entities.Resource> allResources = resourceRepository.findAll();
-        
-        List<com.example.demo.Entities.Resource> filtered = allResources.stream()
-                .filter(r -> r.tags.stream().anyMatch(t -> t.name.equalsIgnoreCase(tagName)))
+    public ResponseEntity<StreamingResponseBody> getResourcesByTag(
+            @PathVariable String tagName,
+            @RequestParam(required = false) String fields) {
+
+        List<Long> ids = queryCache.get("by-tag", QueryCache.normalise(tagName), () -> {
+            Long tagId = resourceIndex.tagIdByName(tagName);
+            BitSet postings = tagId == null ? null : resourceIndex.resourcesWithTag(tagId);
+            return postings == null ? List.<Long>of() : postings.stream().mapToObj(bit -> (long) bit).toList();
+        });
+        return streamed(resourceJsonWriter.ordered(ids, fields));
+    }
+
+    // ENDPOINT 15: PERSONALISED "FOR YOU" FEED (Requires Login)
+    // Ranks resources against the user's tag affinity vector; users with no
+    // activity yet, or whose first page ranks nothing, get the most popular resources instead.
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeed(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal OAuth2User oauthUser) {
+
+        if (oauthUser == null) {
+            return new ResponseEntity<>("You must be logged in.", HttpStatus.UNAUTHORIZED);
+        }
+
+        String email = oauthUser.getAttribute("email");
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found in DB"));
+
+        page = Math.max(page, 0);
+        size = Math.min(Math.max(size, 1), 100);
+
+        List<ResourceSummary> items;
+        boolean hasMore;
+        boolean hasProfile = !userAffinityService.profileOf(user.id).isEmpty();
+        // Ask for one extra item so we know whether another page exists
+        List<UserAffinityService.ScoredResource> ranked = hasProfile
+                ? userAffinityService.rankFeed(user.id, page * size, size + 1)
+                : List.of();
+        // A profile that ranks nothing at all (only dislikes, or everything seen) falls back too,
+        // on every page, so paging through the popular feed stays consistent
+        boolean personalised = hasProfile
+                && (!ranked.isEmpty() || (page > 0 && !userAffinityService.rankFeed(user.id, 0, 1).isEmpty()));
+        if (personalised) {
+            hasMore = ranked.size() > size;
+            List<UserAffinityService.ScoredResource> pageItems = ranked.subList(0, Math.min(size, ranked.size()));
+            Map<Long, com.example.demo.Entities.Resource> byId = findAllById(pageItems.stream().map(r -> r.resourceId).toList());
+            items = pageItems.stream()
+                    .filter(r -> byId.containsKey(r.resourceId))
+                    .map(r -> new ResourceSummary(byId.get(r.resourceId), resourceIndex.tagNamesOf(r.resourceId), r.score))
+                    .collect(Collectors.toList());
+        } else {
+            var popular = resourceRepository.findAll(PageRequest.of(page, size,
+                    Sort.by(Sort.Direction.DESC, "downloadCount", "viewCount", "id")));
+            hasMore = popular.hasNext();
+            items = popular.stream()
+                    .map(r -> new ResourceSummary(r, resourceIndex.tagNamesOf(r.id), null))
+                    .collect(Collectors.toList());
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("content", items);
+        response.put("page", page);
+        response.put("size", size);
+        response.put("hasMore", hasMore);
+        response.put("personalised", personalised);
+        return ResponseEntity.ok(response);
+    }
+
+    // ENDPOINT 16: GET CONTENT-SIMILAR RESOURCES (MinHash/LSH, independent of tags)
+    @GetMapping("/{id}/similar")
+    public ResponseEntity<?> getSimilarResources(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0.3") double minSimilarity) {
+
+        if (!resourceRepository.existsById(id)) {
+            throw new RuntimeException("Resource not found");
+        }
+        int top = Math.min(Math.max(limit, 1), 100);
+        List<SimilarityIndex.Match> matches = similarityIndex.similarTo(id, top, minSimilarity);
+        return ResponseEntity.ok(toSimilarList(matches));
+    }
+
+    private List<Map<String, Object>> toSimilarList(List<SimilarityIndex.Match> matches) {
+        Map<Long, com.example.demo.Entities.Resource> byId = findAllById(matches.stream().map(m -> m.resourceId).toList());
+        return matches.stream()
+                .filter(m -> byId.containsKey(m.resourceId))
+                .map(m -> {
+                    Map<String, Object> item = new HashMap<>();
+                    item.put("resource", new ResourceSummary(byId.get(m.resourceId), resourceIndex.tagNamesOf(m.resourceId), null));
+                    item.put("similarity", m.similarity);
+                    return item;
+                })
                 .collect(Collectors.toList());
+    }
+
+    // ENDPOINT 17: QUERY CACHE STATS (Requires Login)
+    @GetMapping("/cache/stats")
+    public ResponseEntity<?> getCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("catalogVersion", queryCache.catalogVersion());
+        response.put("entries", queryCache.size());
+        response.put("endpoints", queryCache.stats());
+        return ResponseEntity.ok(response);
+    }
+
+    // ENDPOINT 18: BULK IMPORT FROM A MANIFEST (Requires Login, import.admins only)
+    // manifest: JSON array / NDJSON / {"resources": [...]}; filesDir: server-side directory with the files,
+    // relative to import.root
+    @PostMapping("/import")
+    public ResponseEntity<?> bulkImport(
+            @RequestParam("manifest") MultipartFile manifest,
+            @RequestParam(value = "filesDir", required = false) String filesDir,
+            @RequestParam(value = "requireFiles", defaultValue = "true") boolean requireFiles,
+            @AuthenticationPrincipal OAuth2User oauthUser) throws IOException {
+
+        if (oauthUser == null) {
+            return new ResponseEntity<>("You must be logged in.", HttpStatus.UNAUTHORIZED);
+        }
+
+        String email = oauthUser.getAttribute("email");
+        if (email == null || Arrays.stream(importAdmins.split(",")).map(String::trim).noneMatch(email::equalsIgnoreCase)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Only import.admins may import over HTTP");
+        }
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found in DB"));
+        Path dir;
+        try {
+            dir = filesDir == null ? null : bulkImportService.filesDirUnderRoot(filesDir);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+
+        try (InputStream in = manifest.getInputStream()) {
+            BulkImportService.ImportReport report = bulkImportService.importManifest(in, dir, user.id, requireFiles);
+            return ResponseEntity.ok(report);
+        }
+    }
+
+    // ENDPOINT 19: EXPORT THE CATALOG (Requires Login)
+    // Streams NDJSON (default) or CSV straight from a DB cursor; gzip=true compresses on the fly
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCatalog(
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+
+        CatalogExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? CatalogExportService.Format.CSV
+                : CatalogExportService.Format.NDJSON;
+        String filename = "resources." + (exportFormat == CatalogExportService.Format.CSV ? "csv" : "ndjson")
+                + (gzip ? ".gz" : "");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream compressed = new GZIPOutputStream(out, 64 * 1024)) {
+                    catalogExportService.export(compressed, exportFormat);
+                }
+            } else {
+                catalogExportService.export(out, exportFormat);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
+                .contentType(gzip ? MediaType.parseMediaType("application/gzip")
+                        : exportFormat == CatalogExportService.Format.CSV ? MediaType.parseMediaType("text/csv")
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    // ENDPOINT 20: ACTIVITY STATS FOR A RESOURCE
+    // e.g. /{id}/stats?from=2026-10-01&to=2026-10-08&bucket=day, served from the hourly/daily rollups (UTC).
+    // Defaults: the last 7 days by day, or the last 48 hours by hour.
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ResourceStatsResponse> getResourceStats(
+            @PathVariable Long id,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(defaultValue = "day") String bucket) {
+
+        if (!resourceRepository.existsById(id)) {
+            throw new RuntimeException("Resource not found");
+        }
+        try {
+            ActivityStats.Bucket size = ActivityStats.Bucket.valueOf(bucket.trim().toUpperCase());
+            LocalDateTime end = to == null ? LocalDateTime.now(ZoneOffset.UTC) : parseTime(to);
+            LocalDateTime start = from == null
+                    ? (size == ActivityStats.Bucket.HOUR ? end.minusHours(48) : end.minusDays(7))
+                    : parseTime(from);
+            return ResponseEntity.ok(activityStats.stats(id, start, end, size));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // ENDPOINT 21: SIGNED DOWNLOAD LINK
+    // Counts the download and returns a short-lived URL the front proxy serves on its own
+    // (downloads.signing-secret); clients using it skip /download/{id}/increment.
+    @PostMapping("/{id}/download-link")
+    public ResponseEntity<Map<String, Object>> createDownloadLink(@PathVariable Long id) {
+        if (!downloadOffload.signing()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Signed download links are not enabled");
+        }
+        String filePath = resourceRepository.findFilePathById(id)
+                .orElseThrow(() -> new RuntimeException("Resource not found"));
+        activityLog.record(id, null, ActivityLog.Type.DOWNLOAD);
+
+        DownloadOffload.Link link = downloadOffload.signedLink(filePath, Instant.now());
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("url", link.url());
+        response.put("expiresAt", link.expiresAt());
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).body(response);
+    }
+
+    // 2026-10-01 or 2026-10-01T14:00
+    private static LocalDateTime parseTime(String value) {
+        return value.contains("T") ? LocalDateTime.parse(value) : LocalDate.parse(value).atStartOfDay();
+    }
+
+    private Map<Long, com.example.demo.Entities.Resource> findAllById(List<Long> ids) {
+        return resourceRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(r -> r.id, Function.identity()));
+    }
 
-        return ResponseEntity.ok(filtered);
+    private static ResponseEntity<StreamingResponseBody> streamed(StreamingResponseBody body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
     }
-}
\ No newline at end of file
+}
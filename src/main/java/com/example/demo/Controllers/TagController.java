@@ -1,9 +1,12 @@
 package com.example.demo.Controllers;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -16,6 +19,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import com.example.demo.DTO.TagRequest;
 import com.example.demo.DTO.TagResponse;
@@ -23,6 +27,11 @@ import com.example.demo.Entities.Tag;
 import com.example.demo.Entities.User;
 import com.example.demo.Repositories.TagRepository;
 import com.example.demo.Repositories.UserRepository;
+import com.example.demo.Services.ChangeVersions;
+import com.example.demo.Services.NearCache;
+import com.example.demo.Services.QueryCache;
+import com.example.demo.Services.ResourceIndex;
+import com.example.demo.Services.TagGraph;
 
 @RestController
 @RequestMapping("/api/tags")
@@ -34,34 +43,57 @@ public class TagController {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ResourceIndex resourceIndex;
+
+    @Autowired
+    private TagGraph tagGraph;
+
+    @Autowired
+    private QueryCache queryCache;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Autowired
+    private NearCache nearCache;
+
+    // Tag lists carry usage counts, which move with every upload: a minute of staleness is fine
+    private static final CacheControl TAGS_CACHING = CacheControl.maxAge(Duration.ofMinutes(1)).cachePublic();
+
     // ENDPOINT 1: GET ALL TAGS (Public)
     @GetMapping
-    public ResponseEntity<?> getAllTags() {
-        List<Tag> tags = tagRepository.findAll();
-        List<TagResponse> response = tags.stream()
+    public ResponseEntity<?> getAllTags(WebRequest request) {
+        String etag = changeVersions.tagsETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TAGS_CACHING).build();
+        }
+        List<TagResponse> response = nearCache.tags("all", () -> tagRepository.findAll().stream()
                 .map(t -> new TagResponse(t.id, t.name, t.description, t.isPredefined, t.usageCount))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+                .toList());
+        return ResponseEntity.ok().eTag(etag).cacheControl(TAGS_CACHING).body(response);
     }
 
     // ENDPOINT 2: GET PREDEFINED TAGS (Public)
     @GetMapping("/predefined")
-    public ResponseEntity<?> getPredefinedTags() {
-        List<Tag> tags = tagRepository.findByIsPredefined(true);
-        List<TagResponse> response = tags.stream()
+    public ResponseEntity<?> getPredefinedTags(WebRequest request) {
+        String etag = changeVersions.tagsETag();
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(TAGS_CACHING).build();
+        }
+        List<TagResponse> response = nearCache.tags("predefined", () -> tagRepository.findByIsPredefined(true).stream()
                 .map(t -> new TagResponse(t.id, t.name, t.description, t.isPredefined, t.usageCount))
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(response);
+                .toList());
+        return ResponseEntity.ok().eTag(etag).cacheControl(TAGS_CACHING).body(response);
     }
 
     // ENDPOINT 3: GET POPULAR TAGS (Public)
     @GetMapping("/popular")
     public ResponseEntity<?> getPopularTags(@RequestParam(defaultValue = "20") int limit) {
-        List<Tag> tags = tagRepository.findTopByUsageCount();
-        List<TagResponse> response = tags.stream()
+        List<TagResponse> response = nearCache.tags("popular" + limit, () -> tagRepository.findTopByUsageCount().stream()
                 .limit(limit)
                 .map(t -> new TagResponse(t.id, t.name, t.description, t.isPredefined, t.usageCount))
-                .collect(Collectors.toList());
+                .toList());
         return ResponseEntity.ok(response);
     }
 
@@ -109,6 +141,7 @@ public class TagController {
         newTag.usageCount = 0;
 
         Tag savedTag = tagRepository.save(newTag);
+        resourceIndex.registerTag(savedTag);
 
         TagResponse response = new TagResponse(
             savedTag.id,
@@ -168,23 +201,60 @@ public class TagController {
         }
 
         tagRepository.delete(tag);
+        resourceIndex.removeTag(tag.id);
+        tagGraph.removeTag(tag.id);
+        queryCache.catalogChanged();
         return ResponseEntity.ok("Tag deleted successfully");
     }
 
     // ENDPOINT 8: GET TAG DETAILS
     @GetMapping("/{id}")
     public ResponseEntity<?> getTagDetails(@PathVariable Long id) {
-        Tag tag = tagRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Tag not found"));
-
-        TagResponse response = new TagResponse(
-            tag.id,
-            tag.name,
-            tag.description,
-            tag.isPredefined,
-            tag.usageCount
-        );
+        TagResponse response = nearCache.tags("id" + id, () -> {
+            Tag tag = tagRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Tag not found"));
+            return new TagResponse(
+                tag.id,
+                tag.name,
+                tag.description,
+                tag.isPredefined,
+                tag.usageCount
+            );
+        });
 
         return ResponseEntity.ok(response);
     }
+
+    // ENDPOINT 9: GET RELATED TAGS (Public)
+    // Tags that most often appear on the same resources, from the co-occurrence graph
+    @GetMapping("/{id}/related")
+    public ResponseEntity<?> getRelatedTags(
+            @PathVariable Long id,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        if (resourceIndex.tagName(id) == null) {
+            throw new RuntimeException("Tag not found");
+        }
+        return ResponseEntity.ok(tagGraph.related(id, Math.min(Math.max(limit, 1), 50)));
+    }
+
+    // ENDPOINT 10: SUGGEST NEXT TAGS WHILE TAGGING (Public)
+    // e.g. /api/tags/suggest?tags=SQL&tags=Joins
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggestTags(
+            @RequestParam(required = false) List<String> tags,
+            @RequestParam(defaultValue = "10") int limit) {
+
+        List<Long> picked = new ArrayList<>();
+        if (tags != null) {
+            for (String name : tags) {
+                Long tagId = resourceIndex.tagIdByName(name);
+                if (tagId != null) {
+                    picked.add(tagId);
+                }
+            }
+        }
+        long[] pickedIds = picked.stream().mapToLong(Long::longValue).toArray();
+        return ResponseEntity.ok(tagGraph.suggest(pickedIds, Math.min(Math.max(limit, 1), 50)));
+    }
 }
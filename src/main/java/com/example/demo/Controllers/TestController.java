@@ -24,7 +24,10 @@ import com.example.demo.Entities.User;
 import com.example.demo.Repositories.RatingRepository;
 import com.example.demo.Repositories.ResourceRepository;
 import com.example.demo.Repositories.UserRepository;
+import com.example.demo.Services.QueryCache;
+import com.example.demo.Services.ResourceIndex;
 import com.example.demo.Services.StorageService;
+import com.example.demo.Services.UserAffinityService;
 
 /**
  * Test controller for frontend development - bypasses OAuth2 authentication
@@ -42,6 +45,12 @@ public class TestController {
     private UserRepository userRepository;
     @Autowired
     private RatingRepository ratingRepository;
+    @Autowired
+    private UserAffinityService userAffinityService;
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private QueryCache queryCache;
 
     // ENDPOINT 1: LIST ALL RESOURCES (Public)
     @GetMapping("/resources")
@@ -76,6 +85,8 @@ public class TestController {
         newResource.uploaderId = user.id;
 
         com.example.demo.Entities.Resource savedResource = resourceRepository.save(newResource);
+        resourceIndex.indexResource(savedResource);
+        queryCache.catalogChanged();
 
         Map<String, Object> response = new HashMap<>();
         response.put("message", "File uploaded successfully");
@@ -128,6 +139,8 @@ public class TestController {
         newRating.resourceId = id;
         newRating.ratingValue = ratingRequest.getRating();
         ratingRepository.save(newRating);
+        userAffinityService.onRating(userId, id, newRating.ratingValue);
+        queryCache.catalogChanged();
 
         // 4. Return the updated resource
         com.example.demo.Entities.Resource updatedResource = resourceRepository.findById(id).get();
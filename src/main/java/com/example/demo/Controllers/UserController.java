@@ -0,0 +1,98 @@
+package com.example.demo.Controllers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.oauth2.core.user.OAuth2User;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.demo.DTO.UploaderDashboardResponse;
+import com.example.demo.Entities.User;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Repositories.UserRepository;
+
+@RestController
+@RequestMapping("/api/users")
+public class UserController {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    // ENDPOINT 1: UPLOADER DASHBOARD (Requires Login)
+    // The user's uploads, newest first, with views, downloads, ratings, favorites and comments,
+    // plus totals over all of them - a single aggregate query, see ResourceRepository.findDashboardPage.
+    @GetMapping("/me/resources")
+    public ResponseEntity<UploaderDashboardResponse> getMyResources(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal OAuth2User oauthUser) {
+
+        if (oauthUser == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "You must be logged in.");
+        }
+        String email = oauthUser.getAttribute("email");
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new RuntimeException("User not found in DB"));
+
+        page = Math.max(page, 0);
+        size = Math.min(Math.max(size, 1), 100);
+
+        long offset = (long) page * size;
+        if (offset > Integer.MAX_VALUE) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "page is out of range");
+        }
+
+        List<Object[]> rows = resourceRepository.findDashboardPage(user.id, size, (int) offset);
+        // The totals ride along on every row; past the last page, fetch one row just for them
+        List<Object[]> totalsRows = rows.isEmpty() && page > 0
+                ? resourceRepository.findDashboardPage(user.id, 1, 0)
+                : rows;
+
+        UploaderDashboardResponse response = new UploaderDashboardResponse();
+        response.page = page;
+        response.size = size;
+        for (Object[] row : rows) {
+            UploaderDashboardResponse.Item item = new UploaderDashboardResponse.Item();
+            item.id = number(row[0]);
+            item.title = (String) row[1];
+            item.createdAt = row[2] instanceof Timestamp ts ? ts.toLocalDateTime() : (LocalDateTime) row[2];
+            setCounts(item, row, 3);
+            response.content.add(item);
+        }
+        if (!totalsRows.isEmpty()) {
+            Object[] first = totalsRows.get(0);
+            response.totals.resources = number(first[9]);
+            setCounts(response.totals, first, 10);
+        }
+        response.hasMore = offset + size < response.totals.resources;
+        return ResponseEntity.ok(response);
+    }
+
+    // views, downloads, ratingCount, ratingSum, favorites, comments starting at column from
+    private static void setCounts(UploaderDashboardResponse.Counts counts, Object[] row, int from) {
+        counts.views = number(row[from]);
+        counts.downloads = number(row[from + 1]);
+        counts.ratingCount = number(row[from + 2]);
+        long ratingSum = number(row[from + 3]);
+        counts.averageRating = counts.ratingCount == 0 ? null : (double) ratingSum / counts.ratingCount;
+        counts.favorites = number(row[from + 4]);
+        counts.comments = number(row[from + 5]);
+    }
+
+    // Integer, Long, BigInteger or BigDecimal depending on the driver and aggregate
+    private static long number(Object value) {
+        return value == null ? 0 : ((Number) value).longValue();
+    }
+}
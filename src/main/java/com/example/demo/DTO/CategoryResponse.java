@@ -0,0 +1,21 @@
+package com.example.demo.DTO;
+
+import java.time.LocalDateTime;
+
+public class CategoryResponse {
+    public Long id;
+    public String name;
+    public String description;
+    public String iconEmoji;
+    public LocalDateTime createdAt;
+
+    public CategoryResponse() {}
+
+    public CategoryResponse(Long id, String name, String description, String iconEmoji, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.iconEmoji = iconEmoji;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.demo.DTO;
+
+public class FacetCount {
+    public Long id;
+    public String name;
+    public Integer count;
+
+    public FacetCount() {}
+
+    public FacetCount(Long id, String name, Integer count) {
+        this.id = id;
+        this.name = name;
+        this.count = count;
+    }
+}
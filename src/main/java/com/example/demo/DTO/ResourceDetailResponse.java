@@ -20,4 +20,26 @@ public class ResourceDetailResponse {
     public Integer favoriteCount;
     public boolean isFavoritedByCurrentUser;
     public LocalDateTime createdAt;
+
+    // Cached responses are shared; per-viewer fields go on a copy
+    public ResourceDetailResponse copy() {
+        ResourceDetailResponse copy = new ResourceDetailResponse();
+        copy.id = id;
+        copy.title = title;
+        copy.description = description;
+        copy.filePath = filePath;
+        copy.uploaderId = uploaderId;
+        copy.uploaderName = uploaderName;
+        copy.uploaderEmail = uploaderEmail;
+        copy.averageRating = averageRating;
+        copy.viewCount = viewCount;
+        copy.downloadCount = downloadCount;
+        copy.categories = categories;
+        copy.tags = tags;
+        copy.commentCount = commentCount;
+        copy.favoriteCount = favoriteCount;
+        copy.isFavoritedByCurrentUser = isFavoritedByCurrentUser;
+        copy.createdAt = createdAt;
+        return copy;
+    }
 }
@@ -0,0 +1,33 @@
+package com.example.demo.DTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Activity per time bucket for one resource, from the rollup tables (times are UTC)
+public class ResourceStatsResponse {
+    public Long resourceId;
+    public String bucket;
+    public LocalDateTime from;
+    public LocalDateTime to;
+    public Counts totals = new Counts();
+    public List<Point> series = new ArrayList<>();
+
+    public static class Counts {
+        public long views;
+        public long downloads;
+        public long ratings;
+        public long favorites;
+        public long comments;
+    }
+
+    public static class Point extends Counts {
+        public LocalDateTime start;
+
+        public Point() {}
+
+        public Point(LocalDateTime start) {
+            this.start = start;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.demo.DTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class ResourceSummary {
+    public Long id;
+    public String title;
+    public String description;
+    public String filePath;
+    public Long uploaderId;
+    public Double averageRating;
+    public Integer viewCount;
+    public Integer downloadCount;
+    public List<String> tags;
+    public Float score;
+    public LocalDateTime createdAt;
+
+    public ResourceSummary() {}
+
+    public ResourceSummary(com.example.demo.Entities.Resource resource, List<String> tags, Float score) {
+        this.id = resource.id;
+        this.title = resource.title;
+        this.description = resource.description;
+        this.filePath = resource.filePath;
+        this.uploaderId = resource.uploaderId;
+        this.averageRating = resource.averageRating;
+        this.viewCount = resource.viewCount;
+        this.downloadCount = resource.downloadCount;
+        this.tags = tags;
+        this.score = score;
+        this.createdAt = resource.createdAt;
+    }
+}
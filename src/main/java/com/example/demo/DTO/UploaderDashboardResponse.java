@@ -0,0 +1,33 @@
+package com.example.demo.DTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// One page of the logged-in user's uploads with their engagement, plus totals over all of them
+public class UploaderDashboardResponse {
+    public List<Item> content = new ArrayList<>();
+    public int page;
+    public int size;
+    public boolean hasMore;
+    public Totals totals = new Totals();
+
+    public static class Counts {
+        public long views;
+        public long downloads;
+        public Double averageRating; // null until rated
+        public long ratingCount;
+        public long favorites;
+        public long comments;
+    }
+
+    public static class Item extends Counts {
+        public Long id;
+        public String title;
+        public LocalDateTime createdAt;
+    }
+
+    public static class Totals extends Counts {
+        public long resources;
+    }
+}
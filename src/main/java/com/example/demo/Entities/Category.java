@@ -6,6 +6,8 @@ import java.util.Set;
 
 import org.hibernate.annotations.CreationTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -33,6 +35,7 @@ public class Category {
     @Column(name = "created_at", updatable = false)
     public LocalDateTime createdAt;
 
+    @JsonIgnore // back-reference; serialising it recurses through Resource.categories
     @ManyToMany(mappedBy = "categories")
     public Set<Resource> resources = new HashSet<>();
 }
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 
 import org.hibernate.annotations.CreationTimestamp;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -27,6 +29,7 @@ public class Favorite {
     @JoinColumn(name = "user_id", nullable = false)
     public User user;
 
+    @JsonIgnore // back-reference to the owning resource
     @ManyToOne
     @JoinColumn(name = "resource_id", nullable = false)
     public Resource resource;
@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -69,4 +71,8 @@ public class Resource {
 
     @Column(name = "created_at", insertable = false, updatable = false)
     public LocalDateTime createdAt;
+
+    @JsonIgnore
+    @Column(name = "minhash_signature", length = 256) // 64 ints; bytea on PostgreSQL either way
+    public byte[] minhashSignature; // Packed MinHash signature, see SimilarityIndex
 }
\ No newline at end of file
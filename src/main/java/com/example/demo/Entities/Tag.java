@@ -4,6 +4,8 @@ import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -35,6 +37,7 @@ public class Tag {
     @Column(name = "usage_count")
     public Integer usageCount = 0; // track how many times this tag is used
 
+    @JsonIgnore // back-reference; serialising it recurses through Resource.tags
     @ManyToMany(mappedBy = "tags")
     public Set<Resource> resources = new HashSet<>();
 
@@ -3,9 +3,11 @@ package com.example.demo.Repositories;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.Entities.Comment;
 
+@Transactional(readOnly = true)
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> findByResourceIdOrderByCreatedAtDesc(Long resourceId);
 }
@@ -4,12 +4,20 @@ import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.Entities.Favorite;
 
+@Transactional(readOnly = true)
 public interface FavoriteRepository extends JpaRepository<Favorite, Long> {
     Optional<Favorite> findByUserIdAndResourceId(Long userId, Long resourceId);
     List<Favorite> findByUserId(Long userId);
     boolean existsByUserIdAndResourceId(Long userId, Long resourceId);
+    @Transactional
     void deleteByUserIdAndResourceId(Long userId, Long resourceId);
+
+    @Query("SELECT f.resource.id FROM Favorite f WHERE f.user.id = :userId")
+    List<Long> findResourceIdsByUserId(@Param("userId") Long userId);
 }
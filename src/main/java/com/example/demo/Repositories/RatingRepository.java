@@ -2,10 +2,19 @@ package com.example.demo.Repositories;
 
 import com.example.demo.Entities.Rating;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
 import java.util.Optional;
 
+@Transactional(readOnly = true)
 public interface RatingRepository extends JpaRepository<Rating, Long> {
 
     // Checks if a user has already rated a resource
     Optional<Rating> findByUserIdAndResourceId(Long userId, Long resourceId);
+
+    // (resourceId, ratingValue) pairs for everything a user has rated
+    @Query("SELECT r.resourceId, r.ratingValue FROM Rating r WHERE r.userId = :userId")
+    List<Object[]> findResourceRatingsByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -1,7 +1,82 @@
 package com.example.demo.Repositories;
 
 import com.example.demo.Entities.Resource;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+// Reads may be served by a replica (see Config/ReplicaRoutingConfig)
+@Transactional(readOnly = true)
 public interface ResourceRepository extends JpaRepository<Resource, Long> {
-}
\ No newline at end of file
+
+    @Query("SELECT r.id FROM Resource r")
+    List<Long> findAllIds();
+
+    @Query("SELECT r.filePath FROM Resource r WHERE r.id = :id")
+    Optional<String> findFilePathById(@Param("id") Long id);
+
+    // Every (resourceId, tagId) pair, used to build the in-memory tag index
+    @Query("SELECT r.id, t.id FROM Resource r JOIN r.tags t")
+    List<Object[]> findAllResourceTagPairs();
+
+    @Query("SELECT r.id, c.id FROM Resource r JOIN r.categories c")
+    List<Object[]> findAllResourceCategoryPairs();
+
+    // Case-insensitive substring match on title or description; pattern is already lowercased and escaped
+    @Query("SELECT r.id FROM Resource r WHERE LOWER(r.title) LIKE :pattern ESCAPE '\\' OR LOWER(r.description) LIKE :pattern ESCAPE '\\'")
+    List<Long> findIdsByKeywordPattern(@Param("pattern") String pattern);
+
+    // (id, stored MinHash signature, title, description) for the similarity index
+    @Query("SELECT r.id, r.minhashSignature, r.title, r.description FROM Resource r")
+    List<Object[]> findAllForSimilarity();
+
+    @Query("SELECT r.id FROM Resource r WHERE r.uploaderId = :uploaderId")
+    List<Long> findIdsByUploaderId(@Param("uploaderId") Long uploaderId);
+
+    // Uploader dashboard page, newest first: (id, title, createdAt, views, downloads, ratingCount, ratingSum,
+    // favorites, comments) followed by the same sums over all of the uploader's resources (resource count first).
+    // One statement: idx_resources_uploader finds the rows, the per-resource counts are index lookups on
+    // resource_id, and the window sums run over the uploader's rows before LIMIT cuts the page.
+    @Query(value = "SELECT m.id, m.title, m.created_at, m.view_count, m.download_count, "
+            + "m.rating_count, m.rating_sum, m.favorite_count, m.comment_count, "
+            + "COUNT(*) OVER (), SUM(m.view_count) OVER (), SUM(m.download_count) OVER (), "
+            + "SUM(m.rating_count) OVER (), SUM(m.rating_sum) OVER (), "
+            + "SUM(m.favorite_count) OVER (), SUM(m.comment_count) OVER () "
+            + "FROM (SELECT r.id, r.title, r.created_at, "
+            + "COALESCE(r.view_count, 0) AS view_count, COALESCE(r.download_count, 0) AS download_count, "
+            + "(SELECT COUNT(*) FROM ratings x WHERE x.resource_id = r.id) AS rating_count, "
+            + "(SELECT COALESCE(SUM(x.rating_value), 0) FROM ratings x WHERE x.resource_id = r.id) AS rating_sum, "
+            + "(SELECT COUNT(*) FROM favorites f WHERE f.resource_id = r.id) AS favorite_count, "
+            + "(SELECT COUNT(*) FROM comments c WHERE c.resource_id = r.id) AS comment_count "
+            + "FROM resources r WHERE r.uploader_id = :uploaderId) m "
+            + "ORDER BY m.id DESC LIMIT :limit OFFSET :offset", nativeQuery = true)
+    List<Object[]> findDashboardPage(@Param("uploaderId") Long uploaderId,
+            @Param("limit") int limit, @Param("offset") int offset);
+
+    // Server-side cursor for the streamed resource list; consume inside a transaction
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "200"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r FROM Resource r ORDER BY r.id")
+    Stream<Resource> streamAllByOrderById();
+
+    // Server-side cursor over the whole catalog for export: (resource, ratingCount, commentCount, favoriteCount).
+    // Must be consumed inside a transaction; the fetch size keeps only one chunk of rows in memory.
+    @QueryHints({
+        @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+        @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT r, "
+            + "(SELECT COUNT(x) FROM Rating x WHERE x.resourceId = r.id), "
+            + "(SELECT COUNT(c) FROM Comment c WHERE c.resource = r), "
+            + "(SELECT COUNT(f) FROM Favorite f WHERE f.resource = r) "
+            + "FROM Resource r ORDER BY r.id")
+    Stream<Object[]> streamAllForExport();
+}
@@ -7,9 +7,11 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.example.demo.Entities.Tag;
 
+@Transactional(readOnly = true)
 @Repository
 public interface TagRepository extends JpaRepository<Tag, Long> {
     
@@ -4,6 +4,8 @@ import com.example.demo.Entities.User;
 import org.springframework.data.jpa.repository.JpaRepository;
 import java.util.Optional;
 
+// Not read-only, unlike the others: users are looked up right after the login that
+// created them, before a replica may have them
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByEmail(String email);
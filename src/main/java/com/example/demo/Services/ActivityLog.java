@@ -0,0 +1,199 @@
+package com.example.demo.Services;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only activity stream (resource_events, see activity_events.sql).
+ *
+ * Requests only {@link #record} into a fixed-size in-memory ring; a scheduled
+ * flush drains it every activity.flush-interval-ms and writes the events with
+ * one JDBC batch. The same transaction adds the flushed views and downloads
+ * to resources.view_count / download_count, one UPDATE per resource instead
+ * of one per request, so hot resources no longer serialise on their row.
+ *
+ * When the ring is full, new events are dropped and counted
+ * (activity.events.dropped) rather than making a request wait. Events still
+ * in the ring are lost if the JVM dies; a clean shutdown flushes them.
+ *
+ * resource_events is not an entity, so nothing creates it for us. Without
+ * it (activity_events.sql not loaded) only the counters are written, and if
+ * the event insert fails the counters are still written on their own, so
+ * views and downloads are never lost with the events.
+ */
+@Service
+public class ActivityLog {
+
+    private static final Logger log = LoggerFactory.getLogger(ActivityLog.class);
+
+    public enum Type {
+        VIEW(1), DOWNLOAD(2), RATE(3), FAVORITE(4), COMMENT(5);
+
+        public final int code;
+
+        Type(int code) {
+            this.code = code;
+        }
+
+        public static Type of(int code) {
+            return values()[code - 1];
+        }
+    }
+
+    private static final String INSERT_EVENT =
+            "INSERT INTO resource_events (resource_id, user_id, event_type, occurred_at) VALUES (?, ?, ?, ?)";
+    private static final String ADD_COUNTS =
+            "UPDATE resources SET view_count = view_count + ?, download_count = download_count + ? WHERE id = ?";
+
+    // The ring: parallel primitive arrays, so recording allocates nothing
+    private final long[] resourceIds;
+    private final long[] userIds;
+    private final byte[] types;
+    private final long[] times;
+    private int head;
+    private int size;
+
+    private volatile boolean eventsEnabled;
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityLog(
+            @Value("${activity.buffer-size:65536}") int capacity,
+            JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.resourceIds = new long[capacity];
+        this.userIds = new long[capacity];
+        this.types = new byte[capacity];
+        this.times = new long[capacity];
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        FunctionCounter.builder("activity.events.written", written, AtomicLong::get).register(meterRegistry);
+        FunctionCounter.builder("activity.events.dropped", dropped, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("activity.buffer.size", this, ActivityLog::buffered).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void checkTable() {
+        try {
+            jdbcTemplate.queryForList("SELECT resource_id FROM resource_events WHERE 1 = 0");
+            eventsEnabled = true;
+        } catch (DataAccessException e) {
+            log.warn("resource_events table not found, only view and download counts are kept "
+                    + "(load activity_events.sql for the event log and /stats)");
+        }
+    }
+
+    /** False when resource_events is missing and only the counters are written. */
+    public boolean eventsEnabled() {
+        return eventsEnabled;
+    }
+
+    // userId may be null (anonymous views and downloads)
+    public void record(Long resourceId, Long userId, Type type) {
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            if (size == resourceIds.length) {
+                dropped.incrementAndGet();
+                return;
+            }
+            int slot = (head + size) % resourceIds.length;
+            resourceIds[slot] = resourceId;
+            userIds[slot] = userId == null ? 0 : userId;
+            types[slot] = (byte) type.code;
+            times[slot] = now;
+            size++;
+        }
+    }
+
+    public synchronized int buffered() {
+        return size;
+    }
+
+    @Scheduled(fixedDelayString = "${activity.flush-interval-ms:1000}")
+    public void flush() {
+        List<Object[]> events;
+        synchronized (this) {
+            if (size == 0) {
+                return;
+            }
+            events = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                int slot = (head + i) % resourceIds.length;
+                events.add(new Object[] {
+                        resourceIds[slot],
+                        userIds[slot] == 0 ? null : userIds[slot],
+                        (short) types[slot],
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(times[slot]), ZoneOffset.UTC)
+                });
+            }
+            head = (head + size) % resourceIds.length;
+            size = 0;
+        }
+        write(events);
+    }
+
+    private void write(List<Object[]> events) {
+        // resourceId -> {views, downloads}
+        Map<Long, int[]> counts = new HashMap<>();
+        for (Object[] event : events) {
+            short type = (Short) event[2];
+            if (type == Type.VIEW.code || type == Type.DOWNLOAD.code) {
+                counts.computeIfAbsent((Long) event[0], k -> new int[2])[type == Type.VIEW.code ? 0 : 1]++;
+            }
+        }
+        List<Object[]> updates = new ArrayList<>(counts.size());
+        counts.forEach((resourceId, c) -> updates.add(new Object[] { c[0], c[1], resourceId }));
+        if (eventsEnabled) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(INSERT_EVENT, events);
+                    jdbcTemplate.batchUpdate(ADD_COUNTS, updates);
+                });
+                written.addAndGet(events.size());
+                return;
+            } catch (DataAccessException e) {
+                log.error("Activity flush failed, {} events dropped, writing the counters alone: {}",
+                        events.size(), e.getMessage());
+            }
+        }
+        dropped.addAndGet(events.size());
+        if (updates.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(ADD_COUNTS, updates));
+        } catch (DataAccessException e) {
+            log.error("View and download counts for {} resources lost: {}", updates.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.Services;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.DTO.ResourceStatsResponse;
+
+/**
+ * Hourly and daily rollups of the activity stream, and the stats queries
+ * that read them - never the raw events.
+ *
+ * Every run recomputes the hourly rows from an hour before the previous run
+ * onwards (delete, then INSERT ... SELECT ... GROUP BY), so it is idempotent
+ * and picks up events that were still in a node's buffer last time. The
+ * daily rows are rebuilt from the hourly ones for the days touched. On
+ * PostgreSQL a transaction-scoped advisory lock keeps nodes from rolling up
+ * at the same time, and each run makes sure next month's partition exists.
+ */
+@Service
+public class ActivityStats {
+
+    public enum Bucket {
+        HOUR(ChronoUnit.HOURS, "resource_event_hourly", 24 * 62),
+        DAY(ChronoUnit.DAYS, "resource_event_daily", 366 * 5);
+
+        final ChronoUnit unit;
+        final String table;
+        final int maxBuckets;
+
+        Bucket(ChronoUnit unit, String table, int maxBuckets) {
+            this.unit = unit;
+            this.table = table;
+            this.maxBuckets = maxBuckets;
+        }
+
+        public LocalDateTime floor(LocalDateTime time) {
+            return time.truncatedTo(unit);
+        }
+    }
+
+    private static final long ROLLUP_LOCK = 0x6163746976697479L; // "activity"
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ActivityLog activityLog;
+
+    @Value("${spring.datasource.url}")
+    private String url;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ActivityStats(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(cron = "${activity.rollup-cron:0 */5 * * * *}")
+    public void rollUp() {
+        activityLog.flush();
+        if (!activityLog.eventsEnabled()) {
+            return; // no event tables to roll up
+        }
+        boolean postgres = url.startsWith("jdbc:postgresql:");
+        if (postgres) {
+            jdbcTemplate.execute("SELECT ensure_resource_event_partitions()");
+        }
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        transactionTemplate.executeWithoutResult(status -> {
+            if (postgres && !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                    "SELECT pg_try_advisory_xact_lock(?)", Boolean.class, ROLLUP_LOCK))) {
+                return; // another node is on it
+            }
+            List<Timestamp> last = jdbcTemplate.queryForList(
+                    "SELECT rolled_up_to FROM resource_event_rollup_state WHERE id = 1", Timestamp.class);
+            LocalDateTime hourFrom = last.isEmpty()
+                    ? LocalDateTime.of(1970, 1, 1, 0, 0)
+                    : Bucket.HOUR.floor(last.get(0).toLocalDateTime().minusHours(1));
+            LocalDateTime dayFrom = Bucket.DAY.floor(hourFrom);
+
+            jdbcTemplate.update("DELETE FROM resource_event_hourly WHERE bucket_start >= ?", hourFrom);
+            jdbcTemplate.update("INSERT INTO resource_event_hourly (resource_id, event_type, bucket_start, event_count) "
+                    + "SELECT resource_id, event_type, DATE_TRUNC('hour', occurred_at), COUNT(*) "
+                    + "FROM resource_events WHERE occurred_at >= ? "
+                    + "GROUP BY resource_id, event_type, DATE_TRUNC('hour', occurred_at)", hourFrom);
+            jdbcTemplate.update("DELETE FROM resource_event_daily WHERE bucket_start >= ?", dayFrom);
+            jdbcTemplate.update("INSERT INTO resource_event_daily (resource_id, event_type, bucket_start, event_count) "
+                    + "SELECT resource_id, event_type, DATE_TRUNC('day', bucket_start), SUM(event_count) "
+                    + "FROM resource_event_hourly WHERE bucket_start >= ? "
+                    + "GROUP BY resource_id, event_type, DATE_TRUNC('day', bucket_start)", dayFrom);
+
+            if (last.isEmpty()) {
+                jdbcTemplate.update("INSERT INTO resource_event_rollup_state (id, rolled_up_to) VALUES (1, ?)", now);
+            } else {
+                jdbcTemplate.update("UPDATE resource_event_rollup_state SET rolled_up_to = ? WHERE id = 1", now);
+            }
+        });
+    }
+
+    /**
+     * One point per bucket in [from, to), empty buckets included. from is
+     * rounded down and to up to whole buckets.
+     */
+    public ResourceStatsResponse stats(Long resourceId, LocalDateTime from, LocalDateTime to, Bucket bucket) {
+        LocalDateTime start = bucket.floor(from);
+        LocalDateTime end = bucket.floor(to).equals(to) ? to : bucket.floor(to).plus(1, bucket.unit);
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        if (bucket.unit.between(start, end) > bucket.maxBuckets) {
+            throw new IllegalArgumentException("At most " + bucket.maxBuckets + " " + bucket.name().toLowerCase()
+                    + " buckets per request");
+        }
+
+        ResourceStatsResponse response = new ResourceStatsResponse();
+        response.resourceId = resourceId;
+        response.bucket = bucket.name().toLowerCase();
+        response.from = start;
+        response.to = end;
+        Map<LocalDateTime, ResourceStatsResponse.Point> points = new TreeMap<>();
+        for (LocalDateTime t = start; t.isBefore(end); t = t.plus(1, bucket.unit)) {
+            ResourceStatsResponse.Point point = new ResourceStatsResponse.Point(t);
+            points.put(t, point);
+            response.series.add(point);
+        }
+
+        jdbcTemplate.query("SELECT bucket_start, event_type, event_count FROM " + bucket.table
+                + " WHERE resource_id = ? AND bucket_start >= ? AND bucket_start < ?", rs -> {
+                    ResourceStatsResponse.Point point = points.get(rs.getTimestamp(1).toLocalDateTime());
+                    if (point != null) {
+                        ActivityLog.Type type = ActivityLog.Type.of(rs.getInt(2));
+                        long count = rs.getLong(3);
+                        add(point, type, count);
+                        add(response.totals, type, count);
+                    }
+                }, resourceId, start, end);
+        return response;
+    }
+
+    private static void add(ResourceStatsResponse.Counts counts, ActivityLog.Type type, long count) {
+        switch (type) {
+            case VIEW -> counts.views += count;
+            case DOWNLOAD -> counts.downloads += count;
+            case RATE -> counts.ratings += count;
+            case FAVORITE -> counts.favorites += count;
+            case COMMENT -> counts.comments += count;
+        }
+    }
+}
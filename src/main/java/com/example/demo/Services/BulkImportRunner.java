@@ -0,0 +1,61 @@
+package com.example.demo.Services;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import com.example.demo.Entities.User;
+import com.example.demo.Repositories.UserRepository;
+
+/**
+ * Command-line bulk import. Runs only when --import.manifest is given, then exits:
+ *
+ *   java -jar demo.jar --import.manifest=catalog.ndjson --import.files=./incoming \
+ *        --import.uploader=teacher@example.com [--import.require-files=false]
+ */
+@Component
+@ConditionalOnProperty("import.manifest")
+public class BulkImportRunner implements ApplicationRunner {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        Path manifest = Paths.get(context.getEnvironment().getRequiredProperty("import.manifest"));
+        String files = context.getEnvironment().getProperty("import.files");
+        String uploader = context.getEnvironment().getProperty("import.uploader", "import@example.com");
+        boolean requireFiles = context.getEnvironment().getProperty("import.require-files", Boolean.class, true);
+
+        User user = userRepository.findByEmail(uploader)
+                .orElseGet(() -> {
+                    User newUser = new User();
+                    newUser.email = uploader;
+                    newUser.name = "Bulk Import";
+                    return userRepository.save(newUser);
+                });
+
+        int exitCode;
+        try (InputStream in = Files.newInputStream(manifest)) {
+            BulkImportService.ImportReport report = bulkImportService.importManifest(
+                    in, files == null ? null : Paths.get(files), user.id, requireFiles);
+            report.errors.forEach(error -> System.out.println("  " + error));
+            exitCode = report.failed == 0 ? 0 : 2;
+        }
+        int code = exitCode;
+        System.exit(SpringApplication.exit(context, () -> code));
+    }
+}
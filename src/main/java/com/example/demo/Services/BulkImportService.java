@@ -0,0 +1,371 @@
+package com.example.demo.Services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Streaming bulk import of resources.
+ *
+ * The manifest is read with Jackson's streaming parser one row at a time, so
+ * memory stays flat regardless of manifest size. Accepted shapes:
+ *   - NDJSON (one resource object per line)
+ *   - a JSON array of resource objects
+ *   - an object with a "resources" array (e.g. mockup_data.json)
+ * Row fields: title, description, file|filePath, categories, tags (strings or
+ * {"name": ...} objects), optional viewCount/downloadCount.
+ *
+ * Rows are grouped into batches. Per batch, tag/category names are resolved
+ * with one query each, ids are pre-allocated from the table sequences, and
+ * resources plus join rows are written with JDBC batch inserts - the entities
+ * use GenerationType.IDENTITY, which rules out Hibernate insert batching.
+ * A failing batch is retried row by row so one bad row doesn't sink the rest.
+ *
+ * Row files must be relative paths that stay inside filesDir; absolute paths
+ * and ../ escapes are rejected, with or without requireFiles. Over HTTP,
+ * filesDir itself must be inside import.root (see {@link #filesDirUnderRoot}).
+ */
+@Service
+public class BulkImportService {
+
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Autowired
+    private StorageService storageService;
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private SimilarityIndex similarityIndex;
+    @Autowired
+    private TagGraph tagGraph;
+    @Autowired
+    private QueryCache queryCache;
+    @Autowired
+    private ChangeVersions changeVersions;
+
+    @Value("${import.batch-size:500}")
+    private int batchSize;
+
+    // The only server directory HTTP imports may read files from; empty = none
+    @Value("${import.root:}")
+    private String importRoot;
+
+    public static class ImportReport {
+        public long imported;
+        public long failed;
+        public long elapsedMillis;
+        public double rowsPerSecond;
+        public List<Map<String, Object>> errors = new ArrayList<>();
+
+        void error(long row, String title, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("row", row);
+                error.put("title", title);
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+    }
+
+    // One parsed manifest row, after its file has been copied into storage
+    static class PendingRow {
+        long rowNumber;
+        long id;
+        String title;
+        String description;
+        String storedFile;
+        int viewCount;
+        int downloadCount;
+        byte[] signature;
+        Set<String> tags = new LinkedHashSet<>();
+        Set<String> categories = new LinkedHashSet<>();
+    }
+
+    /**
+     * Resolves a filesDir sent over HTTP against import.root. Throws
+     * IllegalArgumentException when no root is configured or the directory
+     * is outside it.
+     */
+    public Path filesDirUnderRoot(String filesDir) {
+        if (importRoot.isBlank()) {
+            throw new IllegalArgumentException("No import.root configured; import files with --import.files instead");
+        }
+        Path root = Paths.get(importRoot).toAbsolutePath().normalize();
+        Path dir;
+        try {
+            dir = root.resolve(filesDir).normalize();
+        } catch (InvalidPathException e) {
+            throw new IllegalArgumentException("Invalid filesDir: " + filesDir);
+        }
+        if (!dir.startsWith(root)) {
+            throw new IllegalArgumentException("filesDir must be inside the import root");
+        }
+        return dir;
+    }
+
+    /**
+     * @param filesDir directory the manifest's file paths are relative to
+     * @param requireFiles when false, rows whose file is missing keep the
+     *        manifest path as-is instead of failing (useful for seeding)
+     */
+    public ImportReport importManifest(InputStream manifest, Path filesDir, Long uploaderId, boolean requireFiles)
+            throws IOException {
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        long rowNumber = 0;
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(manifest)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                token = parser.nextToken();
+            } else if (token == JsonToken.START_OBJECT) {
+                // Either a wrapper with a "resources" array or the first NDJSON row;
+                // buffer fields until we know which
+                ObjectNode first = objectMapper.createObjectNode();
+                boolean wrapper = false;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("resources".equals(field) && value == JsonToken.START_ARRAY) {
+                        wrapper = true;
+                        break;
+                    }
+                    first.set(field, objectMapper.readTree(parser));
+                }
+                if (!wrapper) {
+                    rowNumber++;
+                    addRow(batch, toRow(first, rowNumber, filesDir, requireFiles, report), uploaderId, report);
+                }
+                token = parser.nextToken();
+            }
+
+            while (token == JsonToken.START_OBJECT) {
+                rowNumber++;
+                JsonNode node = objectMapper.readTree(parser);
+                addRow(batch, toRow(node, rowNumber, filesDir, requireFiles, report), uploaderId, report);
+                token = parser.nextToken();
+            }
+        }
+        flush(batch, uploaderId, report);
+
+        // Imported rows bypass the entity layer, so rebuild the derived in-memory indexes once
+        if (report.imported > 0) {
+            resourceIndex.rebuild();
+            tagGraph.rebuild();
+            similarityIndex.rebuild();
+            queryCache.catalogChanged();
+            changeVersions.catalogImported();
+        }
+
+        report.elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        report.rowsPerSecond = report.elapsedMillis == 0 ? report.imported
+                : report.imported * 1000.0 / report.elapsedMillis;
+        System.out.println("Bulk import finished: " + report.imported + " imported, " + report.failed
+                + " failed in " + report.elapsedMillis + " ms (" + Math.round(report.rowsPerSecond) + " rows/s)");
+        return report;
+    }
+
+    private void addRow(List<PendingRow> batch, PendingRow row, Long uploaderId, ImportReport report) {
+        if (row != null) {
+            batch.add(row);
+        }
+        if (batch.size() >= batchSize) {
+            flush(batch, uploaderId, report);
+        }
+    }
+
+    private PendingRow toRow(JsonNode node, long rowNumber, Path filesDir, boolean requireFiles, ImportReport report) {
+        String title = node.path("title").asText(null);
+        if (title == null || title.isBlank()) {
+            report.error(rowNumber, title, "Missing title");
+            return null;
+        }
+        String file = node.hasNonNull("file") ? node.get("file").asText() : node.path("filePath").asText(null);
+        if (file == null || file.isBlank()) {
+            report.error(rowNumber, title, "Missing file");
+            return null;
+        }
+
+        PendingRow row = new PendingRow();
+        row.rowNumber = rowNumber;
+        row.title = title;
+        row.description = node.path("description").asText(null);
+        row.viewCount = node.path("viewCount").asInt(0);
+        row.downloadCount = node.path("downloadCount").asInt(0);
+        names(node.path("tags"), row.tags);
+        names(node.path("categories"), row.categories);
+
+        // Relative and inside filesDir, also when the path is stored as-is below
+        Path relative;
+        try {
+            relative = Paths.get(file).normalize();
+        } catch (InvalidPathException e) {
+            report.error(rowNumber, title, "Invalid file path: " + file);
+            return null;
+        }
+        if (relative.isAbsolute() || relative.getRoot() != null || relative.startsWith("..")) {
+            report.error(rowNumber, title, "File path must stay inside the files directory: " + file);
+            return null;
+        }
+
+        Path source = filesDir == null ? null : filesDir.resolve(relative).normalize();
+        if (source != null && source.startsWith(filesDir.normalize()) && Files.isRegularFile(source)) {
+            try {
+                row.storedFile = storageService.store(source);
+            } catch (RuntimeException e) {
+                report.error(rowNumber, title, e.getMessage());
+                return null;
+            }
+        } else if (requireFiles) {
+            report.error(rowNumber, title, "File not found: " + file);
+            return null;
+        } else {
+            row.storedFile = relative.toString();
+        }
+
+        int[] signature = SimilarityIndex.signatureOf(row.title, row.description,
+                storageService.readTextPrefix(row.storedFile, 64 * 1024));
+        row.signature = signature == null ? null : SimilarityIndex.encode(signature);
+        return row;
+    }
+
+    private static void names(JsonNode values, Set<String> into) {
+        for (JsonNode value : values) {
+            String name = value.isObject() ? value.path("name").asText(null) : value.asText(null);
+            if (name != null && !name.isBlank()) {
+                into.add(name.trim());
+            }
+        }
+    }
+
+    private void flush(List<PendingRow> batch, Long uploaderId, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> insertBatch(batch, uploaderId));
+            report.imported += batch.size();
+        } catch (DataAccessException batchFailure) {
+            // Isolate the bad rows: retry one by one, each in its own transaction
+            for (PendingRow row : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(List.of(row), uploaderId));
+                    report.imported++;
+                } catch (DataAccessException e) {
+                    report.error(row.rowNumber, row.title, e.getMostSpecificCause().getMessage());
+                }
+            }
+        }
+        batch.clear();
+    }
+
+    private void insertBatch(List<PendingRow> rows, Long uploaderId) {
+        Set<String> tagNames = new LinkedHashSet<>();
+        Set<String> categoryNames = new LinkedHashSet<>();
+        for (PendingRow row : rows) {
+            tagNames.addAll(row.tags);
+            categoryNames.addAll(row.categories);
+        }
+        Map<String, Long> tagIds = resolveNames("tags", tagNames, uploaderId);
+        Map<String, Long> categoryIds = resolveNames("categories", categoryNames, uploaderId);
+
+        List<Long> ids = allocateIds("resources", rows.size());
+        List<Object[]> resourceArgs = new ArrayList<>(rows.size());
+        List<Object[]> tagArgs = new ArrayList<>();
+        List<Object[]> categoryArgs = new ArrayList<>();
+        Map<Long, Integer> tagUsage = new HashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            PendingRow row = rows.get(i);
+            row.id = ids.get(i);
+            resourceArgs.add(new Object[] { row.id, row.title, row.description, row.storedFile, uploaderId,
+                    row.viewCount, row.downloadCount, row.signature });
+            for (String tag : row.tags) {
+                Long tagId = tagIds.get(tag);
+                tagArgs.add(new Object[] { row.id, tagId });
+                tagUsage.merge(tagId, 1, Integer::sum);
+            }
+            for (String category : row.categories) {
+                categoryArgs.add(new Object[] { row.id, categoryIds.get(category) });
+            }
+        }
+
+        jdbcTemplate.batchUpdate("INSERT INTO resources (id, title, description, file_path, uploader_id, "
+                + "view_count, download_count, minhash_signature) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", resourceArgs);
+        jdbcTemplate.batchUpdate("INSERT INTO resource_tags (resource_id, tag_id) VALUES (?, ?) ON CONFLICT DO NOTHING", tagArgs);
+        jdbcTemplate.batchUpdate("INSERT INTO resource_categories (resource_id, category_id) VALUES (?, ?) ON CONFLICT DO NOTHING", categoryArgs);
+        List<Object[]> usageArgs = new ArrayList<>();
+        tagUsage.forEach((tagId, count) -> usageArgs.add(new Object[] { count, tagId }));
+        jdbcTemplate.batchUpdate("UPDATE tags SET usage_count = COALESCE(usage_count, 0) + ? WHERE id = ?", usageArgs);
+    }
+
+    // Looks up names in one query, inserts the missing ones in one batch; returns name -> id
+    private Map<String, Long> resolveNames(String table, Set<String> names, Long uploaderId) {
+        Map<String, Long> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+        namedJdbcTemplate.query("SELECT id, name FROM " + table + " WHERE name IN (:names)",
+                new MapSqlParameterSource("names", names),
+                rs -> { ids.put(rs.getString("name"), rs.getLong("id")); });
+
+        List<String> missing = names.stream().filter(name -> !ids.containsKey(name)).toList();
+        if (missing.isEmpty()) {
+            return ids;
+        }
+        List<Long> newIds = allocateIds(table, missing.size());
+        List<Object[]> args = new ArrayList<>(missing.size());
+        for (int i = 0; i < missing.size(); i++) {
+            ids.put(missing.get(i), newIds.get(i));
+            args.add("tags".equals(table)
+                    ? new Object[] { newIds.get(i), missing.get(i), uploaderId }
+                    : new Object[] { newIds.get(i), missing.get(i) });
+        }
+        jdbcTemplate.batchUpdate("tags".equals(table)
+                ? "INSERT INTO tags (id, name, is_predefined, created_by, usage_count) VALUES (?, ?, FALSE, ?, 0)"
+                : "INSERT INTO categories (id, name) VALUES (?, ?)", args);
+        return ids;
+    }
+
+    // Pulls a block of ids from the table's identity/serial sequence in one round trip
+    private List<Long> allocateIds(String table, int count) {
+        return jdbcTemplate.queryForList(
+                "SELECT nextval(pg_get_serial_sequence(?, 'id')) FROM generate_series(1, ?)",
+                Long.class, table, count);
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.demo.Services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.Entities.Resource;
+import com.example.demo.Repositories.ResourceRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes the whole catalog as NDJSON or CSV with a flat heap footprint.
+ *
+ * Rows come off a server-side cursor (fetch size 500) inside a read-only
+ * transaction; each entity is detached as soon as it has been written so the
+ * persistence context never grows. Tag and category names come from the
+ * in-memory ResourceIndex instead of lazy collections, which would otherwise
+ * cost two extra queries per row.
+ */
+@Service
+public class CatalogExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    static final String[] CSV_COLUMNS = {
+        "id", "title", "description", "filePath", "uploaderId", "averageRating", "viewCount",
+        "downloadCount", "ratingCount", "commentCount", "favoriteCount", "tags", "categories", "createdAt"
+    };
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    public CatalogExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public long export(OutputStream out, Format format) {
+        Long count = readOnlyTransaction.execute(status -> {
+            try (Stream<Object[]> rows = resourceRepository.streamAllForExport()) {
+                return format == Format.CSV ? writeCsv(rows, out) : writeNdjson(rows, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return count == null ? 0 : count;
+    }
+
+    private long writeNdjson(Stream<Object[]> rows, OutputStream out) throws IOException {
+        long count = 0;
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.setRootValueSeparator(null);
+            for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+                Resource r = (Resource) row[0];
+                json.writeStartObject();
+                json.writeNumberField("id", r.id);
+                json.writeStringField("title", r.title);
+                json.writeStringField("description", r.description);
+                json.writeStringField("filePath", r.filePath);
+                json.writeNumberField("uploaderId", r.uploaderId);
+                writeNumberOrNull(json, "averageRating", r.averageRating);
+                writeNumberOrNull(json, "viewCount", r.viewCount);
+                writeNumberOrNull(json, "downloadCount", r.downloadCount);
+                json.writeNumberField("ratingCount", (Long) row[1]);
+                json.writeNumberField("commentCount", (Long) row[2]);
+                json.writeNumberField("favoriteCount", (Long) row[3]);
+                writeArray(json, "tags", resourceIndex.tagNamesOf(r.id));
+                writeArray(json, "categories", resourceIndex.categoryNamesOf(r.id));
+                json.writeStringField("createdAt", r.createdAt == null ? null : r.createdAt.toString());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                entityManager.detach(r);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Stream<Object[]> rows, OutputStream out) throws IOException {
+        long count = 0;
+        Writer csv = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        csv.write(String.join(",", CSV_COLUMNS));
+        csv.write('\n');
+        for (Object[] row : (Iterable<Object[]>) rows::iterator) {
+            Resource r = (Resource) row[0];
+            Object[] values = {
+                r.id, r.title, r.description, r.filePath, r.uploaderId, r.averageRating, r.viewCount,
+                r.downloadCount, row[1], row[2], row[3],
+                String.join(";", resourceIndex.tagNamesOf(r.id)),
+                String.join(";", resourceIndex.categoryNamesOf(r.id)),
+                r.createdAt
+            };
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) csv.write(',');
+                csv.write(csvField(values[i]));
+            }
+            csv.write('\n');
+            entityManager.detach(r);
+            count++;
+        }
+        csv.flush();
+        return count;
+    }
+
+    private static void writeNumberOrNull(JsonGenerator json, String field, Number value) throws IOException {
+        if (value == null) {
+            json.writeNullField(field);
+        } else if (value instanceof Double d) {
+            json.writeNumberField(field, d);
+        } else {
+            json.writeNumberField(field, value.longValue());
+        }
+    }
+
+    private static void writeArray(JsonGenerator json, String field, List<String> values) throws IOException {
+        json.writeArrayFieldStart(field);
+        for (String value : values) {
+            json.writeString(value);
+        }
+        json.writeEndArray();
+    }
+
+    // RFC 4180: quote when the value contains a separator, quote or newline
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
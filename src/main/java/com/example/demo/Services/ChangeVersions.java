@@ -0,0 +1,271 @@
+package com.example.demo.Services;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.Entities.Category;
+import com.example.demo.Entities.Comment;
+import com.example.demo.Entities.Favorite;
+import com.example.demo.Entities.Rating;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+import com.example.demo.Entities.User;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Modification counters behind the ETags of the JSON read endpoints, so a
+ * conditional GET can be answered with 304 before any query runs.
+ *
+ * Counters: the whole catalog (anything embedded in a Resource entity), tags,
+ * categories, and one per resource (the resource row, its comments,
+ * favorites and ratings). They are bumped by Hibernate event listeners after
+ * the writing transaction commits; a reader takes the version before it
+ * loads, so a version is never paired with data older than it. Writes that
+ * bypass the entity layer (bulk import, view counts) bump explicitly or not
+ * at all - see {@link #catalogImported()}.
+ *
+ * Counters live in memory and start again at zero on restart, so every ETag
+ * carries the boot time as well. Writes made by other nodes arrive through
+ * InvalidationBus and bump the same counters; when notifications may have
+ * been missed, {@link #resync()} moves every ETag on at once.
+ *
+ * NearCache keys its entries by these ETags, so a cached body lives exactly
+ * as long as its ETag. The same committed changes mark ResourceCards stale.
+ */
+@Service
+public class ChangeVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong catalog = new AtomicLong();
+    private final AtomicLong tags = new AtomicLong();
+    private final AtomicLong categories = new AtomicLong();
+    private final Map<Long, Long> resources = new ConcurrentHashMap<>();
+
+    private static final Set<String> COUNTERS = Set.of("viewCount", "downloadCount", "usageCount");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private ResourceCards resourceCards;
+
+    @PostConstruct
+    void registerListeners() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        Listener listener = new Listener();
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    // Weak ETags: view counts are in the bodies but not in the versions
+    public String catalogETag() {
+        return "W/\"" + stamp() + ".c" + catalog.get() + "\"";
+    }
+
+    public String tagsETag() {
+        return "W/\"" + stamp() + ".t" + tags.get() + "\"";
+    }
+
+    public String categoriesETag() {
+        return "W/\"" + stamp() + ".g" + categories.get() + "\"";
+    }
+
+    // viewer distinguishes the favorite flag of a logged-in user from the anonymous body
+    public String resourceETag(Long resourceId, String viewer) {
+        return "W/\"" + stamp() + ".r" + resourceId + "." + resources.getOrDefault(resourceId, 0L)
+                + "." + tags.get() + "." + categories.get()
+                + (viewer == null ? "" : ".u" + Integer.toHexString(viewer.hashCode())) + "\"";
+    }
+
+    private String stamp() {
+        return epoch + "-" + generation.get();
+    }
+
+    // Another node changed these resources (or their comments, favorites, ratings, tags or categories)
+    public void resourcesChanged(long[] resourceIds) {
+        for (long resourceId : resourceIds) {
+            resources.merge(resourceId, 1L, Long::sum);
+        }
+        catalog.incrementAndGet();
+    }
+
+    public void tagsChanged() {
+        tags.incrementAndGet();
+        catalog.incrementAndGet();
+    }
+
+    public void categoriesChanged() {
+        categories.incrementAndGet();
+        catalog.incrementAndGet();
+    }
+
+    // Changes may have gone unseen (listener reconnected, or too many to list): invalidate everything
+    public void resync() {
+        generation.incrementAndGet();
+    }
+
+    // Bulk import writes with plain JDBC, so no listener sees it. It only inserts
+    // resources, but bumps tag usage counts and may add categories.
+    public void catalogImported() {
+        catalog.incrementAndGet();
+        tags.incrementAndGet();
+        categories.incrementAndGet();
+    }
+
+    // countsOnly: an update that only moved view, download or tag usage counts
+    private void changed(Object entity, Object id, boolean inserted, boolean countsOnly, EventSource session) {
+        Long resourceId = null;
+        boolean tagChange = false;
+        boolean categoryChange = false;
+        if (entity instanceof Resource resource) {
+            resourceId = id instanceof Long l ? l : resource.id;
+        } else if (entity instanceof Comment comment) {
+            resourceId = idOf(comment.resource);
+        } else if (entity instanceof Favorite favorite) {
+            resourceId = idOf(favorite.resource);
+        } else if (entity instanceof Rating rating) {
+            resourceId = rating.resourceId;
+        } else if (entity instanceof Tag) {
+            tagChange = true;
+        } else if (entity instanceof Category) {
+            categoryChange = true;
+        } else if (!(entity instanceof User) || inserted) {
+            // A new user is not in any body yet; a renamed one is, as a comment/favorite author
+            return;
+        }
+
+        Long changedResource = resourceId;
+        boolean changedTags = tagChange;
+        boolean changedCategories = categoryChange;
+        session.getActionQueue().registerProcess((success, s) -> {
+            if (!success) {
+                return;
+            }
+            if (changedResource != null) {
+                resources.merge(changedResource, 1L, Long::sum);
+            }
+            if (changedTags) {
+                tags.incrementAndGet();
+            }
+            if (changedCategories) {
+                categories.incrementAndGet();
+            }
+            catalog.incrementAndGet();
+            if (!countsOnly) {
+                cardsChanged(entity, id, changedResource);
+            }
+        });
+    }
+
+    // Counters are left to the cards' max age, like the weak ETags leave them out
+    private void cardsChanged(Object entity, Object id, Long resourceId) {
+        if (resourceId != null) {
+            resourceCards.resourceChanged(resourceId);
+        } else if (entity instanceof Tag tag) {
+            resourceCards.tagChanged(id instanceof Long l ? l : tag.id);
+        } else if (entity instanceof Category category) {
+            resourceCards.categoryChanged(id instanceof Long l ? l : category.id);
+        } else if (entity instanceof User) {
+            resourceCards.everythingChanged();
+        }
+    }
+
+    private static boolean countsOnly(PostUpdateEvent event) {
+        int[] dirty = event.getDirtyProperties();
+        if (dirty == null || dirty.length == 0) {
+            return false;
+        }
+        String[] names = event.getPersister().getPropertyNames();
+        for (int property : dirty) {
+            if (!COUNTERS.contains(names[property])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Long idOf(Resource resource) {
+        if (resource instanceof HibernateProxy proxy) {
+            return (Long) proxy.getHibernateLazyInitializer().getIdentifier();
+        }
+        return resource == null ? null : resource.id;
+    }
+
+    private final class Listener implements PostInsertEventListener, PostUpdateEventListener,
+            PostDeleteEventListener, PostCollectionRecreateEventListener, PostCollectionUpdateEventListener,
+            PostCollectionRemoveEventListener {
+
+        @Override
+        public void onPostInsert(PostInsertEvent event) {
+            changed(event.getEntity(), event.getId(), true, false, event.getSession());
+        }
+
+        @Override
+        public void onPostUpdate(PostUpdateEvent event) {
+            changed(event.getEntity(), event.getId(), false, countsOnly(event), event.getSession());
+        }
+
+        @Override
+        public void onPostDelete(PostDeleteEvent event) {
+            changed(event.getEntity(), event.getId(), false, false, event.getSession());
+        }
+
+        @Override
+        public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+            collectionChanged(event);
+        }
+
+        @Override
+        public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+            collectionChanged(event);
+        }
+
+        @Override
+        public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+            collectionChanged(event);
+        }
+
+        private void collectionChanged(AbstractCollectionEvent event) {
+            if (event.getAffectedOwnerOrNull() != null) {
+                changed(event.getAffectedOwnerOrNull(), event.getAffectedOwnerIdOrNull(), false, false,
+                        event.getSession());
+            }
+        }
+
+        @Override
+        public boolean requiresPostCommitHandling(EntityPersister persister) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.demo.Services;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Hands the file transfer to the front proxy, so a large download does not
+ * hold a request thread for as long as the client takes to receive it. See
+ * nginx/downloads.conf.
+ *
+ * With downloads.offload=x-accel (nginx) or x-sendfile (Apache, lighttpd),
+ * /download/{filename} still goes through the filter chain and the
+ * controller, but answers with only a header naming the file. The proxy
+ * sends the bytes with sendfile().
+ *
+ * With downloads.signing-secret set, /{id}/download-link counts the download
+ * and returns a URL under downloads.public-location that expires after
+ * downloads.link-ttl-seconds. The proxy checks it with the secure_link
+ * module and serves the file without calling the application. The
+ * signature is nginx's secure_link_md5 format: base64url(md5(expires + uri
+ * + " " + secret)). Anyone with the secret can make links, so it is shared
+ * only with the proxy.
+ */
+@Service
+public class DownloadOffload {
+
+    public enum Mode {
+        NONE(null), X_ACCEL("X-Accel-Redirect"), X_SENDFILE("X-Sendfile");
+
+        public final String header;
+
+        Mode(String header) {
+            this.header = header;
+        }
+    }
+
+    public record Link(String url, Instant expiresAt) {
+    }
+
+    private final Mode mode;
+    private final String accelLocation;
+    private final String publicLocation;
+    private final String signingSecret;
+    private final long linkTtlSeconds;
+
+    public DownloadOffload(
+            @Value("${downloads.offload:none}") String mode,
+            @Value("${downloads.accel-location:/protected-uploads/}") String accelLocation,
+            @Value("${downloads.public-location:/files/}") String publicLocation,
+            @Value("${downloads.signing-secret:}") String signingSecret,
+            @Value("${downloads.link-ttl-seconds:300}") long linkTtlSeconds) {
+        this.mode = Mode.valueOf(mode.trim().toUpperCase().replace('-', '_'));
+        this.accelLocation = accelLocation.endsWith("/") ? accelLocation : accelLocation + "/";
+        this.publicLocation = publicLocation.endsWith("/") ? publicLocation : publicLocation + "/";
+        this.signingSecret = signingSecret;
+        this.linkTtlSeconds = linkTtlSeconds;
+        if (!signingSecret.isEmpty() && signingSecret.length() < 16) {
+            throw new IllegalStateException("downloads.signing-secret must be at least 16 characters");
+        }
+    }
+
+    public boolean offloading() {
+        return mode != Mode.NONE;
+    }
+
+    public boolean signing() {
+        return !signingSecret.isEmpty();
+    }
+
+    public String header() {
+        return mode.header;
+    }
+
+    // nginx maps the internal location onto the upload directory; the other servers take the path itself
+    public String headerValue(Path file) {
+        return mode == Mode.X_ACCEL
+                ? accelLocation + UriUtils.encodePathSegment(file.getFileName().toString(), StandardCharsets.UTF_8)
+                : file.toAbsolutePath().toString();
+    }
+
+    public Link signedLink(String filename, Instant now) {
+        long expires = now.getEpochSecond() + linkTtlSeconds;
+        String signature = sign(expires, publicLocation + filename);
+        return new Link(publicLocation + UriUtils.encodePathSegment(filename, StandardCharsets.UTF_8)
+                + "?md5=" + signature + "&expires=" + expires, Instant.ofEpochSecond(expires));
+    }
+
+    // uri is the decoded path, as nginx's $uri
+    String sign(long expires, String uri) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5")
+                    .digest((expires + uri + " " + signingSecret).getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
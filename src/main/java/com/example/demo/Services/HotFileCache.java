@@ -0,0 +1,292 @@
+package com.example.demo.Services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Off-heap copies of the small files that are downloaded most, consulted by
+ * StorageService.loadAsResource before it goes to disk.
+ *
+ * A file is read into a direct ByteBuffer on its hotfiles.min-requests-th
+ * request within ten minutes, if it is at most hotfiles.max-file-bytes.
+ * Caffeine then decides what stays: its TinyLFU policy only lets a new file
+ * push out an old one if it has been asked for more often. Every entry weighs
+ * at least max-bytes / max-files, so there are never more than max-files of
+ * them. Direct memory is returned when the GC collects an evicted buffer,
+ * so -XX:MaxDirectMemorySize needs some headroom above hotfiles.max-bytes.
+ *
+ * Stored files never change in place (names are unique), but someone may
+ * replace or delete one on disk: a cached file whose size or modification
+ * time differs at the next check, at most every hotfiles.revalidate-ms, is
+ * dropped and read again. Loads of the same file share one read through
+ * SingleFlight. Bodies are copied from the buffer straight into the
+ * response's output buffer, without a per-file byte[] on the heap.
+ *
+ * Metrics: hotfiles.requests{result=hit|miss}, hotfiles.hit-ratio,
+ * hotfiles.bytes-served, hotfiles.files and hotfiles.bytes.
+ */
+@Service
+public class HotFileCache {
+
+    private static final class Entry {
+        final ByteBuffer bytes;
+        final long size;
+        final long modified;
+        volatile long checkedAt;
+
+        Entry(ByteBuffer bytes, long size, long modified, long checkedAt) {
+            this.bytes = bytes;
+            this.size = size;
+            this.modified = modified;
+            this.checkedAt = checkedAt;
+        }
+    }
+
+    private final Cache<String, Entry> files;
+    // Recent requests per file that is not cached yet
+    private final Cache<String, AtomicInteger> seen;
+    private final SingleFlight singleFlight;
+    private final boolean enabled;
+    private final long maxFileBytes;
+    private final int minRequests;
+    private final long revalidateMs;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesServed = new LongAdder();
+
+    public HotFileCache(
+            @Value("${hotfiles.max-bytes:67108864}") long maxBytes,
+            @Value("${hotfiles.max-files:1000}") int maxFiles,
+            @Value("${hotfiles.max-file-bytes:1048576}") long maxFileBytes,
+            @Value("${hotfiles.min-requests:2}") int minRequests,
+            @Value("${hotfiles.revalidate-ms:1000}") long revalidateMs,
+            SingleFlight singleFlight,
+            MeterRegistry meterRegistry) {
+        this.enabled = maxBytes > 0 && maxFiles > 0;
+        this.maxFileBytes = Math.min(Math.min(maxFileBytes, maxBytes), Integer.MAX_VALUE);
+        this.minRequests = Math.max(minRequests, 1);
+        this.revalidateMs = revalidateMs;
+        this.singleFlight = singleFlight;
+        long slot = Math.max(maxBytes / Math.max(maxFiles, 1), 1);
+        this.files = Caffeine.newBuilder()
+                .maximumWeight(Math.max(maxBytes, 0))
+                .weigher((String key, Entry entry) -> (int) Math.min(Math.max(entry.size, slot), Integer.MAX_VALUE))
+                // Evict on the caller's thread, so the direct memory bound holds right after a put
+                .executor(Runnable::run)
+                .build();
+        this.seen = Caffeine.newBuilder()
+                .maximumSize(Math.max(maxFiles, 1) * 10L)
+                .expireAfterWrite(Duration.ofMinutes(10))
+                .build();
+
+        FunctionCounter.builder("hotfiles.requests", hits, LongAdder::sum).tag("result", "hit").register(meterRegistry);
+        FunctionCounter.builder("hotfiles.requests", misses, LongAdder::sum).tag("result", "miss").register(meterRegistry);
+        FunctionCounter.builder("hotfiles.bytes-served", bytesServed, LongAdder::sum).baseUnit("bytes").register(meterRegistry);
+        Gauge.builder("hotfiles.hit-ratio", this, HotFileCache::hitRatio).register(meterRegistry);
+        Gauge.builder("hotfiles.files", files, Cache::estimatedSize).register(meterRegistry);
+        Gauge.builder("hotfiles.bytes", this, HotFileCache::cachedBytes).baseUnit("bytes").register(meterRegistry);
+    }
+
+    /** The file served from memory, or null if it is not (yet) cached and the caller should read it from disk. */
+    public Resource get(Path file) {
+        if (!enabled) {
+            return null;
+        }
+        String key = file.toString();
+        Entry entry = files.getIfPresent(key);
+        if (entry != null) {
+            if (unchanged(file, entry)) {
+                hits.increment();
+                return new CachedFile(file, entry);
+            }
+            files.asMap().remove(key, entry);
+        }
+        misses.increment();
+
+        BasicFileAttributes attributes = attributes(file);
+        if (attributes == null || !attributes.isRegularFile() || attributes.size() > maxFileBytes || !admit(key)) {
+            return null;
+        }
+        Entry loaded = singleFlight.coalesce("hotfiles", key, () -> load(file, attributes));
+        if (loaded == null) {
+            return null;
+        }
+        files.put(key, loaded);
+        seen.invalidate(key);
+        return new CachedFile(file, loaded);
+    }
+
+    private boolean admit(String key) {
+        return seen.get(key, k -> new AtomicInteger()).incrementAndGet() >= minRequests;
+    }
+
+    private boolean unchanged(Path file, Entry entry) {
+        long now = System.currentTimeMillis();
+        if (now - entry.checkedAt < revalidateMs) {
+            return true;
+        }
+        BasicFileAttributes attributes = attributes(file);
+        if (attributes == null || attributes.size() != entry.size
+                || attributes.lastModifiedTime().toMillis() != entry.modified) {
+            return false;
+        }
+        entry.checkedAt = now;
+        return true;
+    }
+
+    private static BasicFileAttributes attributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            System.err.println("Cannot stat " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Disk to direct buffer through the channel; the bytes never pass through the heap
+    private static Entry load(Path file, BasicFileAttributes attributes) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect((int) attributes.size());
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading
+            }
+            if (buffer.hasRemaining() || channel.size() != attributes.size()) {
+                return null; // changed while reading; the next request tries again
+            }
+            buffer.flip();
+            return new Entry(buffer.asReadOnlyBuffer(), attributes.size(),
+                    attributes.lastModifiedTime().toMillis(), System.currentTimeMillis());
+        } catch (IOException e) {
+            System.err.println("Cannot cache " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    double hitRatio() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    long cachedBytes() {
+        return files.asMap().values().stream().mapToLong(entry -> entry.size).sum();
+    }
+
+    public long requests(String result) {
+        return "hit".equals(result) ? hits.sum() : misses.sum();
+    }
+
+    public long bytesServed() {
+        return bytesServed.sum();
+    }
+
+    // Each request reads its own view of the shared buffer
+    private class CachedFile extends AbstractResource {
+        private final Path file;
+        private final Entry entry;
+
+        CachedFile(Path file, Entry entry) {
+            this.file = file;
+            this.entry = entry;
+        }
+
+        @Override
+        public String getDescription() {
+            return "cached file [" + file + "]";
+        }
+
+        @Override
+        public String getFilename() {
+            return file.getFileName().toString();
+        }
+
+        @Override
+        public boolean exists() {
+            return true;
+        }
+
+        @Override
+        public long contentLength() {
+            return entry.size;
+        }
+
+        @Override
+        public long lastModified() {
+            return entry.modified;
+        }
+
+        @Override
+        public InputStream getInputStream() {
+            return new BufferInputStream(entry.bytes.duplicate());
+        }
+    }
+
+    private class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            bytesServed.increment();
+            return buffer.get() & 0xff;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (length == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, n);
+            bytesServed.add(n);
+            return n;
+        }
+
+        // Range requests skip to their start without reading
+        @Override
+        public long skip(long n) {
+            int skipped = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + skipped);
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
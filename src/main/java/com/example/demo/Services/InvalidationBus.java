@@ -0,0 +1,286 @@
+package com.example.demo.Services;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.Config.ReplicaRoutingDataSource;
+import com.example.demo.Entities.Category;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+import com.example.demo.Repositories.CategoryRepository;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Repositories.TagRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Carries other nodes' writes to this node's in-process caches.
+ *
+ * Triggers from cache_invalidation.sql send '<table>:<ids>' on the
+ * innohacks_changes channel when a write commits. One connection per node,
+ * opened straight from the driver rather than taken from the pool, LISTENs on
+ * it and hands every notification to:
+ *  - ChangeVersions, which moves the ETags on and with them every NearCache entry;
+ *  - QueryCache, for search, by-tag and recommendation results;
+ *  - ResourceIndex, which re-reads the changed resources, tags and categories;
+ *  - TagGraph and SimilarityIndex, for related tags, suggestions, similar
+ *    resources and duplicate warnings.
+ * A node gets its own notifications too; handling them again costs a version
+ * bump and one small query, and a resource whose tags did not change is not
+ * counted in the tag graph twice.
+ *
+ * If the listener connection drops, anything sent meanwhile is lost, so after
+ * reconnecting the node resyncs: every version moves on and the resource
+ * index, tag graph and similarity index are rebuilt. The same happens for a
+ * '*' payload (more ids than fit).
+ *
+ * Only runs against PostgreSQL and with cache.invalidation.enabled=true; a
+ * single node does not need it.
+ */
+@Service
+public class InvalidationBus {
+
+    static final String CHANNEL = "innohacks_changes";
+
+    private static final Set<String> RESOURCE_TABLES =
+            Set.of("resources", "resource_tags", "resource_categories", "comments", "favorites", "ratings");
+    private static final long POLL_MS = 10_000;
+    private static final long MAX_BACKOFF_MS = 30_000;
+
+    @Value("${cache.invalidation.enabled:true}")
+    private boolean enabled;
+    @Value("${spring.datasource.url}")
+    private String url;
+    @Value("${spring.datasource.username:}")
+    private String username;
+    @Value("${spring.datasource.password:}")
+    private String password;
+
+    @Autowired
+    private ChangeVersions changeVersions;
+    @Autowired
+    private QueryCache queryCache;
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private TagGraph tagGraph;
+    @Autowired
+    private SimilarityIndex similarityIndex;
+    @Autowired
+    private ResourceRepository resourceRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private volatile boolean running;
+    private volatile Connection connection;
+    private Thread thread;
+
+    // After the resource index is built, so a resync never races the first build
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled || !url.startsWith("jdbc:postgresql:")) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::listen, "invalidation-bus");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        closeQuietly();
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void listen() {
+        // A notification means the primary has committed; a replica may not have it yet
+        ReplicaRoutingDataSource.PRIMARY_ONLY.set(true);
+        boolean connectedBefore = false;
+        long backoff = 500;
+        while (running) {
+            try {
+                connection = DriverManager.getConnection(url, username, password);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                if (connectedBefore) {
+                    resync();
+                }
+                connectedBefore = true;
+                backoff = 500;
+                PGConnection pg = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications((int) POLL_MS);
+                    if (notifications == null || notifications.length == 0) {
+                        // Quiet for a while: make sure the socket is still there
+                        if (!connection.isValid(5)) {
+                            throw new SQLException("Listener connection is no longer valid");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    break;
+                }
+                System.err.println("Invalidation listener lost (" + e.getMessage() + "), reconnecting in "
+                        + backoff + " ms");
+                meterRegistry.counter("cache.invalidation.reconnects").increment();
+            } finally {
+                closeQuietly();
+            }
+            try {
+                Thread.sleep(backoff);
+            } catch (InterruptedException e) {
+                break;
+            }
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_MS);
+        }
+    }
+
+    // payload: '<table>:<id>,<id>,...' or '<table>:*'
+    public void handle(String payload) {
+        int colon = payload.indexOf(':');
+        if (colon < 0) {
+            return;
+        }
+        String table = payload.substring(0, colon);
+        String ids = payload.substring(colon + 1);
+        meterRegistry.counter("cache.invalidation.notifications", "table", table).increment();
+
+        if ("*".equals(ids)) {
+            resync();
+            return;
+        }
+        long[] changed = parseIds(ids);
+        if (RESOURCE_TABLES.contains(table)) {
+            changeVersions.resourcesChanged(changed);
+            reindexResources(changed);
+        } else if ("tags".equals(table)) {
+            changeVersions.tagsChanged();
+            reindexTags(changed);
+        } else if ("categories".equals(table)) {
+            changeVersions.categoriesChanged();
+            reindexCategories(changed);
+        } else {
+            return;
+        }
+        queryCache.catalogChanged();
+    }
+
+    private void resync() {
+        meterRegistry.counter("cache.invalidation.resyncs").increment();
+        changeVersions.resync();
+        queryCache.catalogChanged();
+        resourceIndex.rebuild();
+        tagGraph.rebuild();
+        similarityIndex.rebuild();
+    }
+
+    // The index only adds: a tag or category taken off a resource elsewhere stays until the next resync
+    private void reindexResources(long[] resourceIds) {
+        Boolean retagged = new TransactionTemplate(transactionManager).execute(status -> {
+            boolean changed = false;
+            for (Resource resource : resourceRepository.findAllById(boxed(resourceIds))) {
+                long[] before = resourceIndex.tagsOf(resource.id);
+                resourceIndex.indexResource(resource);
+                long[] after = resourceIndex.tagsOf(resource.id);
+                if (before.length == 0) {
+                    tagGraph.onResourceTagged(after);
+                } else if (!Arrays.equals(before, after)) {
+                    changed = true;
+                }
+                int[] signature = SimilarityIndex.storedOrComputed(resource.minhashSignature,
+                        resource.title, resource.description);
+                similarityIndex.add(resource.id, signature);
+            }
+            return changed;
+        });
+        // The graph cannot take a resource's old tags back out, so recount it from the index
+        if (Boolean.TRUE.equals(retagged)) {
+            tagGraph.rebuild();
+        }
+    }
+
+    private void reindexTags(long[] tagIds) {
+        List<Long> ids = boxed(tagIds);
+        List<Tag> found = tagRepository.findAllById(ids);
+        for (Tag tag : found) {
+            resourceIndex.registerTag(tag);
+        }
+        Set<Long> present = found.stream().map(t -> t.id).collect(Collectors.toSet());
+        for (Long tagId : ids) {
+            if (!present.contains(tagId)) {
+                resourceIndex.removeTag(tagId);
+                tagGraph.removeTag(tagId);
+            }
+        }
+    }
+
+    private void reindexCategories(long[] categoryIds) {
+        for (Category category : categoryRepository.findAllById(boxed(categoryIds))) {
+            resourceIndex.registerCategory(category);
+        }
+    }
+
+    private static long[] parseIds(String ids) {
+        List<Long> parsed = new ArrayList<>();
+        for (String id : ids.split(",")) {
+            if (!id.isBlank()) {
+                parsed.add(Long.parseLong(id.trim()));
+            }
+        }
+        return parsed.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static List<Long> boxed(long[] ids) {
+        List<Long> list = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            list.add(id);
+        }
+        return list;
+    }
+
+    private void closeQuietly() {
+        Connection c = connection;
+        connection = null;
+        if (c != null) {
+            try {
+                c.close();
+            } catch (SQLException ignored) {
+                // already gone
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.Services;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Node-local cache of response bodies for tags, categories and resource
+ * details, safe to use with several nodes writing.
+ *
+ * Every key embeds the matching ETag from {@link ChangeVersions}, which moves
+ * on with local writes (Hibernate listeners) and with other nodes' writes
+ * (InvalidationBus), so an entry is never served once its data has changed -
+ * at most for the few milliseconds a notification takes to arrive. Old
+ * entries just stop matching and age out, like in QueryCache.
+ *
+ * The TTL bounds what the versions deliberately leave out: view and download
+ * counts, and uploader names. Values must be immutable and must not hold JPA
+ * entities.
+ */
+@Service
+public class NearCache {
+
+    private final Cache<String, Object> cache;
+    private final ChangeVersions changeVersions;
+    private final SingleFlight singleFlight;
+
+    public NearCache(
+            @Value("${cache.near.max-size:5000}") long maxSize,
+            @Value("${cache.near.ttl-seconds:30}") long ttlSeconds,
+            ChangeVersions changeVersions,
+            SingleFlight singleFlight,
+            MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.changeVersions = changeVersions;
+        this.singleFlight = singleFlight;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "near");
+    }
+
+    // Anything derived from the tags table alone
+    public <T> T tags(String key, Supplier<T> loader) {
+        return get(changeVersions.tagsETag() + key, loader);
+    }
+
+    public <T> T categories(String key, Supplier<T> loader) {
+        return get(changeVersions.categoriesETag() + key, loader);
+    }
+
+    // One resource with its comments, favorites, ratings, tags and categories, as an anonymous viewer sees it
+    public <T> T resource(Long resourceId, Supplier<T> loader) {
+        return get(changeVersions.resourceETag(resourceId, null), loader);
+    }
+
+    // The version is read before loading, so a load racing a write is filed under the old version
+    @SuppressWarnings("unchecked")
+    private <T> T get(String key, Supplier<T> loader) {
+        T value = (T) cache.getIfPresent(key);
+        if (value == null) {
+            // Outside the cache's bin lock, as in QueryCache; concurrent misses share one load
+            value = singleFlight.coalesce("near", key, loader);
+            if (value != null) {
+                cache.put(key, value);
+            }
+        }
+        return value;
+    }
+}
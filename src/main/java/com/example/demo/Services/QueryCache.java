@@ -0,0 +1,158 @@
+package com.example.demo.Services;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Result cache for read-heavy queries (search, by-tag, recommendations).
+ *
+ * Keys are normalised (lowercased, trimmed, sets sorted) so "Java,SQL" and
+ * "sql, java" share an entry, and every key embeds the current catalog
+ * version. Any write that can change a result calls {@link #catalogChanged()},
+ * which bumps the version: old entries simply stop matching and age out of
+ * the size-bounded W-TinyLFU cache, so there is no scan-and-evict step.
+ *
+ * Cache values must be immutable and must not hold JPA entities (they would
+ * be detached by the time another request reads them) - cache ids instead.
+ *
+ * Metrics: cache.* for the cache as a whole (cache=query) and
+ * query.cache.requests{endpoint, result=hit|miss} per endpoint.
+ */
+@Service
+public class QueryCache {
+
+    private final Cache<String, Object> cache;
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final Map<String, LongAdder> hits = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> misses = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight singleFlight;
+
+    public QueryCache(
+            @Value("${cache.query.max-size:10000}") long maxSize,
+            @Value("${cache.query.ttl-seconds:300}") long ttlSeconds,
+            MeterRegistry meterRegistry,
+            SingleFlight singleFlight) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        this.meterRegistry = meterRegistry;
+        this.singleFlight = singleFlight;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "query");
+    }
+
+    /**
+     * The loader runs outside the cache: Caffeine's atomic get(key, fn) calls it
+     * inside a ConcurrentHashMap bin lock, and a JDBC call under that monitor
+     * pins the carrier thread when running on virtual threads. Concurrent
+     * misses for the same key are coalesced by SingleFlight, so only one loads.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(String endpoint, String normalisedQuery, Supplier<T> loader) {
+        String key = endpoint + '#' + catalogVersion.get() + '#' + normalisedQuery;
+        T value = (T) cache.getIfPresent(key);
+        if (value != null) {
+            hits.computeIfAbsent(endpoint, e -> counter(e, "hit")).increment();
+            return value;
+        }
+        value = singleFlight.coalesce("query", key, loader);
+        if (value != null) {
+            cache.put(key, value);
+        }
+        misses.computeIfAbsent(endpoint, e -> counter(e, "miss")).increment();
+        return value;
+    }
+
+    private LongAdder counter(String endpoint, String result) {
+        LongAdder adder = new LongAdder();
+        FunctionCounter.builder("query.cache.requests", adder, LongAdder::sum)
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry);
+        return adder;
+    }
+
+    // Call after any write that can change search, by-tag or recommendation results
+    public void catalogChanged() {
+        catalogVersion.incrementAndGet();
+    }
+
+    public long catalogVersion() {
+        return catalogVersion.get();
+    }
+
+    // Per endpoint: hits, misses and hit rate
+    public Map<String, Map<String, Object>> stats() {
+        Set<String> endpoints = new TreeSet<>(hits.keySet());
+        endpoints.addAll(misses.keySet());
+        Map<String, Map<String, Object>> stats = new TreeMap<>();
+        for (String endpoint : endpoints) {
+            stats.put(endpoint, statsFor(endpoint));
+        }
+        return stats;
+    }
+
+    public long hitCount(String endpoint) {
+        LongAdder adder = hits.get(endpoint);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long missCount(String endpoint) {
+        LongAdder adder = misses.get(endpoint);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private Map<String, Object> statsFor(String endpoint) {
+        long h = hitCount(endpoint);
+        long m = missCount(endpoint);
+        Map<String, Object> entry = new TreeMap<>();
+        entry.put("hits", h);
+        entry.put("misses", m);
+        entry.put("hitRate", h + m == 0 ? 0.0 : (double) h / (h + m));
+        return entry;
+    }
+
+    // Helpers for building normalised keys
+
+    public static String normalise(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    public static String normaliseSet(Collection<String> values) {
+        if (values == null) {
+            return "";
+        }
+        return values.stream()
+                .map(QueryCache::normalise)
+                .filter(v -> !v.isEmpty())
+                .distinct()
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+}
@@ -0,0 +1,271 @@
+package com.example.demo.Services;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.demo.Entities.Resource;
+import com.example.demo.Repositories.ResourceRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Read model for the resource lists: resource_cards holds each resource's
+ * full JSON body (see resource_cards.sql), and ResourceJsonWriter copies the
+ * stored text into list, search, by-tag and favorites responses instead of
+ * loading and serialising entities.
+ *
+ * ChangeVersions reports committed changes: a resource, its comments,
+ * favorites and ratings mark that card stale; a tag or category marks every
+ * card that shows it; a renamed user marks them all. Stale cards are not
+ * served by this node - the entity is - until {@link #refresh()} has rebuilt
+ * them, a moment later and in chunks. The table is shared, so other nodes
+ * see the new card once it is written; until then they serve the previous
+ * one, much like a read from a replica.
+ *
+ * Counters are the exception: view and download counts and tag usage counts
+ * change all the time and are not in the versions, so a card is served for
+ * up to cards.max-age-seconds after it was built, then rebuilt in the
+ * background. A resource without a card (new, imported, or the table was
+ * just created) is served from its entity and gets one on the next refresh.
+ */
+@Service
+public class ResourceCards {
+
+    static final int CHUNK = 200;
+
+    /** A card as read: json is null when the entity has to be written instead. */
+    public record Card(long resourceId, String json) {
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private ResourceRepository resourceRepository;
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // resource id -> mark; a refresh only clears the marks it started from
+    private final Map<Long, Long> stale = new ConcurrentHashMap<>();
+    private final AtomicLong marks = new AtomicLong();
+    // Old but still servable cards, rebuilt with the next refresh
+    private final Set<Long> due = ConcurrentHashMap.newKeySet();
+    // Cards built before this (UTC) are stale, after a change that can be in any card
+    private volatile LocalDateTime staleBefore = LocalDateTime.MIN;
+    private volatile boolean enabled;
+
+    private final long maxAgeSeconds;
+    private final TransactionTemplate transactionTemplate;
+    private final LongAdder servedCards = new LongAdder();
+    private final LongAdder servedEntities = new LongAdder();
+    private final LongAdder refreshed = new LongAdder();
+
+    public ResourceCards(
+            @Value("${cards.max-age-seconds:60}") long maxAgeSeconds,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        FunctionCounter.builder("cards.reads", servedCards, LongAdder::sum).tag("source", "card").register(meterRegistry);
+        FunctionCounter.builder("cards.reads", servedEntities, LongAdder::sum).tag("source", "entity").register(meterRegistry);
+        FunctionCounter.builder("cards.refreshed", refreshed, LongAdder::sum).register(meterRegistry);
+        Gauge.builder("cards.stale", stale, Map::size).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void checkTable() {
+        try {
+            jdbcTemplate.queryForList("SELECT resource_id FROM resource_cards WHERE 1 = 0");
+            enabled = true;
+        } catch (DataAccessException e) {
+            System.err.println("resource_cards table not found, lists are built from entities (load resource_cards.sql)");
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    // Change hooks, called by ChangeVersions after the writing transaction commits
+
+    public void resourceChanged(Long resourceId) {
+        stale.put(resourceId, marks.incrementAndGet());
+    }
+
+    public void tagChanged(Long tagId) {
+        markAll(resourceIndex.resourcesWithTag(tagId));
+    }
+
+    public void categoryChanged(Long categoryId) {
+        markAll(resourceIndex.resourcesInCategory(categoryId));
+    }
+
+    public void everythingChanged() {
+        staleBefore = LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    private void markAll(BitSet resourceIds) {
+        if (resourceIds != null) {
+            resourceIds.stream().forEach(id -> resourceChanged((long) id));
+        }
+    }
+
+    // Reads
+
+    /** The usable cards among these ids; the others are queued for a refresh. */
+    public Map<Long, String> cardsFor(List<Long> resourceIds) {
+        Map<Long, String> cards = new HashMap<>();
+        if (resourceIds.isEmpty()) {
+            return cards;
+        }
+        String placeholders = String.join(",", Collections.nCopies(resourceIds.size(), "?"));
+        jdbcTemplate.query("SELECT resource_id, card, refreshed_at FROM resource_cards WHERE resource_id IN ("
+                + placeholders + ")", rs -> {
+                    Card card = usable(rs.getLong(1), rs.getString(2), rs.getObject(3, LocalDateTime.class));
+                    if (card.json() != null) {
+                        cards.put(card.resourceId(), card.json());
+                    }
+                }, resourceIds.toArray());
+        for (Long id : resourceIds) {
+            if (!cards.containsKey(id)) {
+                stale.putIfAbsent(id, marks.incrementAndGet());
+            }
+        }
+        servedCards.add(cards.size());
+        servedEntities.add(resourceIds.size() - cards.size());
+        return cards;
+    }
+
+    /** Every resource in id order with its card if usable. Consume inside a transaction. */
+    public Stream<Card> streamAll() {
+        return jdbcTemplate.queryForStream(con -> {
+            var statement = con.prepareStatement("SELECT r.id, c.card, c.refreshed_at FROM resources r "
+                    + "LEFT JOIN resource_cards c ON c.resource_id = r.id ORDER BY r.id");
+            statement.setFetchSize(500);
+            return statement;
+        }, (rs, row) -> usable(rs.getLong(1), rs.getString(2), rs.getObject(3, LocalDateTime.class)))
+                .peek(card -> (card.json() == null ? servedEntities : servedCards).increment());
+    }
+
+    private Card usable(long resourceId, String json, LocalDateTime refreshedAt) {
+        if (json == null || stale.containsKey(resourceId) || refreshedAt.isBefore(staleBefore)) {
+            stale.putIfAbsent(resourceId, marks.incrementAndGet());
+            return new Card(resourceId, null);
+        }
+        if (refreshedAt.isBefore(LocalDateTime.now(ZoneOffset.UTC).minusSeconds(maxAgeSeconds))) {
+            // Only the counters can be out of date: serve it, rebuild it soon
+            due.add(resourceId);
+        }
+        return new Card(resourceId, json);
+    }
+
+    // Refresh
+
+    /** Queues every resource that has no card yet. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!enabled) {
+            return;
+        }
+        jdbcTemplate.query("SELECT r.id FROM resources r LEFT JOIN resource_cards c ON c.resource_id = r.id "
+                + "WHERE c.resource_id IS NULL", rs -> {
+                    stale.putIfAbsent(rs.getLong(1), marks.incrementAndGet());
+                });
+    }
+
+    @Scheduled(fixedDelayString = "${cards.refresh-interval-ms:200}", initialDelayString = "${cards.refresh-interval-ms:200}")
+    public void refresh() {
+        if (!enabled || (stale.isEmpty() && due.isEmpty())) {
+            return;
+        }
+        Map<Long, Long> batch = new HashMap<>(stale);
+        Set<Long> ids = new LinkedHashSet<>(batch.keySet());
+        for (Iterator<Long> it = due.iterator(); it.hasNext();) {
+            ids.add(it.next());
+            it.remove();
+        }
+        refresh(new ArrayList<>(ids), batch);
+    }
+
+    private void refresh(List<Long> ids, Map<Long, Long> batch) {
+        for (int from = 0; from < ids.size(); from += CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK, ids.size()));
+            try {
+                rebuild(chunk);
+            } catch (DataAccessException e) {
+                // Another node rebuilt the same card at the same moment; these stay queued
+                System.err.println("Card refresh failed for " + chunk.size() + " resources: " + e.getMessage());
+                continue;
+            }
+            for (Long id : chunk) {
+                Long mark = batch.get(id);
+                if (mark != null) {
+                    stale.remove(id, mark);
+                }
+            }
+            refreshed.add(chunk.size());
+        }
+    }
+
+    // Read-write, so it reads from the primary: a card built from a lagging replica would be stale
+    private void rebuild(List<Long> resourceIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            List<Object[]> rows = new ArrayList<>(resourceIds.size());
+            for (Resource resource : resourceRepository.findAllById(resourceIds)) {
+                rows.add(new Object[] { resource.id, toJson(resource), now });
+            }
+            entityManager.clear();
+            // Deleted resources lose their card here too
+            jdbcTemplate.update("DELETE FROM resource_cards WHERE resource_id IN ("
+                    + String.join(",", Collections.nCopies(resourceIds.size(), "?")) + ")", resourceIds.toArray());
+            jdbcTemplate.batchUpdate("INSERT INTO resource_cards (resource_id, card, refreshed_at) VALUES (?, ?, ?)", rows);
+        });
+    }
+
+    // The same bytes ResourceJsonWriter produces for the entity without a fields filter
+    private String toJson(Resource resource) {
+        try {
+            return objectMapper.writeValueAsString(resource);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialise resource " + resource.id, e);
+        }
+    }
+
+    public int staleCount() {
+        return stale.size();
+    }
+}
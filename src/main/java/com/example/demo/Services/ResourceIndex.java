@@ -0,0 +1,280 @@
+package com.example.demo.Services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.Entities.Category;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+import com.example.demo.Repositories.CategoryRepository;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Repositories.TagRepository;
+
+/**
+ * In-memory tag/category -> resource index.
+ *
+ * Postings are BitSets keyed by resource id (ids are dense BIGSERIALs), the
+ * reverse direction is a sorted long[] of tag ids per resource. All maps are
+ * copy-on-write: writers replace the whole entry, so readers never need a lock.
+ *
+ * {@link #rebuild()} reads the database into a fresh {@link Snapshot} while
+ * readers keep using the current one, then swaps it in. Writes that arrive
+ * during the read go to the current snapshot and are replayed onto the new
+ * one before the swap, so neither readers nor uploads see an empty index.
+ */
+@Service
+public class ResourceIndex {
+
+    private static final long[] NO_TAGS = new long[0];
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+    @Autowired
+    private TagRepository tagRepository;
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    private static class Snapshot {
+        final AtomicReference<BitSet> allResources = new AtomicReference<>(new BitSet());
+        final Map<Long, BitSet> resourcesByTag = new ConcurrentHashMap<>();
+        final Map<Long, long[]> tagsByResource = new ConcurrentHashMap<>();
+        final Map<Long, String> tagNames = new ConcurrentHashMap<>();
+        final Map<String, Long> tagIdsByName = new ConcurrentHashMap<>();
+        final Map<Long, BitSet> resourcesByCategory = new ConcurrentHashMap<>();
+        final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+        final Map<String, Long> categoryIdsByName = new ConcurrentHashMap<>();
+    }
+
+    private volatile Snapshot current = new Snapshot();
+    // One rebuild at a time; a lock rather than a monitor, since it is held over the DB read
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Guards writes and the swap; held only for in-memory work
+    private final Object writeLock = new Object();
+    // Writes made while a rebuild reads the DB, replayed onto its snapshot; null otherwise
+    private List<Consumer<Snapshot>> replay;
+
+    // Runs before the indexes derived from it (tag graph etc.)
+    @Order(1)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (writeLock) {
+                replay = new ArrayList<>();
+            }
+            long start = System.currentTimeMillis();
+            Snapshot fresh = new Snapshot();
+            BitSet all = new BitSet();
+            Map<Long, BitSet> postings = new HashMap<>();
+            Map<Long, long[]> reverse = new HashMap<>();
+            Map<Long, BitSet> categoryPostings = new HashMap<>();
+
+            for (Long resourceId : resourceRepository.findAllIds()) {
+                all.set(toBit(resourceId));
+            }
+            for (Object[] row : resourceRepository.findAllResourceTagPairs()) {
+                long resourceId = (Long) row[0];
+                long tagId = (Long) row[1];
+                postings.computeIfAbsent(tagId, k -> new BitSet()).set(toBit(resourceId));
+                reverse.merge(resourceId, new long[] { tagId }, ResourceIndex::union);
+            }
+            for (Object[] row : resourceRepository.findAllResourceCategoryPairs()) {
+                categoryPostings.computeIfAbsent((Long) row[1], k -> new BitSet()).set(toBit((Long) row[0]));
+            }
+            for (Tag tag : tagRepository.findAll()) {
+                registerTag(fresh, tag.id, tag.name);
+            }
+            for (Category category : categoryRepository.findAll()) {
+                registerCategory(fresh, category.id, category.name);
+            }
+            fresh.allResources.set(all);
+            fresh.resourcesByTag.putAll(postings);
+            fresh.tagsByResource.putAll(reverse);
+            fresh.resourcesByCategory.putAll(categoryPostings);
+
+            synchronized (writeLock) {
+                replay.forEach(change -> change.accept(fresh));
+                current = fresh;
+            }
+
+            System.out.println("Resource index built: " + all.cardinality() + " resources, "
+                    + postings.size() + " tags, " + categoryPostings.size() + " categories in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } finally {
+            synchronized (writeLock) {
+                replay = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    // Applies a change to the live snapshot, and to the one being rebuilt if any
+    private void write(Consumer<Snapshot> change) {
+        synchronized (writeLock) {
+            change.accept(current);
+            if (replay != null) {
+                replay.add(change);
+            }
+        }
+    }
+
+    // Called after a resource has been saved with its tags and categories
+    public void indexResource(Resource resource) {
+        Long resourceId = resource.id;
+        int bit = toBit(resourceId);
+        long[] tagIds = resource.tags.stream().mapToLong(tag -> tag.id).sorted().toArray();
+        List<Tag> tags = List.copyOf(resource.tags);
+        List<Category> categories = List.copyOf(resource.categories);
+        write(index -> {
+            index.allResources.updateAndGet(bits -> withBit(bits, bit));
+            for (Tag tag : tags) {
+                registerTag(index, tag.id, tag.name);
+                index.resourcesByTag.compute(tag.id, (k, bits) -> withBit(bits, bit));
+            }
+            index.tagsByResource.put(resourceId, tagIds);
+            for (Category category : categories) {
+                registerCategory(index, category.id, category.name);
+                index.resourcesByCategory.compute(category.id, (k, bits) -> withBit(bits, bit));
+            }
+        });
+    }
+
+    public void registerTag(Tag tag) {
+        Long id = tag.id;
+        String name = tag.name;
+        write(index -> registerTag(index, id, name));
+    }
+
+    public void removeTag(Long tagId) {
+        write(index -> {
+            String name = index.tagNames.remove(tagId);
+            if (name != null) {
+                index.tagIdsByName.remove(name.toLowerCase(Locale.ROOT));
+            }
+            index.resourcesByTag.remove(tagId);
+        });
+    }
+
+    public void registerCategory(Category category) {
+        Long id = category.id;
+        String name = category.name;
+        write(index -> registerCategory(index, id, name));
+    }
+
+    private static void registerTag(Snapshot index, Long id, String name) {
+        index.tagNames.put(id, name);
+        index.tagIdsByName.put(name.toLowerCase(Locale.ROOT), id);
+    }
+
+    private static void registerCategory(Snapshot index, Long id, String name) {
+        index.categoryNames.put(id, name);
+        index.categoryIdsByName.put(name.toLowerCase(Locale.ROOT), id);
+    }
+
+    // Case-insensitive, null if unknown
+    public Long tagIdByName(String name) {
+        return name == null ? null : current.tagIdsByName.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    // Case-insensitive, null if unknown
+    public Long categoryIdByName(String name) {
+        return name == null ? null : current.categoryIdsByName.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+
+    public void forEachResource(BiConsumer<Long, long[]> consumer) {
+        current.tagsByResource.forEach(consumer);
+    }
+
+    public long[] tagsOf(Long resourceId) {
+        return current.tagsByResource.getOrDefault(resourceId, NO_TAGS);
+    }
+
+    // Whether the resource exists, as far as this node has seen
+    public boolean contains(long resourceId) {
+        return resourceId >= 0 && resourceId <= Integer.MAX_VALUE && current.allResources.get().get((int) resourceId);
+    }
+
+    // Returned BitSets are shared: callers must not modify them
+    public BitSet allResources() {
+        return current.allResources.get();
+    }
+
+    public BitSet resourcesWithTag(long tagId) {
+        return current.resourcesByTag.get(tagId);
+    }
+
+    public BitSet resourcesInCategory(long categoryId) {
+        return current.resourcesByCategory.get(categoryId);
+    }
+
+    public Set<Long> tagIds() {
+        return current.resourcesByTag.keySet();
+    }
+
+    public Set<Long> categoryIds() {
+        return current.resourcesByCategory.keySet();
+    }
+
+    public String tagName(long tagId) {
+        return current.tagNames.get(tagId);
+    }
+
+    public String categoryName(long categoryId) {
+        return current.categoryNames.get(categoryId);
+    }
+
+    public List<String> tagNamesOf(Long resourceId) {
+        return Arrays.stream(tagsOf(resourceId))
+                .mapToObj(this::tagName)
+                .filter(name -> name != null)
+                .toList();
+    }
+
+    // Categories are few, so probing each category bitmap beats keeping a reverse map
+    public List<String> categoryNamesOf(Long resourceId) {
+        int bit = toBit(resourceId);
+        Snapshot index = current;
+        List<String> names = new ArrayList<>();
+        index.resourcesByCategory.forEach((categoryId, bits) -> {
+            if (bits.get(bit)) {
+                String name = index.categoryNames.get(categoryId);
+                if (name != null) names.add(name);
+            }
+        });
+        return names;
+    }
+
+    static int toBit(long resourceId) {
+        return Math.toIntExact(resourceId);
+    }
+
+    private static BitSet withBit(BitSet bits, int bit) {
+        BitSet copy = bits == null ? new BitSet() : (BitSet) bits.clone();
+        copy.set(bit);
+        return copy;
+    }
+
+    static long[] union(long[] a, long[] b) {
+        long[] merged = Arrays.copyOf(a, a.length + b.length);
+        System.arraycopy(b, 0, merged, a.length, b.length);
+        Arrays.sort(merged);
+        return Arrays.stream(merged).distinct().toArray();
+    }
+}
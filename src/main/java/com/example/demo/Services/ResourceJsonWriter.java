@@ -0,0 +1,250 @@
+package com.example.demo.Services;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.demo.Entities.Resource;
+import com.example.demo.Repositories.ResourceRepository;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Writes Resource lists as a JSON array while the rows are still coming in,
+ * instead of building a List and serialising it in one go.
+ *
+ * The whole catalog comes off a server-side cursor; ordered id lists (search,
+ * by-tag, favorites...) are loaded {@value #CHUNK} ids at a time. Either way
+ * each entity is detached once written and the output is flushed per chunk,
+ * so the heap holds one chunk, not the whole response.
+ *
+ * fields=id,title,... (sparse fieldsets) writes only those properties. Lazy
+ * collections that are left out are never initialised, so trimming tags,
+ * categories, comments and favorites also saves their queries.
+ *
+ * Without fields, each resource's prebuilt card from {@link ResourceCards}
+ * is copied into the output as it is; only resources without a current card
+ * are loaded and serialised here.
+ */
+@Service
+public class ResourceJsonWriter {
+
+    static final int CHUNK = 200;
+    private static final String FIELDS_FILTER = "resourceFields";
+
+    @JsonFilter(FIELDS_FILTER)
+    private abstract static class FieldsFilter {
+    }
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper resourceMapper;
+    private final Set<String> propertyNames;
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ResourceCards resourceCards;
+
+    public ResourceJsonWriter(PlatformTransactionManager transactionManager, ObjectMapper objectMapper) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // A copy, so the filter mixin does not leak into the application's ObjectMapper
+        this.resourceMapper = objectMapper.copy().addMixIn(Resource.class, FieldsFilter.class);
+        this.propertyNames = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(Resource.class))
+                .findProperties().stream()
+                .map(BeanPropertyDefinition::getName)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    /** Every resource, in id order. */
+    public StreamingResponseBody all(String fields) {
+        ObjectWriter writer = writerFor(fields);
+        if (useCards(fields)) {
+            return out -> inTransaction(() -> {
+                try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+                        Stream<ResourceCards.Card> rows = resourceCards.streamAll()) {
+                    json.writeStartArray();
+                    List<ResourceCards.Card> chunk = new ArrayList<>(CHUNK);
+                    for (ResourceCards.Card card : (Iterable<ResourceCards.Card>) rows::iterator) {
+                        chunk.add(card);
+                        if (chunk.size() == CHUNK) {
+                            writeCards(json, writer, chunk);
+                            chunk.clear();
+                        }
+                    }
+                    writeCards(json, writer, chunk);
+                    json.writeEndArray();
+                }
+            });
+        }
+        return out -> inTransaction(() -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out);
+                    Stream<Resource> rows = resourceRepository.streamAllByOrderById()) {
+                json.writeStartArray();
+                int written = 0;
+                for (Resource resource : (Iterable<Resource>) rows::iterator) {
+                    write(json, writer, resource);
+                    if (++written % CHUNK == 0) {
+                        json.flush();
+                    }
+                }
+                json.writeEndArray();
+            }
+        });
+    }
+
+    /** The resources with these ids, in the same order (missing ids are skipped). */
+    public StreamingResponseBody ordered(List<Long> ids, String fields) {
+        ObjectWriter writer = writerFor(fields);
+        boolean cards = useCards(fields);
+        return out -> inTransaction(() -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                writeOrdered(json, writer, ids, cards);
+            }
+        });
+    }
+
+    /** An object with the given head fields first, then the resources under arrayField. */
+    public StreamingResponseBody ordered(Map<String, Object> head, String arrayField, List<Long> ids, String fields) {
+        ObjectWriter writer = writerFor(fields);
+        boolean cards = useCards(fields);
+        return out -> inTransaction(() -> {
+            try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+                json.writeStartObject();
+                ObjectWriter headWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+                for (Map.Entry<String, Object> field : head.entrySet()) {
+                    json.writeFieldName(field.getKey());
+                    headWriter.writeValue(json, field.getValue());
+                }
+                json.writeFieldName(arrayField);
+                writeOrdered(json, writer, ids, cards);
+                json.writeEndObject();
+            }
+        });
+    }
+
+    private void writeOrdered(JsonGenerator json, ObjectWriter writer, List<Long> ids, boolean cards)
+            throws IOException {
+        json.writeStartArray();
+        for (int from = 0; from < ids.size(); from += CHUNK) {
+            List<Long> chunk = ids.subList(from, Math.min(from + CHUNK, ids.size()));
+            Map<Long, String> cardsById = cards ? resourceCards.cardsFor(chunk) : Map.of();
+            Map<Long, Resource> byId = load(chunk.stream().filter(id -> !cardsById.containsKey(id)).toList());
+            for (Long id : chunk) {
+                String card = cardsById.get(id);
+                Resource resource = byId.get(id);
+                if (card != null) {
+                    json.writeRawValue(card);
+                } else if (resource != null) {
+                    write(json, writer, resource);
+                }
+            }
+            json.flush();
+        }
+        json.writeEndArray();
+    }
+
+    // One chunk of the card stream, in order; resources without a usable card are loaded together
+    private void writeCards(JsonGenerator json, ObjectWriter writer, List<ResourceCards.Card> chunk)
+            throws IOException {
+        Map<Long, Resource> byId = load(chunk.stream()
+                .filter(card -> card.json() == null)
+                .map(ResourceCards.Card::resourceId)
+                .toList());
+        for (ResourceCards.Card card : chunk) {
+            Resource resource = byId.get(card.resourceId());
+            if (card.json() != null) {
+                json.writeRawValue(card.json());
+            } else if (resource != null) {
+                write(json, writer, resource);
+            }
+        }
+        json.flush();
+    }
+
+    private Map<Long, Resource> load(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return resourceRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(r -> r.id, Function.identity()));
+    }
+
+    private boolean useCards(String fields) {
+        return parse(fields).isEmpty() && resourceCards.enabled();
+    }
+
+    private void write(JsonGenerator json, ObjectWriter writer, Resource resource) throws IOException {
+        writer.writeValue(json, resource);
+        entityManager.detach(resource);
+    }
+
+    // Called before the response starts, so an unknown field is still a plain 400
+    private ObjectWriter writerFor(String fields) {
+        Set<String> selected = parse(fields);
+        for (String name : selected) {
+            if (!propertyNames.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+            }
+        }
+        SimpleBeanPropertyFilter filter = selected.isEmpty()
+                ? SimpleBeanPropertyFilter.serializeAll()
+                : SimpleBeanPropertyFilter.filterOutAllExcept(selected);
+        return resourceMapper.writer(new SimpleFilterProvider().addFilter(FIELDS_FILTER, filter))
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    private static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    // Cursors need a transaction; lazy collections load through the same session
+    private void inTransaction(JsonWork work) {
+        readOnlyTransaction.executeWithoutResult(status -> {
+            try {
+                work.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private interface JsonWork {
+        void run() throws IOException;
+    }
+}
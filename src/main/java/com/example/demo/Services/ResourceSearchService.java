@@ -0,0 +1,131 @@
+package com.example.demo.Services;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.function.LongFunction;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.DTO.FacetCount;
+import com.example.demo.Repositories.ResourceRepository;
+
+/**
+ * Bitmap-based resource search with facet counts.
+ *
+ * Each filter (keyword, categories, tags) becomes a BitSet of resource ids;
+ * the result is their intersection. Facet counts follow multi-select
+ * semantics: the count for a category is taken over the matches of every
+ * filter except the category filter itself (same for tags), so picking
+ * "Java" still shows how many results "SQL" would add.
+ */
+@Service
+public class ResourceSearchService {
+
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    public static class SearchResult {
+        public final List<Long> ids;
+        public final List<FacetCount> categoryFacets;
+        public final List<FacetCount> tagFacets;
+
+        SearchResult(List<Long> ids, List<FacetCount> categoryFacets, List<FacetCount> tagFacets) {
+            this.ids = ids;
+            this.categoryFacets = categoryFacets;
+            this.tagFacets = tagFacets;
+        }
+    }
+
+    /**
+     * @param categories resources must be in at least one of these (empty = any)
+     * @param tags resources must carry at least one of these (empty = any)
+     * @param facetLimit top-N per facet; 0 skips facet counting entirely
+     */
+    public SearchResult search(String keyword, Collection<String> categories, Collection<String> tags, int facetLimit) {
+        BitSet all = resourceIndex.allResources();
+        BitSet keywordBits = keyword == null || keyword.trim().isEmpty() ? all : keywordMatches(keyword);
+        BitSet categoryBits = categories.isEmpty() ? all : union(categories, resourceIndex::categoryIdByName, resourceIndex::resourcesInCategory);
+        BitSet tagBits = tags.isEmpty() ? all : union(tags, resourceIndex::tagIdByName, resourceIndex::resourcesWithTag);
+
+        BitSet result = and(and(keywordBits, categoryBits), tagBits);
+        List<Long> ids = new ArrayList<>(result.cardinality());
+        for (int bit = result.nextSetBit(0); bit >= 0; bit = result.nextSetBit(bit + 1)) {
+            ids.add((long) bit);
+        }
+
+        if (facetLimit <= 0) {
+            return new SearchResult(ids, List.of(), List.of());
+        }
+        List<FacetCount> categoryFacets = facets(and(keywordBits, tagBits), resourceIndex.categoryIds(),
+                resourceIndex::resourcesInCategory, resourceIndex::categoryName, facetLimit);
+        List<FacetCount> tagFacets = facets(and(keywordBits, categoryBits), resourceIndex.tagIds(),
+                resourceIndex::resourcesWithTag, resourceIndex::tagName, facetLimit);
+        return new SearchResult(ids, categoryFacets, tagFacets);
+    }
+
+    private BitSet keywordMatches(String keyword) {
+        String escaped = keyword.trim().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+        BitSet bits = new BitSet();
+        for (Long id : resourceRepository.findIdsByKeywordPattern("%" + escaped + "%")) {
+            bits.set(ResourceIndex.toBit(id));
+        }
+        return bits;
+    }
+
+    private static BitSet union(Collection<String> names, Function<String, Long> idByName,
+            LongFunction<BitSet> postings) {
+        BitSet bits = new BitSet();
+        for (String name : names) {
+            Long id = idByName.apply(name);
+            BitSet posting = id == null ? null : postings.apply(id);
+            if (posting != null) {
+                bits.or(posting);
+            }
+        }
+        return bits;
+    }
+
+    // Never mutates its arguments (they may be shared index postings)
+    private static BitSet and(BitSet a, BitSet b) {
+        if (a == b) {
+            return a;
+        }
+        BitSet copy = (BitSet) a.clone();
+        copy.and(b);
+        return copy;
+    }
+
+    private static List<FacetCount> facets(BitSet base, Collection<Long> ids, LongFunction<BitSet> postings,
+            LongFunction<String> names, int limit) {
+        List<FacetCount> counts = new ArrayList<>();
+        int baseCardinality = base.cardinality();
+        for (Long id : ids) {
+            BitSet posting = postings.apply(id);
+            int count = posting == null ? 0 : intersectionCount(base, baseCardinality, posting);
+            if (count > 0) {
+                counts.add(new FacetCount(id, names.apply(id), count));
+            }
+        }
+        counts.sort((x, y) -> x.count.equals(y.count) ? Long.compare(x.id, y.id) : Integer.compare(y.count, x.count));
+        return counts.size() > limit ? counts.subList(0, limit) : counts;
+    }
+
+    // |a AND b| without allocating: walk the sparser set, probe the other
+    static int intersectionCount(BitSet a, int aCardinality, BitSet b) {
+        BitSet small = aCardinality <= b.cardinality() ? a : b;
+        BitSet large = small == a ? b : a;
+        int count = 0;
+        for (int bit = small.nextSetBit(0); bit >= 0; bit = small.nextSetBit(bit + 1)) {
+            if (large.get(bit)) count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.demo.Services;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.Repositories.ResourceRepository;
+
+/**
+ * MinHash signatures + LSH banding over resource text, for near-duplicate
+ * detection and content similarity that does not depend on shared tags.
+ *
+ * Text is split into word 3-shingles, each hashed to 64 bits and reduced to
+ * {@link #NUM_HASHES} minimums. The signature is cut into {@link #BANDS} bands
+ * of {@link #ROWS} rows; resources sharing any band bucket are candidates, and
+ * candidates are then scored by the fraction of equal signature slots (an
+ * estimate of Jaccard similarity). With 16 x 4 the S-curve midpoint sits at
+ * roughly 0.5 Jaccard.
+ *
+ * {@link #rebuild()} fills a fresh {@link Snapshot} while queries keep using
+ * the current one, and swaps it in with any signatures added meanwhile, in
+ * the same way as ResourceIndex.
+ */
+@Service
+public class SimilarityIndex {
+
+    static final int NUM_HASHES = 64;
+    static final int BANDS = 16;
+    static final int ROWS = NUM_HASHES / BANDS;
+    static final int SHINGLE_WORDS = 3;
+    public static final double DUPLICATE_THRESHOLD = 0.8;
+
+    private static final long[] SEEDS_A = new long[NUM_HASHES];
+    private static final long[] SEEDS_B = new long[NUM_HASHES];
+
+    static {
+        // Fixed seed: signatures are persisted, so hash functions must be stable
+        SplittableRandom random = new SplittableRandom(0x5EED_1DL);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS_A[i] = random.nextLong() | 1L;
+            SEEDS_B[i] = random.nextLong();
+        }
+    }
+
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    private static class Snapshot {
+        final Map<Long, int[]> signatures = new ConcurrentHashMap<>();
+        final Map<Long, long[]> buckets = new ConcurrentHashMap<>();
+    }
+
+    private volatile Snapshot current = new Snapshot();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    private final Object writeLock = new Object();
+    // Writes made while a rebuild reads the DB, replayed onto its snapshot; null otherwise
+    private List<Consumer<Snapshot>> replay;
+
+    public static class Match {
+        public final long resourceId;
+        public final double similarity;
+
+        Match(long resourceId, double similarity) {
+            this.resourceId = resourceId;
+            this.similarity = similarity;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            synchronized (writeLock) {
+                replay = new ArrayList<>();
+            }
+            long start = System.currentTimeMillis();
+            Snapshot fresh = new Snapshot();
+            for (Object[] row : resourceRepository.findAllForSimilarity()) {
+                add(fresh, (Long) row[0], storedOrComputed((byte[]) row[1], (String) row[2], (String) row[3]));
+            }
+            synchronized (writeLock) {
+                replay.forEach(change -> change.accept(fresh));
+                current = fresh;
+            }
+            System.out.println("Similarity index built: " + fresh.signatures.size() + " resources in "
+                    + (System.currentTimeMillis() - start) + " ms");
+        } finally {
+            synchronized (writeLock) {
+                replay = null;
+            }
+            rebuildLock.unlock();
+        }
+    }
+
+    public void add(Long resourceId, int[] signature) {
+        write(index -> add(index, resourceId, signature));
+    }
+
+    private void write(Consumer<Snapshot> change) {
+        synchronized (writeLock) {
+            change.accept(current);
+            if (replay != null) {
+                replay.add(change);
+            }
+        }
+    }
+
+    private static void add(Snapshot index, Long resourceId, int[] signature) {
+        if (signature == null) {
+            return;
+        }
+        index.signatures.put(resourceId, signature);
+        for (int band = 0; band < BANDS; band++) {
+            index.buckets.merge(bandKey(signature, band), new long[] { resourceId }, SimilarityIndex::append);
+        }
+    }
+
+    public List<Match> similarTo(Long resourceId, int limit, double minSimilarity) {
+        int[] signature = current.signatures.get(resourceId);
+        return signature == null ? List.of() : query(signature, resourceId, limit, minSimilarity);
+    }
+
+    /**
+     * Candidates from the LSH buckets, verified against the full signature and
+     * sorted by estimated similarity. {@code exclude} is skipped (pass the
+     * resource itself, or null for a fresh signature).
+     */
+    public List<Match> query(int[] signature, Long exclude, int limit, double minSimilarity) {
+        if (signature == null) {
+            return List.of();
+        }
+        Snapshot index = current;
+        Set<Long> seen = new HashSet<>();
+        List<Match> matches = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            long[] bucket = index.buckets.get(bandKey(signature, band));
+            if (bucket == null) {
+                continue;
+            }
+            for (long candidate : bucket) {
+                if ((exclude != null && candidate == exclude) || !seen.add(candidate)) {
+                    continue;
+                }
+
+                int[] other = index.signatures.get(candidate);
+                if (other == null) {
+                    continue;
+                }
+                double similarity = estimate(signature, other);
+                if (similarity >= minSimilarity) {
+                    matches.add(new Match(candidate, similarity));
+                }
+            }
+        }
+        matches.sort((a, b) -> Double.compare(b.similarity, a.similarity));
+        return matches.size() > limit ? matches.subList(0, limit) : matches;
+    }
+
+    // Returns null when the text has no words at all
+    public static int[] signatureOf(String title, String description, String extractedText) {
+        StringBuilder text = new StringBuilder();
+        if (title != null) text.append(title).append(' ');
+        if (description != null) text.append(description).append(' ');
+        if (extractedText != null) text.append(extractedText);
+
+        String[] words = text.toString().toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+");
+        List<String> tokens = new ArrayList<>(words.length);
+        for (String word : words) {
+            if (!word.isEmpty()) tokens.add(word);
+        }
+        // Nothing to compare on: every empty text would otherwise look identical
+        if (tokens.isEmpty()) {
+            return null;
+        }
+
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, tokens.size() - SHINGLE_WORDS + 1);
+        for (int s = 0; s < shingles; s++) {
+            long h = 0xcbf29ce484222325L;
+            for (int w = s; w < Math.min(tokens.size(), s + SHINGLE_WORDS); w++) {
+                h = fnv(h, tokens.get(w));
+            }
+            for (int i = 0; i < NUM_HASHES; i++) {
+                int value = (int) ((SEEDS_A[i] * h + SEEDS_B[i]) >>> 33);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    // The persisted signature, or one from title and description for rows imported without it
+    public static int[] storedOrComputed(byte[] stored, String title, String description) {
+        return stored != null && stored.length == NUM_HASHES * Integer.BYTES
+                ? decode(stored)
+                : signatureOf(title, description, null);
+    }
+
+    public static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    static int[] decode(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    static double estimate(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < NUM_HASHES; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    private static long bandKey(int[] signature, int band) {
+        long h = 0xcbf29ce484222325L ^ band;
+        for (int r = band * ROWS; r < (band + 1) * ROWS; r++) {
+            h = (h ^ signature[r]) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    private static long fnv(long h, String token) {
+        for (int i = 0; i < token.length(); i++) {
+            h = (h ^ token.charAt(i)) * 0x100000001b3L;
+        }
+        return (h ^ ' ') * 0x100000001b3L;
+    }
+
+    private static long[] append(long[] bucket, long[] added) {
+        for (long id : bucket) {
+            if (id == added[0]) return bucket;
+        }
+        long[] grown = Arrays.copyOf(bucket, bucket.length + 1);
+        grown[bucket.length] = added[0];
+        return grown;
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.demo.Services;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Coalesces concurrent identical reads: while one request computes a key,
+ * every other request for that key waits for the same result instead of
+ * running the same queries. The result is then kept for a short window
+ * (singleflight.window-ms), so a burst that arrives just after the first
+ * load finishes is served from memory too.
+ *
+ * The leader runs the loader on its own thread, outside any lock; waiters
+ * park on a CompletableFuture, which is fine on virtual threads. A failure
+ * is passed to everyone waiting at that moment but is not remembered.
+ *
+ * Keys must change whenever the result may (embed the ETag or catalog
+ * version), because the window does not see writes. QueryCache and
+ * NearCache coalesce their misses through {@link #coalesce}, without the
+ * window, since they keep results themselves. Values follow the same
+ * rules as QueryCache: immutable, no JPA entities. Memory is bounded by the
+ * number of distinct keys being loaded at once plus singleflight.max-size
+ * recent results.
+ *
+ * Metrics: singleflight.requests{name, result=executed|coalesced|recent} and
+ * singleflight.in-flight.
+ */
+@Service
+public class SingleFlight {
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Cache<String, Object> recent;
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlight(
+            @Value("${singleflight.window-ms:500}") long windowMs,
+            @Value("${singleflight.max-size:10000}") long maxSize,
+            MeterRegistry meterRegistry) {
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(Math.max(windowMs, 1)))
+                .build();
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("singleflight.in-flight", inFlight, Map::size).register(meterRegistry);
+    }
+
+    // Coalesced, then kept for the window
+    @SuppressWarnings("unchecked")
+    public <T> T get(String name, String key, Supplier<T> loader) {
+        String fullKey = name + '#' + key;
+        T value = (T) recent.getIfPresent(fullKey);
+        if (value != null) {
+            count(name, "recent");
+            return value;
+        }
+        return load(name, fullKey, loader, true);
+    }
+
+    // Coalesced only, for callers that keep the result in a cache of their own
+    public <T> T coalesce(String name, String key, Supplier<T> loader) {
+        return load(name, name + '#' + key, loader, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T load(String name, String fullKey, Supplier<T> loader, boolean keep) {
+        CompletableFuture<Object> mine = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(fullKey, mine);
+        if (leader != null) {
+            count(name, "coalesced");
+            try {
+                return (T) leader.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        count(name, "executed");
+        try {
+            T loaded = loader.get();
+            if (keep && loaded != null) {
+                recent.put(fullKey, loaded);
+            }
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException | Error e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // Only after the result is in the window, so a request arriving in between finds one of them
+            inFlight.remove(fullKey, mine);
+        }
+    }
+
+    public long requests(String name, String result) {
+        LongAdder adder = counters.get(name + '#' + result);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    private void count(String name, String result) {
+        counters.computeIfAbsent(name + '#' + result, k -> {
+            LongAdder adder = new LongAdder();
+            FunctionCounter.builder("singleflight.requests", adder, LongAdder::sum)
+                    .tag("name", name)
+                    .tag("result", result)
+                    .register(meterRegistry);
+            return adder;
+        }).increment();
+    }
+}
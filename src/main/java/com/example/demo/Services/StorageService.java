@@ -1,21 +1,49 @@
 package com.example.demo.Services;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.Locale;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Uploaded files on local disk under uploads/.
+ *
+ * Metered as storage.bytes (direction=in|out) and storage.io timers per
+ * operation. A download is timed from opening the file to closing it, so the
+ * timer includes the time the client takes to receive the body. Downloads
+ * served from HotFileCache do not touch the disk and are counted in
+ * hotfiles.bytes-served instead.
+ */
 @Service
 public class StorageService {
 
+    private static final Set<String> TEXT_EXTENSIONS =
+            Set.of("txt", "md", "csv", "sql", "java", "py", "js", "ts", "c", "cpp", "h", "html", "xml", "json");
+
     private final Path rootLocation = Paths.get("uploads");
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private HotFileCache hotFiles;
+
     public StorageService() {
         try {
             Files.createDirectories(rootLocation);
@@ -27,7 +55,22 @@ public class StorageService {
     public String store(MultipartFile file) {
         try {
             String filename = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
-            Files.copy(file.getInputStream(), this.rootLocation.resolve(filename));
+            long start = System.nanoTime();
+            long bytes = Files.copy(file.getInputStream(), this.rootLocation.resolve(filename));
+            recordIo("upload", "in", bytes, start);
+            return filename;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to store file.", e);
+        }
+    }
+
+    // Copies a file that is already on the server's disk (bulk import)
+    public String store(Path source) {
+        try {
+            String filename = UUID.randomUUID().toString() + "_" + source.getFileName();
+            long start = System.nanoTime();
+            Path target = Files.copy(source, this.rootLocation.resolve(filename));
+            recordIo("import", "in", Files.size(target), start);
             return filename;
         } catch (IOException e) {
             throw new RuntimeException("Failed to store file.", e);
@@ -37,7 +80,16 @@ public class StorageService {
     public Resource loadAsResource(String filename) {
         try {
             Path file = rootLocation.resolve(filename);
-            Resource resource = new UrlResource(file.toUri());
+            Resource cached = hotFiles.get(file);
+            if (cached != null) {
+                return cached;
+            }
+            Resource resource = new UrlResource(file.toUri()) {
+                @Override
+                public InputStream getInputStream() throws IOException {
+                    return new MeteredInputStream(super.getInputStream(), "download");
+                }
+            };
             if (resource.exists() || resource.isReadable()) {
                 return resource;
             } else {
@@ -47,4 +99,81 @@ public class StorageService {
             throw new RuntimeException("Could not read file: " + filename, e);
         }
     }
-}
\ No newline at end of file
+
+    // The stored file for the front proxy to send (DownloadOffload); never a path outside uploads/
+    public Path locate(String filename) {
+        Path root = rootLocation.toAbsolutePath().normalize();
+        Path file = root.resolve(filename).normalize();
+        if (!file.getParent().equals(root) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new RuntimeException("Could not read file: " + filename);
+        }
+        return file;
+    }
+
+    // Returns up to maxBytes of a stored file as text, or null if it isn't a plain-text format
+    public String readTextPrefix(String filename, int maxBytes) {
+        int dot = filename.lastIndexOf('.');
+        String extension = dot < 0 ? "" : filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        if (!TEXT_EXTENSIONS.contains(extension)) {
+            return null;
+        }
+        try (InputStream in = new MeteredInputStream(Files.newInputStream(rootLocation.resolve(filename)), "text-prefix")) {
+            return new String(in.readNBytes(maxBytes), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void recordIo(String operation, String direction, long bytes, long startNanos) {
+        Timer.builder("storage.io")
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("storage.bytes")
+                .baseUnit("bytes")
+                .tag("direction", direction)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    // Counts what is actually read and records the whole open-to-close interval once
+    private class MeteredInputStream extends FilterInputStream {
+        private final String operation;
+        private final long start = System.nanoTime();
+        private long bytes;
+        private boolean closed;
+
+        MeteredInputStream(InputStream in, String operation) {
+            super(in);
+            this.operation = operation;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                bytes++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                bytes += n;
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            super.close();
+            if (!closed) {
+                closed = true;
+                recordIo(operation, "out", bytes, start);
+            }
+        }
+    }
+}
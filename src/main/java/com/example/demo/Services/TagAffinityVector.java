@@ -0,0 +1,125 @@
+package com.example.demo.Services;
+
+import java.util.Arrays;
+
+/**
+ * Immutable sparse vector of tag weights for one user.
+ *
+ * Stored as two parallel arrays sorted by tag id, plus the sorted ids of the
+ * resources the user already interacted with (so the feed can skip them).
+ * Updates return a new instance, which keeps concurrent readers lock-free.
+ */
+public final class TagAffinityVector {
+
+    // Keep only the strongest tags so one heavy user can't blow up memory
+    static final int MAX_TAGS = 64;
+
+    public static final TagAffinityVector EMPTY =
+            new TagAffinityVector(new long[0], new float[0], new long[0]);
+
+    private final long[] tagIds;
+    private final float[] weights;
+    private final long[] seenResources;
+
+    private TagAffinityVector(long[] tagIds, float[] weights, long[] seenResources) {
+        this.tagIds = tagIds;
+        this.weights = weights;
+        this.seenResources = seenResources;
+    }
+
+    public int size() {
+        return tagIds.length;
+    }
+
+    public long tagId(int i) {
+        return tagIds[i];
+    }
+
+    public float weight(int i) {
+        return weights[i];
+    }
+
+    public boolean hasSeen(long resourceId) {
+        return Arrays.binarySearch(seenResources, resourceId) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return tagIds.length == 0;
+    }
+
+    /**
+     * Adds {@code weight} spread evenly over {@code resourceTags}. A negative
+     * weight undoes an earlier event (e.g. un-favoriting) or records a dislike.
+     * The resource stays marked as seen either way.
+     */
+    public TagAffinityVector plus(long resourceId, long[] resourceTags, float weight) {
+        long[] seen = insert(seenResources, resourceId);
+        if (resourceTags.length == 0) {
+            return new TagAffinityVector(tagIds, weights, seen);
+        }
+
+        float share = weight / resourceTags.length;
+        long[] mergedIds = new long[tagIds.length + resourceTags.length];
+        float[] mergedWeights = new float[mergedIds.length];
+        int i = 0, j = 0, n = 0;
+        while (i < tagIds.length || j < resourceTags.length) {
+            if (j == resourceTags.length || (i < tagIds.length && tagIds[i] < resourceTags[j])) {
+                mergedIds[n] = tagIds[i];
+                mergedWeights[n++] = weights[i++];
+            } else if (i == tagIds.length || resourceTags[j] < tagIds[i]) {
+                mergedIds[n] = resourceTags[j++];
+                mergedWeights[n++] = share;
+            } else {
+                mergedIds[n] = tagIds[i];
+                mergedWeights[n++] = weights[i++] + share;
+                j++;
+            }
+        }
+
+        // Drop tags that cancelled out
+        int kept = 0;
+        for (int k = 0; k < n; k++) {
+            if (Math.abs(mergedWeights[k]) > 1e-4f) {
+                mergedIds[kept] = mergedIds[k];
+                mergedWeights[kept++] = mergedWeights[k];
+            }
+        }
+        return prune(Arrays.copyOf(mergedIds, kept), Arrays.copyOf(mergedWeights, kept), seen);
+    }
+
+    private static TagAffinityVector prune(long[] ids, float[] ws, long[] seen) {
+        if (ids.length <= MAX_TAGS) {
+            return new TagAffinityVector(ids, ws, seen);
+        }
+        float[] magnitudes = new float[ws.length];
+        for (int i = 0; i < ws.length; i++) {
+            magnitudes[i] = Math.abs(ws[i]);
+        }
+        Arrays.sort(magnitudes);
+        float cutoff = magnitudes[magnitudes.length - MAX_TAGS];
+
+        long[] keptIds = new long[MAX_TAGS];
+        float[] keptWeights = new float[MAX_TAGS];
+        int n = 0;
+        for (int i = 0; i < ids.length && n < MAX_TAGS; i++) {
+            if (Math.abs(ws[i]) >= cutoff) {
+                keptIds[n] = ids[i];
+                keptWeights[n++] = ws[i];
+            }
+        }
+        return new TagAffinityVector(Arrays.copyOf(keptIds, n), Arrays.copyOf(keptWeights, n), seen);
+    }
+
+    private static long[] insert(long[] sorted, long value) {
+        int pos = Arrays.binarySearch(sorted, value);
+        if (pos >= 0) {
+            return sorted;
+        }
+        pos = -pos - 1;
+        long[] result = new long[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(sorted, pos, result, pos + 1, sorted.length - pos);
+        return result;
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.demo.Services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.Util.LongFloatMap;
+import com.example.demo.Util.LongIntMap;
+
+/**
+ * Tag co-occurrence graph built from resource_tags.
+ *
+ * For every tag we keep how many resources carry it, and for every pair of
+ * tags how many resources carry both. Edge weights are derived on read:
+ *   lift = n(a,b) * N / (n(a) * n(b)),  pmi = ln(lift),
+ *   npmi = pmi / -ln(n(a,b) / N)  (in [-1, 1])
+ * and ranked by npmi damped for low support, so a pair seen once doesn't
+ * outrank a pair seen fifty times.
+ */
+@Service
+public class TagGraph {
+
+    @Autowired
+    private ResourceIndex resourceIndex;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private LongIntMap tagCounts = new LongIntMap(256);
+    private Map<Long, LongIntMap> neighbours = new HashMap<>();
+    private int taggedResources;
+
+    public static class RelatedTag {
+        public final long id;
+        public final String name;
+        public final int coOccurrences;
+        public final double lift;
+        public final double score;
+
+        RelatedTag(long id, String name, int coOccurrences, double lift, double score) {
+            this.id = id;
+            this.name = name;
+            this.coOccurrences = coOccurrences;
+            this.lift = lift;
+            this.score = score;
+        }
+    }
+
+    @Order(2)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        LongIntMap counts = new LongIntMap(256);
+        Map<Long, LongIntMap> edges = new HashMap<>();
+        int[] resources = { 0 };
+        resourceIndex.forEachResource((resourceId, tags) -> {
+            addResource(counts, edges, tags);
+            if (tags.length > 0) resources[0]++;
+        });
+
+        lock.writeLock().lock();
+        try {
+            tagCounts = counts;
+            neighbours = edges;
+            taggedResources = resources[0];
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("Tag graph built: " + counts.size() + " tags, " + resources[0] + " tagged resources");
+    }
+
+    // Incremental update after a resource has been tagged
+    public void onResourceTagged(long[] tagIds) {
+        if (tagIds.length == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            addResource(tagCounts, neighbours, tagIds);
+            taggedResources++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Drops a deleted tag and its edges. Resources left with no tag still count
+    // towards N until the next rebuild, which barely moves the other weights.
+    public void removeTag(long tagId) {
+        lock.writeLock().lock();
+        try {
+            LongIntMap edges = neighbours.remove(tagId);
+            if (edges != null) {
+                edges.forEach((target, together) -> {
+                    LongIntMap targetEdges = neighbours.get(target);
+                    if (targetEdges != null) {
+                        neighbours.put(target, without(targetEdges, tagId));
+                    }
+                });
+            }
+            if (tagCounts.containsKey(tagId)) {
+                tagCounts = without(tagCounts, tagId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // LongIntMap has no remove (open addressing), so copy the rest
+    private static LongIntMap without(LongIntMap map, long key) {
+        LongIntMap copy = new LongIntMap(Math.max(map.size(), 8));
+        map.forEach((k, v) -> {
+            if (k != key) {
+                copy.addTo(k, v);
+            }
+        });
+        return copy;
+    }
+
+    public List<RelatedTag> related(long tagId, int limit) {
+        return suggest(new long[] { tagId }, limit);
+    }
+
+    /**
+     * Best next tags given the ones already picked: candidate scores are
+     * summed over every picked tag's edges. With nothing picked yet, returns
+     * the most used tags.
+     */
+    public List<RelatedTag> suggest(long[] picked, int limit) {
+        lock.readLock().lock();
+        try {
+            LongFloatMap scores = new LongFloatMap(64);
+            LongIntMap support = new LongIntMap(64);
+            if (picked.length == 0) {
+                tagCounts.forEach((tag, count) -> scores.addTo(tag, count));
+            }
+            for (long source : picked) {
+                LongIntMap edges = neighbours.get(source);
+                if (edges == null) {
+                    continue;
+                }
+                int sourceCount = tagCounts.get(source);
+                edges.forEach((target, together) -> {
+                    scores.addTo(target, (float) weight(together, sourceCount, tagCounts.get(target), taggedResources));
+                    support.addTo(target, together);
+                });
+            }
+
+            List<RelatedTag> result = new ArrayList<>();
+            scores.forEach((target, score) -> {
+                for (long source : picked) {
+                    if (source == target) return;
+                }
+                int together = support.get(target);
+                // Lift is only meaningful against a single source tag
+                double lift = picked.length == 1 && together > 0
+                        ? lift(together, tagCounts.get(picked[0]), tagCounts.get(target), taggedResources)
+                        : 0;
+                String name = resourceIndex.tagName(target);
+                if (name == null) {
+                    return; // deleted since the graph was built
+                }
+                result.add(new RelatedTag(target, name, together, lift, score));
+            });
+            result.sort((a, b) -> Double.compare(b.score, a.score));
+            return result.size() > limit ? result.subList(0, limit) : result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static double lift(int together, int countA, int countB, int total) {
+        return (double) together * total / ((double) countA * countB);
+    }
+
+    static double weight(int together, int countA, int countB, int total) {
+        if (together == 0 || countA == 0 || countB == 0 || total == 0) {
+            return 0;
+        }
+        double pmi = Math.log(lift(together, countA, countB, total));
+        double pJoint = (double) together / total;
+        // Tags that always appear together: -ln(1) would divide by zero
+        double npmi = pJoint >= 1.0 ? 1.0 : pmi / -Math.log(pJoint);
+        return npmi * together / (together + 1.0);
+    }
+
+    private static void addResource(LongIntMap counts, Map<Long, LongIntMap> edges, long[] tags) {
+        for (int i = 0; i < tags.length; i++) {
+            counts.addTo(tags[i], 1);
+            for (int j = 0; j < tags.length; j++) {
+                if (i != j) {
+                    edges.computeIfAbsent(tags[i], k -> new LongIntMap(8)).addTo(tags[j], 1);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.example.demo.Services;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.demo.Repositories.FavoriteRepository;
+import com.example.demo.Repositories.RatingRepository;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Util.LongFloatMap;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Keeps a sparse tag-affinity vector per user and ranks resources against it
+ * for the personalised feed.
+ *
+ * Vectors are built lazily from the user's favorites, ratings and uploads the
+ * first time they are needed, then patched in place on every favorite/rating
+ * event. They can always be rebuilt from the database, so evicting is safe.
+ */
+@Service
+public class UserAffinityService {
+
+    static final float FAVORITE_WEIGHT = 3f;
+    static final float UPLOAD_WEIGHT = 2f;
+    static final int MAX_PROFILES = 50_000;
+    // Only the strongest tags take part in scoring, to bound the work per request
+    static final int MAX_QUERY_TAGS = 32;
+
+    @Autowired
+    private ResourceIndex resourceIndex;
+    @Autowired
+    private FavoriteRepository favoriteRepository;
+    @Autowired
+    private RatingRepository ratingRepository;
+    @Autowired
+    private ResourceRepository resourceRepository;
+
+    // Bounded by size with W-TinyLFU, so active users keep their profiles
+    private final Cache<Long, TagAffinityVector> profiles = Caffeine.newBuilder()
+            .maximumSize(MAX_PROFILES)
+            .build();
+    private final Map<Long, PendingLoad> loading = new ConcurrentHashMap<>();
+
+    // A profile being loaded; events for the user wait here until it is published
+    private static class PendingLoad {
+        final CompletableFuture<TagAffinityVector> result = new CompletableFuture<>();
+        final List<Event> events = new ArrayList<>();
+        boolean done;
+    }
+
+    private record Event(long resourceId, float weight) {
+    }
+
+    public static class ScoredResource {
+        public final long resourceId;
+        public final float score;
+
+        ScoredResource(long resourceId, float score) {
+            this.resourceId = resourceId;
+            this.score = score;
+        }
+    }
+
+    /**
+     * The load runs outside any map lock: computeIfAbsent would hold a bin
+     * lock over three JDBC queries, pinning the carrier thread on virtual
+     * threads and stalling other users in the same bin. Concurrent callers
+     * for one user wait on the same load, and events that arrive while it
+     * runs are queued on it and applied before the profile is published.
+     */
+    public TagAffinityVector profileOf(Long userId) {
+        TagAffinityVector profile = profiles.getIfPresent(userId);
+        if (profile != null) {
+            return profile;
+        }
+        PendingLoad pending = new PendingLoad();
+        PendingLoad running = loading.putIfAbsent(userId, pending);
+        if (running != null) {
+            return running.result.join();
+        }
+        try {
+            profile = load(userId);
+            synchronized (pending) {
+                for (Event event : pending.events) {
+                    long[] tags = resourceIndex.tagsOf(event.resourceId());
+                    profile = profile.plus(event.resourceId(), tags, event.weight());
+                }
+                profiles.put(userId, profile);
+                pending.done = true;
+            }
+            pending.result.complete(profile);
+            return profile;
+        } catch (RuntimeException e) {
+            pending.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(userId, pending);
+        }
+    }
+
+    public void onFavorite(Long userId, Long resourceId, boolean added) {
+        apply(userId, resourceId, added ? FAVORITE_WEIGHT : -FAVORITE_WEIGHT);
+    }
+
+    public void onRating(Long userId, Long resourceId, int ratingValue) {
+        apply(userId, resourceId, ratingWeight(ratingValue));
+    }
+
+    public void onUpload(Long userId, Long resourceId) {
+        apply(userId, resourceId, UPLOAD_WEIGHT);
+    }
+
+    /**
+     * Returns the best {@code limit} resources after skipping {@code offset},
+     * highest score first. Resources the user already interacted with are
+     * excluded, and each resource appears at most once.
+     */
+    public List<ScoredResource> rankFeed(Long userId, int offset, int limit) {
+        TagAffinityVector profile = profileOf(userId);
+        if (profile.isEmpty()) {
+            return List.of();
+        }
+
+        LongFloatMap scores = new LongFloatMap(256);
+        for (int t : strongestTags(profile)) {
+            BitSet postings = resourceIndex.resourcesWithTag(profile.tagId(t));
+            if (postings == null) {
+                continue;
+            }
+            float weight = profile.weight(t);
+            for (int bit = postings.nextSetBit(0); bit >= 0; bit = postings.nextSetBit(bit + 1)) {
+                scores.addTo(bit, weight);
+            }
+        }
+
+        int wanted = offset + limit;
+        PriorityQueue<ScoredResource> top = new PriorityQueue<>(wanted + 1, UserAffinityService::compare);
+        scores.forEach((resourceId, raw) -> {
+            if (raw <= 0 || profile.hasSeen(resourceId)) {
+                return;
+            }
+            // Dampen resources that match simply because they carry many tags
+            float score = raw / (float) Math.sqrt(Math.max(1, resourceIndex.tagsOf(resourceId).length));
+            top.offer(new ScoredResource(resourceId, score));
+            if (top.size() > wanted) {
+                top.poll();
+            }
+        });
+
+        List<ScoredResource> ranked = new ArrayList<>(top);
+        ranked.sort((a, b) -> compare(b, a));
+        return offset >= ranked.size() ? List.of() : ranked.subList(offset, ranked.size());
+    }
+
+    private void apply(Long userId, Long resourceId, float weight) {
+        PendingLoad pending = loading.get(userId);
+        if (pending != null) {
+            synchronized (pending) {
+                if (!pending.done) {
+                    pending.events.add(new Event(resourceId, weight));
+                    return;
+                }
+            }
+        }
+        long[] tags = resourceIndex.tagsOf(resourceId);
+        // Only patch profiles already in memory; others are built fresh from the DB
+        profiles.asMap().computeIfPresent(userId, (k, profile) -> profile.plus(resourceId, tags, weight));
+    }
+
+    private TagAffinityVector load(Long userId) {
+        TagAffinityVector profile = TagAffinityVector.EMPTY;
+        for (Long resourceId : favoriteRepository.findResourceIdsByUserId(userId)) {
+            profile = profile.plus(resourceId, resourceIndex.tagsOf(resourceId), FAVORITE_WEIGHT);
+        }
+        for (Object[] row : ratingRepository.findResourceRatingsByUserId(userId)) {
+            Long resourceId = (Long) row[0];
+            profile = profile.plus(resourceId, resourceIndex.tagsOf(resourceId), ratingWeight((Integer) row[1]));
+        }
+        for (Long resourceId : resourceRepository.findIdsByUploaderId(userId)) {
+            profile = profile.plus(resourceId, resourceIndex.tagsOf(resourceId), UPLOAD_WEIGHT);
+        }
+        return profile;
+    }
+
+    private static int[] strongestTags(TagAffinityVector profile) {
+        Integer[] order = new Integer[profile.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> Float.compare(Math.abs(profile.weight(b)), Math.abs(profile.weight(a))));
+        int n = Math.min(order.length, MAX_QUERY_TAGS);
+        int[] result = new int[n];
+        for (int i = 0; i < n; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+
+    // 5 stars pulls strongly towards a resource's tags, 1-2 stars pushes away
+    static float ratingWeight(int ratingValue) {
+        return ratingValue - 2.5f;
+    }
+
+    // Ascending by score, newer (higher id) resources win ties
+    private static int compare(ScoredResource a, ScoredResource b) {
+        int byScore = Float.compare(a.score, b.score);
+        return byScore != 0 ? byScore : Long.compare(a.resourceId, b.resourceId);
+    }
+}
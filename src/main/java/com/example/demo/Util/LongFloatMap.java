@@ -0,0 +1,96 @@
+package com.example.demo.Util;
+
+/**
+ * Small open-addressing map from positive long ids to float scores.
+ * Used as a scratch accumulator on hot paths where boxing every
+ * Long/Float into a HashMap would dominate the cost.
+ * Key 0 is reserved as the empty marker (database ids start at 1).
+ * Not thread-safe: create one per request.
+ */
+public class LongFloatMap {
+
+    private long[] keys;
+    private float[] values;
+    private int size;
+    private int mask;
+
+    public LongFloatMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, expectedSize * 2 - 1)) << 1;
+        keys = new long[capacity];
+        values = new float[capacity];
+        mask = capacity - 1;
+    }
+
+    public void addTo(long key, float delta) {
+        int slot = slotOf(key);
+        if (keys[slot] == 0) {
+            keys[slot] = key;
+            values[slot] = delta;
+            if (++size * 2 > keys.length) {
+                grow();
+            }
+        } else {
+            values[slot] += delta;
+        }
+    }
+
+    public float get(long key) {
+        int slot = slotOf(key);
+        return keys[slot] == 0 ? 0f : values[slot];
+    }
+
+    public boolean containsKey(long key) {
+        return keys[slotOf(key)] != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void forEach(Consumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    private int slotOf(long key) {
+        if (key == 0) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+        int slot = mix(key) & mask;
+        while (keys[slot] != 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        float[] oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new float[oldKeys.length * 2];
+        mask = keys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int slot = mix(oldKeys[i]) & mask;
+                while (keys[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    @FunctionalInterface
+    public interface Consumer {
+        void accept(long key, float value);
+    }
+}
@@ -0,0 +1,113 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.demo.DTO.ResourceStatsResponse;
+import com.example.demo.Services.ActivityLog;
+import com.example.demo.Services.ActivityStats;
+
+/**
+ * Views, downloads and comments go through the activity ring into
+ * resource_events, and /stats reports them once the rollup has run. Other
+ * tests in the context record events too, so counts are compared as deltas.
+ */
+class ActivityStatsTests extends SeededCatalogTest {
+
+    @Autowired
+    private ActivityLog activityLog;
+    @Autowired
+    private ActivityStats activityStats;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private ResourceStatsResponse.Counts totals(Long resourceId) {
+        activityStats.rollUp();
+        LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+        return activityStats.stats(resourceId, now.minusDays(1), now.plusHours(1), ActivityStats.Bucket.HOUR).totals;
+    }
+
+    @Test
+    void eventsReachTheRollupsAndTheCounters() throws Exception {
+        Long id = resourceIds.get(11);
+        ResourceStatsResponse.Counts before = totals(id);
+        int viewCount = resourceRepository.findById(id).orElseThrow().viewCount;
+
+        for (int i = 0; i < 3; i++) {
+            mvc.perform(get("/api/resources/{id}/details", id)).andExpect(status().isOk());
+        }
+        mvc.perform(post("/api/resources/download/{id}/increment", id).with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+        mvc.perform(post("/api/resources/{id}/comments", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"Counted\"}")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+        assertThat(activityLog.buffered()).isGreaterThanOrEqualTo(5);
+
+        ResourceStatsResponse.Counts after = totals(id);
+        assertThat(after.views - before.views).isEqualTo(3);
+        assertThat(after.downloads - before.downloads).isEqualTo(1);
+        assertThat(after.comments - before.comments).isEqualTo(1);
+        assertThat(resourceRepository.findById(id).orElseThrow().viewCount).isEqualTo(viewCount + 3);
+    }
+
+    @Test
+    void onlyViewsOfExistingResourcesAreRecordedWithTheViewer() throws Exception {
+        long missing = resourceIds.get(resourceIds.size() - 1) + 1000;
+        activityLog.flush();
+
+        mvc.perform(get("/api/resources/{id}/details", missing)
+                        .header(HttpHeaders.IF_NONE_MATCH, changeVersions.resourceETag(missing, null)))
+                .andExpect(status().isNotModified());
+        assertThatThrownBy(() -> mvc.perform(get("/api/resources/{id}/details", missing)))
+                .hasRootCauseMessage("Resource not found");
+        assertThat(activityLog.buffered()).isZero();
+
+        Long id = resourceIds.get(13);
+        mvc.perform(get("/api/resources/{id}/details", id).with(loggedInAs(WRITER))).andExpect(status().isOk());
+        activityLog.flush();
+        assertThat(jdbc.queryForList("SELECT user_id FROM resource_events WHERE resource_id = ? AND event_type = ?",
+                Long.class, id, ActivityLog.Type.VIEW.code)).contains(user(WRITER).id);
+    }
+
+    @Test
+    void statsEndpointReturnsOnePointPerBucket() throws Exception {
+        activityStats.rollUp();
+        mvc.perform(get("/api/resources/{id}/stats", resourceIds.get(12))
+                        .param("from", "2026-01-01")
+                        .param("to", "2026-01-08"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.bucket").value("day"))
+                .andExpect(jsonPath("$.series.length()").value(7))
+                .andExpect(jsonPath("$.totals.views").value(0));
+        mvc.perform(get("/api/resources/{id}/stats", resourceIds.get(12)).param("bucket", "hour"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.series.length()").value(49));
+    }
+
+    @Test
+    void badRangesAreRejected() throws Exception {
+        mvc.perform(get("/api/resources/{id}/stats", resourceIds.get(12)).param("bucket", "week"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/resources/{id}/stats", resourceIds.get(12))
+                        .param("from", "2025-01-01").param("to", "2026-01-01").param("bucket", "hour"))
+                .andExpect(status().isBadRequest());
+        mvc.perform(get("/api/resources/{id}/stats", resourceIds.get(12))
+                        .param("from", "2026-01-08").param("to", "2026-01-01"))
+                .andExpect(status().isBadRequest());
+    }
+}
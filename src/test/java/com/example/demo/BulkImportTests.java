@@ -0,0 +1,106 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.demo.Services.BulkImportService;
+
+/**
+ * Manifest files stay inside the files directory, and over HTTP the files
+ * directory stays inside import.root (target/import-root in the test
+ * properties) and only import.admins may import. A row that fails, while
+ * parsing or when its batch is written, is reported and the others are
+ * still imported.
+ *
+ * Imports run against a database of their own, so the rows they add do not
+ * show up in the shared seeded catalog.
+ */
+@TestPropertySource(properties =
+        "spring.datasource.url=jdbc:h2:mem:bulk-import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1")
+class BulkImportTests extends SeededCatalogTest {
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @TempDir
+    Path filesDir;
+
+    private BulkImportService.ImportReport importRows(String ndjson, boolean requireFiles) throws Exception {
+        return bulkImportService.importManifest(new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)),
+                filesDir, user(WRITER).id, requireFiles);
+    }
+
+    @Test
+    void pathsOutsideTheFilesDirectoryAreRefused() throws Exception {
+        for (boolean requireFiles : new boolean[] { true, false }) {
+            BulkImportService.ImportReport report = importRows("""
+                    {"title": "Traversal", "file": "../../../../etc/passwd"}
+                    {"title": "Absolute", "file": "/etc/passwd"}
+                    {"title": "Sneaky", "file": "notes/../../secret.txt"}
+                    """, requireFiles);
+
+            assertThat(report.imported).isZero();
+            assertThat(report.failed).isEqualTo(3);
+            assertThat(report.errors).allSatisfy(error ->
+                    assertThat((String) error.get("error")).startsWith("File path must stay inside the files directory"));
+        }
+    }
+
+    @Test
+    void badRowsFailAloneAndTheRestAreImported() throws Exception {
+        Files.writeString(filesDir.resolve("notes.txt"), "lecture notes");
+        String title = "Imported " + System.nanoTime();
+        long resourcesBefore = resourceRepository.count();
+
+        BulkImportService.ImportReport report = importRows("""
+                {"title": "%1$s a", "file": "notes.txt", "tags": ["java", {"name": "%1$s-new"}], "categories": ["Imported"]}
+                {"file": "notes.txt"}
+                {"title": "%1$s missing", "file": "absent.txt"}
+                {"title": "%2$s", "file": "notes.txt"}
+                {"title": "%1$s b", "file": "notes.txt", "tags": ["%1$s-new"]}
+                """.formatted(title, "x".repeat(300)), true);
+
+        // Rows 2 and 3 fail while parsing, row 4 only when its batch is written and retried row by row
+        assertThat(report.imported).isEqualTo(2);
+        assertThat(report.failed).isEqualTo(3);
+        assertThat(report.errors).extracting(error -> error.get("row"))
+                .containsExactly(2L, 3L, 4L);
+        assertThat(report.errors).extracting(error -> error.get("error"))
+                .startsWith("Missing title", "File not found: absent.txt");
+        assertThat(resourceRepository.count()).isEqualTo(resourcesBefore + 2);
+        assertThat(resourceIndex.tagIdByName(title + "-new")).isNotNull();
+    }
+
+    @Test
+    void httpImportIsForAdminsAndStaysUnderTheImportRoot() throws Exception {
+        MockMultipartFile manifest = new MockMultipartFile("manifest", "manifest.json", "application/json",
+                "[]".getBytes(StandardCharsets.UTF_8));
+
+        mvc.perform(multipart("/api/resources/import").file(manifest).with(loggedInAs("user1@example.com")))
+                .andExpect(status().isForbidden());
+        mvc.perform(multipart("/api/resources/import").file(manifest)
+                        .param("filesDir", "/etc")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isBadRequest());
+        mvc.perform(multipart("/api/resources/import").file(manifest)
+                        .param("filesDir", "incoming/../..")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isBadRequest());
+        mvc.perform(multipart("/api/resources/import").file(manifest)
+                        .param("filesDir", "incoming")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+}
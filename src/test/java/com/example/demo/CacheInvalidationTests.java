@@ -0,0 +1,120 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.sql.PreparedStatement;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+
+import com.example.demo.Entities.Tag;
+import com.example.demo.Services.InvalidationBus;
+
+/**
+ * Another node's write, delivered as a notification payload, moves the ETags
+ * and stops the near cache from serving what it changed; its uploads and tag
+ * deletions reach the tag graph and similarity index. The test database is
+ * H2, so the listener itself never starts and payloads are handed in
+ * directly.
+ */
+class CacheInvalidationTests extends SeededCatalogTest {
+
+    @Autowired
+    private InvalidationBus invalidationBus;
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private String etagOf(String url) throws Exception {
+        return perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void remoteResourceChangeMovesOnlyThatResource() throws Exception {
+        String changed = etagOf("/api/resources/" + resourceIds.get(5) + "/details");
+        String other = etagOf("/api/resources/" + resourceIds.get(6) + "/details");
+        String tags = etagOf("/api/tags");
+
+        invalidationBus.handle("comments:" + resourceIds.get(5));
+
+        assertThat(etagOf("/api/resources/" + resourceIds.get(5) + "/details")).isNotEqualTo(changed);
+        assertThat(etagOf("/api/resources/" + resourceIds.get(6) + "/details")).isEqualTo(other);
+        assertThat(etagOf("/api/tags")).isEqualTo(tags);
+    }
+
+    @Test
+    void remoteTagRenameIsNotServedFromTheNearCache() throws Exception {
+        Tag tag = tagRepository.save(new Tag("remote-" + System.nanoTime(), null, false));
+        mvc.perform(get("/api/tags/{id}", tag.id)).andExpect(jsonPath("$.name").value(tag.name));
+
+        // Written behind this node's back, as another node would
+        String renamed = tag.name + "-renamed";
+        jdbc.update("UPDATE tags SET name = ? WHERE id = ?", renamed, tag.id);
+        mvc.perform(get("/api/tags/{id}", tag.id)).andExpect(jsonPath("$.name").value(tag.name));
+
+        invalidationBus.handle("tags:" + tag.id);
+        mvc.perform(get("/api/tags/{id}", tag.id)).andExpect(jsonPath("$.name").value(renamed));
+        assertThat(resourceIndex.tagIdByName(renamed)).isEqualTo(tag.id);
+    }
+
+    @Test
+    void wildcardPayloadMovesEveryETag() throws Exception {
+        String details = etagOf("/api/resources/" + resourceIds.get(7) + "/details");
+        String categories = etagOf("/api/resources/categories");
+
+        invalidationBus.handle("resources:*");
+
+        assertThat(etagOf("/api/resources/" + resourceIds.get(7) + "/details")).isNotEqualTo(details);
+        assertThat(etagOf("/api/resources/categories")).isNotEqualTo(categories);
+    }
+
+    @Test
+    void remoteUploadsAndTagDeletionsReachTheTagGraphAndSimilarityIndex() throws Exception {
+        Long java = resourceIndex.tagIdByName("java");
+        Tag remote = tagRepository.save(new Tag("remote-" + System.nanoTime(), null, false));
+        Long copy = null;
+        try {
+            // Another node uploads a copy of seeded resource 3, tagged java and the new tag
+            GeneratedKeyHolder key = new GeneratedKeyHolder();
+            jdbc.update(connection -> {
+                PreparedStatement insert = connection.prepareStatement("INSERT INTO resources (title, description, "
+                        + "file_path, uploader_id, view_count, download_count) VALUES (?, ?, ?, ?, 0, 0)",
+                        new String[] { "id" });
+                insert.setString(1, "Guide 3 to react");
+                insert.setString(2, "Notes on react and docker, part 3");
+                insert.setString(3, "remote.txt");
+                insert.setLong(4, user(WRITER).id);
+                return insert;
+            }, key);
+            copy = key.getKey().longValue();
+            jdbc.update("INSERT INTO resource_tags (resource_id, tag_id) VALUES (?, ?), (?, ?)",
+                    copy, java, copy, remote.id);
+
+            invalidationBus.handle("resource_tags:" + copy);
+
+            assertThat(similarityIndex.similarTo(copy, 10, 0.99)).extracting(match -> match.resourceId)
+                    .contains(resourceIds.get(3));
+            assertThat(tagGraph.related(remote.id, 10)).extracting(tag -> tag.id).containsExactly(java);
+
+            // Then deletes the tag
+            jdbc.update("DELETE FROM resource_tags WHERE tag_id = ?", remote.id);
+            jdbc.update("DELETE FROM tags WHERE id = ?", remote.id);
+            invalidationBus.handle("tags:" + remote.id);
+
+            assertThat(tagGraph.related(java, 50)).extracting(tag -> tag.id).doesNotContain(remote.id);
+            assertThat(tagGraph.related(remote.id, 10)).isEmpty();
+        } finally {
+            if (copy != null) {
+                jdbc.update("DELETE FROM resource_tags WHERE resource_id = ?", copy);
+                jdbc.update("DELETE FROM resources WHERE id = ?", copy);
+            }
+            jdbc.update("DELETE FROM tags WHERE id = ?", remote.id);
+            invalidationBus.handle("resources:*");
+        }
+    }
+}
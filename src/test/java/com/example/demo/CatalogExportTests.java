@@ -0,0 +1,76 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * The export writes one flat row per resource, in id order: NDJSON with the
+ * same fields as the CSV header, tags and categories as arrays in NDJSON and
+ * ;-joined in CSV.
+ */
+class CatalogExportTests extends SeededCatalogTest {
+
+    private static final List<String> COLUMNS = List.of("id", "title", "description", "filePath", "uploaderId",
+            "averageRating", "viewCount", "downloadCount", "ratingCount", "commentCount", "favoriteCount", "tags",
+            "categories", "createdAt");
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private String export(String format, String contentType) throws Exception {
+        return perform(get("/api/resources/export").param("format", format).with(loggedInAs(WRITER)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", contentType))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Test
+    void ndjsonHasOneFlatObjectPerResource() throws Exception {
+        String[] lines = export("ndjson", "application/x-ndjson").split("\n");
+
+        assertThat(lines).hasSize(resourceIds.size());
+        List<Long> ids = new ArrayList<>();
+        for (String line : lines) {
+            JsonNode row = objectMapper.readTree(line);
+            List<String> fields = new ArrayList<>();
+            row.fieldNames().forEachRemaining(fields::add);
+            assertThat(fields).isEqualTo(COLUMNS);
+            ids.add(row.get("id").asLong());
+        }
+        assertThat(ids).isEqualTo(resourceIds);
+
+        // Seeded resource 3: tags react, docker and linux, category Science
+        JsonNode row = objectMapper.readTree(lines[3]);
+        assertThat(row.get("title").asText()).isEqualTo("Guide 3 to react");
+        assertThat(row.get("filePath").asText()).isEqualTo("seed_3.txt");
+        assertThat(row.get("uploaderId").isIntegralNumber()).isTrue();
+        assertThat(row.get("ratingCount").asLong()).isEqualTo(1);
+        assertThat(row.get("commentCount").isIntegralNumber()).isTrue();
+        assertThat(row.get("favoriteCount").isIntegralNumber()).isTrue();
+        assertThat(row.get("tags")).extracting(JsonNode::asText)
+                .containsExactlyInAnyOrder("react", "docker", "linux");
+        assertThat(row.get("categories")).extracting(JsonNode::asText).containsExactly("Science");
+    }
+
+    @Test
+    void csvQuotesDescriptionsWithCommas() throws Exception {
+        String[] lines = export("csv", "text/csv").split("\n");
+
+        assertThat(lines[0]).isEqualTo(String.join(",", COLUMNS));
+        assertThat(lines).hasSize(resourceIds.size() + 1);
+        assertThat(lines[4]).startsWith(resourceIds.get(3) + ",Guide 3 to react,\"Notes on react and docker, part 3\","
+                + "seed_3.txt,");
+        assertThat(lines[4]).contains(",Science,");
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+/**
+ * ETags change when the data behind them does, and only then.
+ */
+class ConditionalGetTests extends SeededCatalogTest {
+
+    private String etagOf(String url) throws Exception {
+        return perform(get(url)).andExpect(status().isOk()).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    @Test
+    void viewsDoNotChangeTheDetailsETag() throws Exception {
+        String url = "/api/resources/" + resourceIds.get(1) + "/details";
+        String etag = etagOf(url);
+        assertThat(etagOf(url)).isEqualTo(etag);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+    }
+
+    @Test
+    void commentChangesDetailsAndCatalogETags() throws Exception {
+        String url = "/api/resources/" + resourceIds.get(2) + "/details";
+        String details = etagOf(url);
+        String catalog = etagOf("/api/resources");
+        String other = etagOf("/api/resources/" + resourceIds.get(3) + "/details");
+
+        mvc.perform(post("/api/resources/{id}/comments", resourceIds.get(2))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"Changes the ETag\"}")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+
+        assertThat(etagOf(url)).isNotEqualTo(details);
+        assertThat(etagOf("/api/resources")).isNotEqualTo(catalog);
+        assertThat(etagOf("/api/resources/" + resourceIds.get(3) + "/details")).isEqualTo(other);
+    }
+
+    @Test
+    void newTagChangesTagsETagOnly() throws Exception {
+        String tags = etagOf("/api/tags");
+        String categories = etagOf("/api/resources/categories");
+
+        mvc.perform(post("/api/tags")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"etag-" + System.nanoTime() + "\"}")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isCreated());
+
+        assertThat(etagOf("/api/tags")).isNotEqualTo(tags);
+        assertThat(etagOf("/api/tags/predefined")).isNotEqualTo(tags);
+        assertThat(etagOf("/api/resources/categories")).isEqualTo(categories);
+    }
+
+    @Test
+    void loggedInViewerGetsADifferentDetailsETag() throws Exception {
+        String url = "/api/resources/" + resourceIds.get(4) + "/details";
+        String anonymous = etagOf(url);
+        String writer = mvc.perform(get(url).with(loggedInAs(WRITER)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(writer).isNotEqualTo(anonymous);
+        mvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, writer)).andExpect(status().isOk());
+    }
+}
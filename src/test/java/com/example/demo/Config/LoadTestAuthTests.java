@@ -0,0 +1,38 @@
+package com.example.demo.Config;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+@SpringBootTest(properties = {"loadtest.auth.secret=" + LoadTestAuthTests.SECRET, "import.admins=admin@example.com"})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class LoadTestAuthTests {
+
+    static final String SECRET = "letmein";
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Test
+    void theSharedSecretLogsInOrdinaryUsersOnly() throws Exception {
+        mvc.perform(get("/api/users/me/resources")
+                        .header(LoadTestAuthFilter.SECRET_HEADER, SECRET)
+                        .header(LoadTestAuthFilter.USER_HEADER, "driver-1@example.com"))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/users/me/resources")
+                        .header(LoadTestAuthFilter.SECRET_HEADER, SECRET)
+                        .header(LoadTestAuthFilter.USER_HEADER, "Admin@Example.com"))
+                .andExpect(status().isForbidden());
+        mvc.perform(get("/api/users/me/resources")
+                        .header(LoadTestAuthFilter.SECRET_HEADER, "wrong")
+                        .header(LoadTestAuthFilter.USER_HEADER, "driver-1@example.com"))
+                .andExpect(status().is3xxRedirection());
+    }
+}
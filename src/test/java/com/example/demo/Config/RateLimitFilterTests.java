@@ -0,0 +1,101 @@
+package com.example.demo.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletResponse;
+
+class RateLimitFilterTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private RateLimitFilter filter(double ipCapacity, int maxExpensive) {
+        return new RateLimitFilter(registry,
+                new RateLimitFilter.Limits(100, 10),
+                new RateLimitFilter.Limits(ipCapacity, 1),
+                RateLimitConfig.DEFAULT_COSTS, 5, maxExpensive, 500);
+    }
+
+    private MockHttpServletResponse send(RateLimitFilter filter, String method, String uri, String address)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setRemoteAddr(address);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+
+    @Test
+    void emptyBucketGets429WithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(10, 16);
+        // Search costs 5: two fit in a bucket of 10
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.1").getStatus()).isEqualTo(200);
+
+        MockHttpServletResponse limited = send(filter, "GET", "/api/resources/search", "10.0.0.1");
+        assertThat(limited.getStatus()).isEqualTo(429);
+        // 5 tokens at 1 per second
+        assertThat(limited.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("5");
+        assertThat(registry.get("ratelimit.rejected").tag("reason", "rate").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void bucketsArePerClient() throws Exception {
+        RateLimitFilter filter = filter(5, 16);
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.1").getStatus()).isEqualTo(429);
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.2").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void costsFollowTheFirstMatchingRule() {
+        RateLimitFilter filter = filter(10, 16);
+        assertThat(filter.costOf(new MockHttpServletRequest("GET", "/api/resources"))).isEqualTo(5);
+        assertThat(filter.costOf(new MockHttpServletRequest("GET", "/api/resources/7/recommendations"))).isEqualTo(3);
+        assertThat(filter.costOf(new MockHttpServletRequest("POST", "/api/resources/download/7/increment"))).isEqualTo(2);
+        assertThat(filter.costOf(new MockHttpServletRequest("GET", "/api/resources/7/details"))).isEqualTo(1);
+    }
+
+    @Test
+    void expensiveRequestsBeyondTheConcurrencyLimitAreShed() throws Exception {
+        RateLimitFilter filter = filter(1000, 1);
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        MockHttpServletRequest outer = new MockHttpServletRequest("GET", "/api/resources/search");
+        // While the first search is still running, a second one is turned away
+        filter.doFilter(outer, new MockHttpServletResponse(), (request, response) -> {
+            try {
+                nested[0] = send(filter, "GET", "/api/resources/search", "10.0.0.9");
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(nested[0].getStatus()).isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        assertThat(nested[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        // Cheap endpoints are never shed
+        assertThat(send(filter, "GET", "/api/resources/1/details", "10.0.0.9").getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void streamedRequestsHoldTheirSlotUntilTheAsyncRequestCompletes() throws Exception {
+        RateLimitFilter filter = filter(1000, 1);
+        MockHttpServletRequest streamed = new MockHttpServletRequest("GET", "/api/resources");
+        streamed.setAsyncSupported(true);
+        // The chain returns as soon as the streaming body is handed to an async thread
+        filter.doFilter(streamed, new MockHttpServletResponse(),
+                (request, response) -> request.startAsync(request, response));
+        assertThat(streamed.isAsyncStarted()).isTrue();
+
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.9").getStatus())
+                .isEqualTo(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+
+        streamed.getAsyncContext().complete();
+        assertThat(send(filter, "GET", "/api/resources/search", "10.0.0.9").getStatus()).isEqualTo(200);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.demo.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.Cookie;
+
+/**
+ * Routing decisions, with in-memory H2 databases standing in for the primary
+ * and two replicas. Health is set by hand: the lag check needs PostgreSQL.
+ */
+class ReplicaRoutingTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    private HikariDataSource pool(String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setPoolName(name);
+        pool.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        pool.setUsername("sa");
+        pools.add(pool);
+        return pool;
+    }
+
+    @AfterEach
+    void closePools() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private ReplicaRoutingDataSource routing() {
+        return new ReplicaRoutingDataSource(pool("primary"), List.of(pool("replica-0"), pool("replica-1")), 1000,
+                registry);
+    }
+
+    private static String databaseOf(DataSource dataSource, boolean readOnly) throws Exception {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setReadOnly(readOnly);
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    @Test
+    void readOnlyConnectionsRoundRobinOverHealthyReplicas() throws Exception {
+        ReplicaRoutingDataSource routing = routing();
+        routing.setHealthy(0, true);
+        routing.setHealthy(1, true);
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(pools.get(0));
+        dataSource.setReadOnlyDataSource(routing);
+
+        assertThat(databaseOf(dataSource, false)).contains("primary");
+        String first = databaseOf(dataSource, true);
+        String second = databaseOf(dataSource, true);
+        assertThat(List.of(first, second)).anyMatch(url -> url.contains("replica-0"))
+                .anyMatch(url -> url.contains("replica-1"));
+    }
+
+    @Test
+    void unhealthyReplicasFallBackToThePrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing();
+        assertThat(databaseOf(routing, true)).contains("primary");
+
+        routing.setHealthy(1, true);
+        assertThat(databaseOf(routing, true)).contains("replica-1");
+        assertThat(databaseOf(routing, true)).contains("replica-1");
+        assertThat(registry.get("datasource.routing.reads").tag("target", "primary").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void writeSetsCookieAndPinsToThePrimary() throws Exception {
+        ReplicaRoutingDataSource routing = routing();
+        routing.setHealthy(0, true);
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(3), false);
+        AtomicReference<String> used = new AtomicReference<>();
+        MockFilterChain chain = new MockFilterChain() {
+            @Override
+            public void doFilter(ServletRequest request, ServletResponse response) {
+                try {
+                    used.set(databaseOf(routing, true));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+
+        MockHttpServletResponse written = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/resources/1/rate"), written, chain);
+        assertThat(used.get()).contains("primary");
+        String setCookie = written.getHeader(HttpHeaders.SET_COOKIE);
+        assertThat(setCookie).startsWith(ReadYourWritesFilter.COOKIE + "=").contains("Max-Age=3");
+
+        // The next read carries the cookie and stays on the primary
+        MockHttpServletRequest read = new MockHttpServletRequest("GET", "/api/resources/1/details");
+        read.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, setCookie.split("[=;]")[1]));
+        filter.doFilter(read, new MockHttpServletResponse(), chain);
+        assertThat(used.get()).contains("primary");
+
+        // Without it, or once it has run out, reads go to a replica
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/resources/1/details"), new MockHttpServletResponse(),
+                chain);
+        assertThat(used.get()).contains("replica-0");
+        read.setCookies(new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1)));
+        filter.doFilter(read, new MockHttpServletResponse(), chain);
+        assertThat(used.get()).contains("replica-0");
+        assertThat(ReplicaRoutingDataSource.PRIMARY_ONLY.get()).isNull();
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+class ThreadingConfigTests {
+
+    private static HikariDataSource sized(MockEnvironment environment) {
+        HikariDataSource hikari = new HikariDataSource();
+        ThreadingConfig.size(hikari, environment);
+        return hikari;
+    }
+
+    @Test
+    void platformThreadsKeepHikariDefaults() {
+        HikariDataSource defaults = new HikariDataSource();
+        HikariDataSource hikari = sized(new MockEnvironment());
+
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(defaults.getMaximumPoolSize());
+        assertThat(hikari.getConnectionTimeout()).isEqualTo(defaults.getConnectionTimeout());
+    }
+
+    @Test
+    void virtualThreadsGetASmallPoolThatFailsFast() {
+        HikariDataSource hikari = sized(new MockEnvironment().withProperty("spring.threads.virtual.enabled", "true"));
+
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(ThreadingConfig.poolSize(Runtime.getRuntime().availableProcessors()));
+        assertThat(hikari.getConnectionTimeout()).isEqualTo(ThreadingConfig.VIRTUAL_CONNECTION_TIMEOUT_MS);
+    }
+
+    @Test
+    void explicitSettingsWin() {
+        HikariDataSource hikari = sized(new MockEnvironment()
+                .withProperty("spring.threads.virtual.enabled", "true")
+                .withProperty("spring.datasource.hikari.maximum-pool-size", "40"));
+
+        // Bound by Boot from the property itself; only the timeout is ours
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(new HikariDataSource().getMaximumPoolSize());
+        assertThat(hikari.getConnectionTimeout()).isEqualTo(ThreadingConfig.VIRTUAL_CONNECTION_TIMEOUT_MS);
+    }
+}
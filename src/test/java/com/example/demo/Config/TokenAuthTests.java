@@ -0,0 +1,115 @@
+package com.example.demo.Config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.oauth2.jose.jws.MacAlgorithm;
+import org.springframework.security.oauth2.jwt.JwsHeader;
+import org.springframework.security.oauth2.jwt.JwtClaimsSet;
+import org.springframework.security.oauth2.jwt.JwtEncoderParameters;
+import org.springframework.security.oauth2.jwt.NimbusJwtEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.demo.Entities.User;
+import com.example.demo.Repositories.UserRepository;
+import com.nimbusds.jose.jwk.source.ImmutableSecret;
+
+import jakarta.servlet.http.Cookie;
+
+@SpringBootTest(properties = {"auth.mode=token", "auth.token.secret=" + TokenAuthTests.SECRET})
+@AutoConfigureMockMvc
+class TokenAuthTests {
+
+    static final String SECRET = "test-secret-that-is-at-least-32-bytes";
+
+    @Autowired
+    private MockMvc mvc;
+    @Autowired
+    private AccessTokens accessTokens;
+    @Autowired
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void createUser() {
+        user = userRepository.findByEmail("token@example.com").orElseGet(() -> {
+            User newUser = new User();
+            newUser.email = "token@example.com";
+            newUser.name = "Token User";
+            return userRepository.save(newUser);
+        });
+    }
+
+    @Test
+    void bearerTokenAuthenticatesWithoutASession() throws Exception {
+        MvcResult result = mvc.perform(get("/api/tags/my-tags")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessTokens.issue(user)))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(result.getRequest().getSession(false)).isNull();
+    }
+
+    @Test
+    void cookieAuthenticates() throws Exception {
+        mvc.perform(get("/api/tags/my-tags").cookie(new Cookie(AccessTokens.COOKIE, accessTokens.issue(user))))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void tamperedOrExpiredTokensAreRejected() throws Exception {
+        String token = accessTokens.issue(user);
+        String tampered = token.substring(0, token.length() - 4) + "AAAA";
+        mvc.perform(get("/api/tags/my-tags").header(HttpHeaders.AUTHORIZATION, "Bearer " + tampered))
+                .andExpect(status().isUnauthorized());
+
+        Instant issued = Instant.now().minus(Duration.ofMinutes(40));
+        JwtClaimsSet claims = JwtClaimsSet.builder()
+                .issuer(AccessTokens.ISSUER)
+                .subject(user.id.toString())
+                .issuedAt(issued)
+                .expiresAt(issued.plus(Duration.ofMinutes(30)))
+                .claim("email", user.email)
+                .claim("name", user.name)
+                .build();
+        String expired = new NimbusJwtEncoder(new ImmutableSecret<>(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .encode(JwtEncoderParameters.from(JwsHeader.with(MacAlgorithm.HS256).build(), claims))
+                .getTokenValue();
+        MvcResult result = mvc.perform(get("/api/tags/my-tags").cookie(new Cookie(AccessTokens.COOKIE, expired)))
+                .andExpect(status().isUnauthorized())
+                .andReturn();
+        // The stale cookie is cleared
+        assertThat(result.getResponse().getHeaders(HttpHeaders.SET_COOKIE))
+                .anyMatch(c -> c.startsWith(AccessTokens.COOKIE + "=;"));
+    }
+
+    @Test
+    void loginRedirectKeepsItsStateInASignedCookie() throws Exception {
+        MvcResult result = mvc.perform(get("/oauth2/authorization/google"))
+                .andExpect(status().is3xxRedirection())
+                .andReturn();
+        assertThat(result.getRequest().getSession(false)).isNull();
+
+        Cookie cookie = result.getResponse().getCookie(CookieAuthorizationRequestRepository.COOKIE);
+        assertThat(cookie).isNotNull();
+        CookieAuthorizationRequestRepository repository =
+                new CookieAuthorizationRequestRepository(accessTokens.key(), false);
+        assertThat(repository.decode(cookie.getValue())).isNotNull();
+        // Flipping a character breaks the signature. Not the last one: its low bits may be padding that decodes the same
+        String value = cookie.getValue();
+        char first = value.charAt(0);
+        assertThat(repository.decode((first == 'A' ? 'B' : 'A') + value.substring(1))).isNull();
+    }
+}
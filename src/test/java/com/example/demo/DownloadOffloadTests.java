@@ -0,0 +1,83 @@
+package com.example.demo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.TestPropertySource;
+
+import com.example.demo.Services.ActivityLog;
+import com.example.demo.Services.StorageService;
+
+/**
+ * downloads.offload=x-accel: the app answers downloads with the header nginx
+ * needs and no body, and hands out signed links that nginx's secure_link
+ * module accepts.
+ */
+@TestPropertySource(properties = {
+        "downloads.offload=x-accel",
+        "downloads.signing-secret=" + DownloadOffloadTests.SECRET })
+class DownloadOffloadTests extends SeededCatalogTest {
+
+    static final String SECRET = "offload-test-secret";
+
+    @Autowired
+    private StorageService storageService;
+    @Autowired
+    private ActivityLog activityLog;
+
+    @Test
+    @QueryBudget(0)
+    void downloadIsHandedToTheProxy() throws Exception {
+        String stored = storageService.store(new MockMultipartFile("file", "lecture.mp4", "video/mp4",
+                "not really a video".getBytes(StandardCharsets.UTF_8)));
+
+        mvc.perform(get("/api/resources/download/{file}", stored))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Accel-Redirect", "/protected-uploads/" + stored))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"" + stored + "\""))
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    @QueryBudget(1)
+    void downloadLinkIsSignedForNginxAndCounted() throws Exception {
+        Long id = resourceIds.get(3);
+        int buffered = activityLog.buffered();
+
+        String body = mvc.perform(post("/api/resources/{id}/download-link", id))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "no-store"))
+                .andReturn().getResponse().getContentAsString();
+
+        Matcher url = Pattern.compile("\"url\":\"/files/seed_3\\.txt\\?md5=([\\w-]+)&expires=(\\d+)\"").matcher(body);
+        assertThat(url.find()).as(body).isTrue();
+        // secure_link_md5 "$secure_link_expires$uri <secret>"
+        byte[] expected = MessageDigest.getInstance("MD5")
+                .digest((url.group(2) + "/files/seed_3.txt " + SECRET).getBytes(StandardCharsets.UTF_8));
+        assertThat(url.group(1)).isEqualTo(Base64.getUrlEncoder().withoutPadding().encodeToString(expected));
+        assertThat(Long.parseLong(url.group(2)) * 1000).isGreaterThan(System.currentTimeMillis());
+        assertThat(activityLog.buffered()).isEqualTo(buffered + 1);
+    }
+
+    @Test
+    void onlyStoredFilesAreHandedOver() {
+        assertThatThrownBy(() -> mvc.perform(get("/api/resources/download/{file}", "missing.pdf")))
+                .hasRootCauseMessage("Could not read file: missing.pdf");
+        assertThatThrownBy(() -> storageService.locate("../pom.xml"))
+                .hasMessage("Could not read file: ../pom.xml");
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo;
+
+/**
+ * PostgreSQL functions the application calls directly, registered in H2 by
+ * script_tables_h2.sql. pg_get_serial_sequence points at sequences of
+ * their own, started above any id the identity columns hand out in a test
+ * run, since H2 does not expose the identity sequences by name.
+ */
+public final class H2Functions {
+
+    private H2Functions() {
+    }
+
+    public static String serialSequence(String table, String column) {
+        return "import_" + table + "_" + column;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+/**
+ * Fails the test if its body issues more than {@link #value()} SQL statements.
+ * Only the test method itself is counted - not @BeforeEach setup - and every
+ * statement that reaches the DataSource counts, from Hibernate or JDBC, on any
+ * thread. Needs the counting DataSource from {@link QueryCountingDataSource}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    int value();
+}
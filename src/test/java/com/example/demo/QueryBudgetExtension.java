@@ -0,0 +1,40 @@
+package com.example.demo;
+
+import java.util.List;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Arms {@link QueryCountingDataSource} around the test body and compares the
+ * count with the method's {@link QueryBudget}. On failure the message lists
+ * every statement, which usually makes the N+1 obvious.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        QueryCountingDataSource.start();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        List<String> statements = QueryCountingDataSource.stop();
+        int budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+                .map(QueryBudget::value)
+                .orElseThrow();
+        if (statements.size() > budget) {
+            StringBuilder message = new StringBuilder()
+                    .append(context.getRequiredTestMethod().getName())
+                    .append(" issued ").append(statements.size())
+                    .append(" SQL statements, budget is ").append(budget).append(':');
+            for (int i = 0; i < statements.size(); i++) {
+                message.append('\n').append(i + 1).append(": ").append(statements.get(i));
+            }
+            throw new AssertionFailedError(message.toString(), budget, statements.size());
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.demo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Wraps the application DataSource in a datasource-proxy that records every
+ * executed statement while a {@link QueryBudget} test is running. Recording
+ * is global rather than per thread, so work handed to the task executor
+ * (streamed exports) is counted too; tests in one context run one at a time.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class QueryCountingDataSource {
+
+    private static final List<String> statements = new ArrayList<>();
+    private static volatile boolean recording;
+
+    static synchronized void start() {
+        statements.clear();
+        recording = true;
+    }
+
+    static synchronized List<String> stop() {
+        recording = false;
+        return new ArrayList<>(statements);
+    }
+
+    private static synchronized void record(String sql) {
+        if (recording) {
+            statements.add(sql);
+        }
+    }
+
+    @Bean
+    static BeanPostProcessor queryCountingDataSourceProxy() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(new QueryExecutionListener() {
+                                @Override
+                                public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                }
+
+                                @Override
+                                public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+                                    for (QueryInfo query : queryInfoList) {
+                                        record(query.getQuery());
+                                    }
+                                }
+                            })
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
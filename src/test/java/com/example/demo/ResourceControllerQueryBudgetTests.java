@@ -0,0 +1,330 @@
+package com.example.demo;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.example.demo.Entities.User;
+import com.example.demo.Services.StorageService;
+
+/**
+ * Statement budgets for every ResourceController endpoint. A budget is the
+ * current cost of the endpoint on the seeded catalog; when a change makes an
+ * endpoint cheaper, lower its budget with it.
+ *
+ * Endpoints that return Resource entities copy prebuilt cards (see
+ * ResourceCards), which SeededCatalogTest brings up to date before each test.
+ * A resource without a current card serialises four lazy collections (tags,
+ * categories, comments, favorites), one query each, and loads each
+ * comment/favorite author once; listResourcesWithStaleCard spells that out.
+ */
+class ResourceControllerQueryBudgetTests extends SeededCatalogTest {
+
+    // Seeded users plus the writer and a rater, who comment and favorite during the tests
+    private static final int AUTHORS = USERS + 2;
+    private static final int LAZY_COLLECTIONS = 4;
+
+    private static String storedFile;
+
+    @Autowired
+    private StorageService storageService;
+
+    private User rater;
+
+    @BeforeEach
+    void newRater() {
+        rater = user("rater-" + System.nanoTime() + "@example.com");
+        if (storedFile == null) {
+            storedFile = storageService.store(new MockMultipartFile("file", "stored.txt", "text/plain",
+                    "Stored for download".getBytes(StandardCharsets.UTF_8)));
+        }
+    }
+
+    @AfterEach
+    void removeUploads() {
+        resourceRepository.findAll().stream()
+                .filter(resource -> !resourceIds.contains(resource.id))
+                .forEach(resourceRepository::delete);
+        resourceIndex.rebuild();
+        similarityIndex.rebuild();
+    }
+
+    private Long first() {
+        return resourceIds.get(0);
+    }
+
+    @Test
+    // Every card comes from one join; nothing is hydrated
+    @QueryBudget(1)
+    void listResources() throws Exception {
+        perform(get("/api/resources"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].tags[0].name").exists());
+    }
+
+    @Test
+    // A card waiting to be rebuilt is not served: that resource is loaded and serialised instead
+    @QueryBudget(2 + LAZY_COLLECTIONS + AUTHORS)
+    void listResourcesWithStaleCard() throws Exception {
+        resourceCards.resourceChanged(first());
+        perform(get("/api/resources"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PAGE))
+                .andExpect(jsonPath("$[0].tags[0].name").exists());
+    }
+
+    @Test
+    // Sparse fieldsets skip the lazy collections entirely
+    @QueryBudget(1)
+    void listResourcesSparseFields() throws Exception {
+        perform(get("/api/resources").param("fields", "id,title,averageRating"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(PAGE))
+                .andExpect(jsonPath("$[0].title").exists())
+                .andExpect(jsonPath("$[0].tags").doesNotExist());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void listResourcesUnknownField() throws Exception {
+        mvc.perform(get("/api/resources").param("fields", "id,secret")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void listResourcesNotModified() throws Exception {
+        mvc.perform(get("/api/resources").header(HttpHeaders.IF_NONE_MATCH, changeVersions.catalogETag()))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, public"));
+    }
+
+    @Test
+    @QueryBudget(10)
+    void uploadResource() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "budget.txt", "text/plain",
+                "Query budget upload".getBytes(StandardCharsets.UTF_8));
+        mvc.perform(multipart("/api/resources").file(file)
+                        .param("title", "Budget upload")
+                        .param("description", "Uploaded by the query budget test")
+                        .param("categories", "Programming")
+                        .param("tags", "java", "sql")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void downloadFile() throws Exception {
+        mvc.perform(get("/api/resources/download/{file}", storedFile)).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(4)
+    void rateResource() throws Exception {
+        mvc.perform(post("/api/resources/{id}/rate", first())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"rating\": 4}")
+                        .with(loggedInAs(rater.email)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(6)
+    void resourceDetails() throws Exception {
+        mvc.perform(get("/api/resources/{id}/details", first())).andExpect(status().isOk());
+    }
+
+    @Test
+    // The view is buffered in the activity log, not written per request
+    @QueryBudget(0)
+    void resourceDetailsNotModified() throws Exception {
+        mvc.perform(get("/api/resources/{id}/details", first())
+                        .header(HttpHeaders.IF_NONE_MATCH, changeVersions.resourceETag(first(), WRITER))
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @QueryBudget(8)
+    void resourceDetailsLoggedIn() throws Exception {
+        mvc.perform(get("/api/resources/{id}/details", first()).with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(3)
+    void addComment() throws Exception {
+        mvc.perform(post("/api/resources/{id}/comments", first())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"content\": \"Budget comment\"}")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1 + AUTHORS)
+    void getComments() throws Exception {
+        mvc.perform(get("/api/resources/{id}/comments", first())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(4)
+    void toggleFavorite() throws Exception {
+        mvc.perform(post("/api/resources/{id}/favorite", first()).with(loggedInAs(rater.email)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    // user0 has 5 favorites: user, favorite ids, one IN query for their 5 cards
+    @QueryBudget(3)
+    void userFavorites() throws Exception {
+        perform(get("/api/resources/favorites").with(loggedInAs("user0@example.com")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].comments[0].user.name").exists());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void searchByKeyword() throws Exception {
+        perform(get("/api/resources/search").param("keyword", "guide"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].categories[0].name").exists());
+    }
+
+    @Test
+    // 21 resources tagged java or sql in Programming or Data
+    @QueryBudget(1)
+    void searchWithFacets() throws Exception {
+        perform(get("/api/resources/search")
+                        .param("tags", "java", "sql")
+                        .param("categories", "Programming", "Data")
+                        .param("facets", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.facets.tags").exists());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void categories() throws Exception {
+        mvc.perform(get("/api/resources/categories")).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void categoriesNotModified() throws Exception {
+        mvc.perform(get("/api/resources/categories").header(HttpHeaders.IF_NONE_MATCH, changeVersions.categoriesETag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    // Existence check only; the count is added when the activity log flushes
+    @QueryBudget(1)
+    void incrementDownloadCount() throws Exception {
+        mvc.perform(post("/api/resources/download/{id}/increment", first()).with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    // Existence check and one rollup read, never the raw events
+    @QueryBudget(2)
+    void resourceStats() throws Exception {
+        mvc.perform(get("/api/resources/{id}/stats", first()).param("bucket", "hour"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    // Scoring walks every resource's tags (findById, its tags, findAll, 49 tag loads);
+    // the 10 results are then one card query
+    @QueryBudget(3 + (PAGE - 1) + 1)
+    void recommendations() throws Exception {
+        perform(get("/api/resources/{id}/recommendations", first()).with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(3 + (PAGE - 1) + 1)
+    void recommendationsWithANegativeLimit() throws Exception {
+        perform(get("/api/resources/{id}/recommendations", first()).param("limit", "-1").with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    // 19 resources tagged java
+    @QueryBudget(1)
+    void resourcesByTag() throws Exception {
+        perform(get("/api/resources/by-tag/{tag}", "java").with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(5)
+    void personalisedFeed() throws Exception {
+        mvc.perform(get("/api/resources/feed").param("size", String.valueOf(PAGE))
+                        .with(loggedInAs("user1@example.com")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(6)
+    void popularFeed() throws Exception {
+        mvc.perform(get("/api/resources/feed").param("size", String.valueOf(PAGE))
+                        .with(loggedInAs(rater.email)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void similarResources() throws Exception {
+        mvc.perform(get("/api/resources/{id}/similar", first()).param("minSimilarity", "0.1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void similarResourcesWithANegativeLimit() throws Exception {
+        mvc.perform(get("/api/resources/{id}/similar", first()).param("minSimilarity", "0.1").param("limit", "-1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void cacheStats() throws Exception {
+        mvc.perform(get("/api/resources/cache/stats").with(loggedInAs(WRITER))).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void bulkImport() throws Exception {
+        MockMultipartFile manifest = new MockMultipartFile("manifest", "manifest.json", "application/json",
+                "[]".getBytes(StandardCharsets.UTF_8));
+        mvc.perform(multipart("/api/resources/import").file(manifest)
+                        .param("requireFiles", "false")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void exportCatalog() throws Exception {
+        MvcResult started = mvc.perform(get("/api/resources/export").with(loggedInAs(WRITER)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.demo;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.oauth2Login;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.OAuth2LoginRequestPostProcessor;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import com.example.demo.Entities.Category;
+import com.example.demo.Entities.Comment;
+import com.example.demo.Entities.Favorite;
+import com.example.demo.Entities.Rating;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+import com.example.demo.Entities.User;
+import com.example.demo.Repositories.CategoryRepository;
+import com.example.demo.Repositories.CommentRepository;
+import com.example.demo.Repositories.FavoriteRepository;
+import com.example.demo.Repositories.RatingRepository;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Repositories.TagRepository;
+import com.example.demo.Repositories.UserRepository;
+import com.example.demo.Services.ChangeVersions;
+import com.example.demo.Services.QueryCache;
+import com.example.demo.Services.ResourceCards;
+import com.example.demo.Services.ResourceIndex;
+import com.example.demo.Services.SimilarityIndex;
+import com.example.demo.Services.TagGraph;
+
+/**
+ * Base for endpoint tests against a small seeded catalog: {@value #PAGE}
+ * resources, each with 3 tags, 1-2 categories, 2 comments, a favorite and a
+ * rating, spread over {@value #USERS} users. The catalog is written once per
+ * context and the in-memory indexes are rebuilt from it; the query cache is
+ * reset before every test so each one starts cold.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@Import(QueryCountingDataSource.class)
+abstract class SeededCatalogTest {
+
+    static final int PAGE = 50;
+    static final int USERS = 10;
+    static final String[] TAG_NAMES = { "java", "python", "sql", "react", "docker", "git", "linux", "ml" };
+    static final String[] CATEGORY_NAMES = { "Programming", "Data", "Design", "Science" };
+    static final String WRITER = "writer@example.com";
+
+    @Autowired
+    protected MockMvc mvc;
+    @Autowired
+    protected UserRepository userRepository;
+    @Autowired
+    protected ResourceRepository resourceRepository;
+    @Autowired
+    protected TagRepository tagRepository;
+    @Autowired
+    protected CategoryRepository categoryRepository;
+    @Autowired
+    protected CommentRepository commentRepository;
+    @Autowired
+    protected FavoriteRepository favoriteRepository;
+    @Autowired
+    protected RatingRepository ratingRepository;
+    @Autowired
+    protected ResourceIndex resourceIndex;
+    @Autowired
+    protected SimilarityIndex similarityIndex;
+    @Autowired
+    protected TagGraph tagGraph;
+    @Autowired
+    protected QueryCache queryCache;
+    @Autowired
+    protected ChangeVersions changeVersions;
+    @Autowired
+    protected ResourceCards resourceCards;
+
+    protected List<Long> resourceIds = new ArrayList<>();
+
+    @BeforeEach
+    void seedCatalog() {
+        if (resourceRepository.count() == 0) {
+            seed();
+        }
+        resourceIds = resourceRepository.findAllIds().stream().sorted().toList();
+        queryCache.catalogChanged();
+        // Cards are rebuilt on a schedule in production; here every test starts with all of them current
+        resourceCards.backfill();
+        resourceCards.refresh();
+    }
+
+    // Streamed responses are written on an async thread; wait for the body before asserting
+    protected ResultActions perform(MockHttpServletRequestBuilder request) throws Exception {
+        ResultActions actions = mvc.perform(request);
+        MvcResult result = actions.andReturn();
+        return result.getRequest().isAsyncStarted() ? mvc.perform(asyncDispatch(result)) : actions;
+    }
+
+    protected OAuth2LoginRequestPostProcessor loggedInAs(String email) {
+        return oauth2Login().attributes(attributes -> attributes.put("email", email));
+    }
+
+    protected User user(String email) {
+        return userRepository.findByEmail(email).orElseGet(() -> {
+            User user = new User();
+            user.email = email;
+            user.name = email;
+            return userRepository.save(user);
+        });
+    }
+
+    private void seed() {
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            users.add(user("user" + i + "@example.com"));
+        }
+        user(WRITER);
+
+        List<Tag> tags = new ArrayList<>();
+        for (int i = 0; i < TAG_NAMES.length; i++) {
+            Tag tag = new Tag(TAG_NAMES[i], "About " + TAG_NAMES[i], i < 4);
+            tag.createdBy = i < 4 ? null : users.get(0).id;
+            tags.add(tagRepository.save(tag));
+        }
+        List<Category> categories = new ArrayList<>();
+        for (String name : CATEGORY_NAMES) {
+            Category category = new Category();
+            category.name = name;
+            categories.add(categoryRepository.save(category));
+        }
+
+        for (int i = 0; i < PAGE; i++) {
+            Resource resource = new Resource();
+            resource.title = "Guide " + i + " to " + TAG_NAMES[i % TAG_NAMES.length];
+            resource.description = "Notes on " + TAG_NAMES[i % TAG_NAMES.length] + " and "
+                    + TAG_NAMES[(i + 1) % TAG_NAMES.length] + ", part " + i;
+            resource.filePath = "seed_" + i + ".txt";
+            resource.uploaderId = users.get(i % USERS).id;
+            resource.viewCount = i;
+            resource.downloadCount = PAGE - i;
+            for (int offset : new int[] { 0, 1, 3 }) {
+                Tag tag = tags.get((i + offset) % tags.size());
+                tag.usageCount++;
+                resource.tags.add(tag);
+            }
+            resource.categories.add(categories.get(i % categories.size()));
+            if (i % 2 == 0) {
+                resource.categories.add(categories.get((i + 1) % categories.size()));
+            }
+            resource = resourceRepository.save(resource);
+
+            for (int c = 0; c < 2; c++) {
+                Comment comment = new Comment();
+                comment.content = "Comment " + c + " on " + resource.title;
+                comment.resource = resource;
+                comment.user = users.get((i + c) % USERS);
+                commentRepository.save(comment);
+            }
+            Favorite favorite = new Favorite();
+            favorite.user = users.get(i % USERS);
+            favorite.resource = resource;
+            favoriteRepository.save(favorite);
+
+            Rating rating = new Rating();
+            rating.userId = users.get((i + 2) % USERS).id;
+            rating.resourceId = resource.id;
+            rating.ratingValue = 1 + i % 5;
+            ratingRepository.save(rating);
+        }
+        tagRepository.saveAll(tags);
+
+        resourceIndex.rebuild();
+        similarityIndex.rebuild();
+        tagGraph.rebuild();
+    }
+}
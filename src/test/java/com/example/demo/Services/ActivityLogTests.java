@@ -0,0 +1,72 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * A database without activity_events.sql loaded: views and downloads still
+ * reach the resource counters.
+ */
+class ActivityLogTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:h2:mem:activity-no-events;DB_CLOSE_DELAY=-1", "sa", "");
+    private final JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+
+    @BeforeEach
+    void resourcesOnly() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS resource_events");
+        jdbcTemplate.execute("DROP TABLE IF EXISTS resources");
+        jdbcTemplate.execute("CREATE TABLE resources (id BIGINT PRIMARY KEY, view_count INT, download_count INT)");
+        jdbcTemplate.update("INSERT INTO resources VALUES (1, 10, 5), (2, 0, 0)");
+    }
+
+    private ActivityLog activityLog() {
+        ActivityLog activityLog = new ActivityLog(16, jdbcTemplate, new DataSourceTransactionManager(dataSource), registry);
+        activityLog.checkTable();
+        return activityLog;
+    }
+
+    private int count(String column, long id) {
+        return jdbcTemplate.queryForObject("SELECT " + column + " FROM resources WHERE id = ?", Integer.class, id);
+    }
+
+    @Test
+    void countersAreKeptWithoutTheEventTable() {
+        ActivityLog activityLog = activityLog();
+        assertThat(activityLog.eventsEnabled()).isFalse();
+
+        activityLog.record(1L, null, ActivityLog.Type.VIEW);
+        activityLog.record(1L, 7L, ActivityLog.Type.VIEW);
+        activityLog.record(1L, null, ActivityLog.Type.DOWNLOAD);
+        activityLog.record(2L, 7L, ActivityLog.Type.FAVORITE);
+        activityLog.flush();
+
+        assertThat(count("view_count", 1)).isEqualTo(12);
+        assertThat(count("download_count", 1)).isEqualTo(6);
+        assertThat(count("view_count", 2)).isZero();
+        assertThat(activityLog.buffered()).isZero();
+    }
+
+    @Test
+    void countersAreWrittenWhenTheEventInsertFails() {
+        // Present at startup, broken later (here: a column the insert does not know)
+        jdbcTemplate.execute("CREATE TABLE resource_events (resource_id BIGINT, required_extra INT NOT NULL)");
+        ActivityLog activityLog = activityLog();
+        assertThat(activityLog.eventsEnabled()).isTrue();
+
+        activityLog.record(2L, null, ActivityLog.Type.DOWNLOAD);
+        activityLog.flush();
+
+        assertThat(count("download_count", 2)).isEqualTo(1);
+        assertThat(registry.get("activity.events.dropped").functionCounter().count()).isEqualTo(1);
+    }
+}
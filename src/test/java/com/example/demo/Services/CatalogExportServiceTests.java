@@ -0,0 +1,19 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class CatalogExportServiceTests {
+
+    @Test
+    void csvFieldsAreQuotedOnlyWhenTheyMustBe() {
+        assertThat(CatalogExportService.csvField(null)).isEmpty();
+        assertThat(CatalogExportService.csvField(42L)).isEqualTo("42");
+        assertThat(CatalogExportService.csvField("java;sql")).isEqualTo("java;sql");
+        assertThat(CatalogExportService.csvField("a, b")).isEqualTo("\"a, b\"");
+        assertThat(CatalogExportService.csvField("say \"hi\"")).isEqualTo("\"say \"\"hi\"\"\"");
+        assertThat(CatalogExportService.csvField("line\nbreak")).isEqualTo("\"line\nbreak\"");
+        assertThat(CatalogExportService.csvField("line\r\nbreak")).isEqualTo("\"line\r\nbreak\"");
+    }
+}
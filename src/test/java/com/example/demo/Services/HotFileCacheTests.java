@@ -0,0 +1,85 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.Resource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class HotFileCacheTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(0, 100, registry);
+
+    @TempDir
+    Path dir;
+
+    private HotFileCache cache(long maxBytes, int maxFiles, long revalidateMs) {
+        return new HotFileCache(maxBytes, maxFiles, 1024, 2, revalidateMs, singleFlight, registry);
+    }
+
+    private static String read(Resource resource) throws Exception {
+        try (InputStream in = resource.getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void fileIsCachedOnItsSecondRequest() throws Exception {
+        HotFileCache cache = cache(1 << 20, 10, 60_000);
+        Path file = Files.writeString(dir.resolve("slides.pdf"), "slide deck");
+
+        assertThat(cache.get(file)).isNull();
+        Resource second = cache.get(file);
+        Resource third = cache.get(file);
+
+        assertThat(read(second)).isEqualTo("slide deck");
+        assertThat(read(third)).isEqualTo("slide deck");
+        assertThat(third.contentLength()).isEqualTo(10);
+        assertThat(third.getFilename()).isEqualTo("slides.pdf");
+        assertThat(cache.requests("hit")).isEqualTo(1);
+        assertThat(cache.requests("miss")).isEqualTo(2);
+        assertThat(cache.bytesServed()).isEqualTo(20);
+        assertThat(registry.get("hotfiles.hit-ratio").gauge().value()).isEqualTo(1.0 / 3);
+    }
+
+    @Test
+    void changedFileIsReadAgain() throws Exception {
+        HotFileCache cache = cache(1 << 20, 10, 0);
+        Path file = Files.writeString(dir.resolve("notes.txt"), "first");
+        cache.get(file);
+        assertThat(read(cache.get(file))).isEqualTo("first");
+
+        Files.writeString(file, "second version");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 5_000));
+        // Dropped, then admitted again on the following request
+        assertThat(cache.get(file)).isNull();
+        assertThat(read(cache.get(file))).isEqualTo("second version");
+
+        Files.delete(file);
+        assertThat(cache.get(file)).isNull();
+    }
+
+    @Test
+    void largeFilesAndOverflowStayOnDisk() throws Exception {
+        HotFileCache cache = cache(1 << 20, 2, 60_000);
+        Path large = Files.write(dir.resolve("lecture.mp4"), new byte[2048]);
+        cache.get(large);
+        assertThat(cache.get(large)).isNull();
+
+        for (int i = 0; i < 5; i++) {
+            Path file = Files.writeString(dir.resolve("file" + i + ".txt"), "content " + i);
+            cache.get(file);
+            cache.get(file);
+        }
+        assertThat(registry.get("hotfiles.files").gauge().value()).isLessThanOrEqualTo(2);
+    }
+}
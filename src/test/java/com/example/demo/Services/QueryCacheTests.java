@@ -0,0 +1,69 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class QueryCacheTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final QueryCache queryCache = new QueryCache(100, 300, registry, new SingleFlight(500, 100, registry));
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private List<String> search(String keyword, String... tags) {
+        String key = QueryCache.normalise(keyword) + "|" + QueryCache.normaliseSet(Arrays.asList(tags));
+        return queryCache.get("search", key, () -> List.of("result " + loads.incrementAndGet()));
+    }
+
+    @Test
+    void equivalentQueriesShareAKey() {
+        assertThat(QueryCache.normalise("  Java ")).isEqualTo("java");
+        assertThat(QueryCache.normalise(null)).isEmpty();
+        assertThat(QueryCache.normaliseSet(Arrays.asList("SQL", " java", "sql", "", null))).isEqualTo("java,sql");
+        assertThat(QueryCache.normaliseSet(null)).isEmpty();
+
+        List<String> first = search("Spring", "Java", "SQL");
+        assertThat(search(" spring ", "sql", "java", "JAVA")).isSameAs(first);
+        assertThat(loads).hasValue(1);
+        assertThat(queryCache.hitCount("search")).isEqualTo(1);
+        assertThat(queryCache.missCount("search")).isEqualTo(1);
+
+        search("Spring", "java");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void catalogChangeStopsOldEntriesMatching() {
+        List<String> before = search("spring", "java");
+        long version = queryCache.catalogVersion();
+
+        queryCache.catalogChanged();
+
+        assertThat(queryCache.catalogVersion()).isEqualTo(version + 1);
+        List<String> after = search("spring", "java");
+        assertThat(after).isNotEqualTo(before);
+        assertThat(search("spring", "java")).isSameAs(after);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void nullResultsAreNotCached() {
+        assertThat(queryCache.<List<String>>get("by-tag", "missing", () -> {
+            loads.incrementAndGet();
+            return null;
+        })).isNull();
+        queryCache.get("by-tag", "missing", () -> {
+            loads.incrementAndGet();
+            return null;
+        });
+
+        assertThat(loads).hasValue(2);
+        assertThat(queryCache.hitCount("by-tag")).isZero();
+    }
+}
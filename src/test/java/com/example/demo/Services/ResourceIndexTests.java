@@ -0,0 +1,74 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+import com.example.demo.Repositories.CategoryRepository;
+import com.example.demo.Repositories.ResourceRepository;
+import com.example.demo.Repositories.TagRepository;
+
+class ResourceIndexTests {
+
+    private final ResourceIndex resourceIndex = new ResourceIndex();
+    private final ResourceRepository resourceRepository = mock(ResourceRepository.class);
+    private final TagRepository tagRepository = mock(TagRepository.class);
+
+    @BeforeEach
+    void wire() {
+        ReflectionTestUtils.setField(resourceIndex, "resourceRepository", resourceRepository);
+        ReflectionTestUtils.setField(resourceIndex, "tagRepository", tagRepository);
+        ReflectionTestUtils.setField(resourceIndex, "categoryRepository", mock(CategoryRepository.class));
+    }
+
+    private static Tag tag(long id, String name) {
+        Tag tag = new Tag();
+        tag.id = id;
+        tag.name = name;
+        return tag;
+    }
+
+    private static Resource resource(long id, Tag tag) {
+        Resource resource = new Resource();
+        resource.id = id;
+        resource.tags.add(tag);
+        return resource;
+    }
+
+    @Test
+    void rebuildSwapsInAFreshIndexAndKeepsUploadsMadeMeanwhile() {
+        Tag java = tag(1, "java");
+        Tag sql = tag(2, "sql");
+        resourceIndex.indexResource(resource(1, java));
+        resourceIndex.indexResource(resource(3, tag(3, "deleted")));
+
+        when(resourceRepository.findAllIds()).thenAnswer(invocation -> {
+            // Readers still see the old index while the DB is read
+            assertThat(resourceIndex.allResources().get(1)).isTrue();
+            assertThat(resourceIndex.tagIdByName("java")).isEqualTo(1L);
+            // An upload committed after this read started
+            resourceIndex.indexResource(resource(2, sql));
+            return List.of(1L);
+        });
+        when(resourceRepository.findAllResourceTagPairs()).thenReturn(List.<Object[]>of(new Object[] { 1L, 1L }));
+        when(tagRepository.findAll()).thenReturn(List.of(java));
+
+        resourceIndex.rebuild();
+
+        assertThat(resourceIndex.allResources().stream()).containsExactly(1, 2);
+        assertThat(resourceIndex.tagsOf(2L)).containsExactly(2L);
+        assertThat(resourceIndex.resourcesWithTag(2).get(2)).isTrue();
+        assertThat(resourceIndex.tagIdByName("sql")).isEqualTo(2L);
+        // What the DB no longer has is gone
+        assertThat(resourceIndex.tagIdByName("deleted")).isNull();
+        assertThat(resourceIndex.tagsOf(3L)).isEmpty();
+    }
+}
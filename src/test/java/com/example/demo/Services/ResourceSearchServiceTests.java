@@ -0,0 +1,104 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.DTO.FacetCount;
+import com.example.demo.Entities.Category;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+
+class ResourceSearchServiceTests {
+
+    private final ResourceIndex resourceIndex = new ResourceIndex();
+    private final ResourceSearchService searchService = new ResourceSearchService();
+
+    @BeforeEach
+    void catalog() {
+        ReflectionTestUtils.setField(searchService, "resourceIndex", resourceIndex);
+        Category design = category(1, "Design");
+        Category data = category(2, "Data");
+        Category science = category(3, "Science");
+        Tag java = tag(1, "java");
+        Tag sql = tag(2, "sql");
+        Tag python = tag(3, "python");
+        resource(1, design, java);
+        resource(2, design, sql);
+        resource(3, data, java);
+        resource(4, data, java, sql);
+        resource(5, science, python);
+    }
+
+    private static Category category(long id, String name) {
+        Category category = new Category();
+        category.id = id;
+        category.name = name;
+        return category;
+    }
+
+    private static Tag tag(long id, String name) {
+        Tag tag = new Tag();
+        tag.id = id;
+        tag.name = name;
+        return tag;
+    }
+
+    private void resource(long id, Category category, Tag... tags) {
+        Resource resource = new Resource();
+        resource.id = id;
+        resource.categories.add(category);
+        resource.tags.addAll(List.of(tags));
+        resourceIndex.indexResource(resource);
+    }
+
+    private static Map<String, Integer> counts(List<FacetCount> facets) {
+        return facets.stream().collect(Collectors.toMap(facet -> facet.name, facet -> facet.count));
+    }
+
+    @Test
+    void facetCountsIgnoreTheirOwnFilter() {
+        ResourceSearchService.SearchResult result = searchService.search(null, List.of("Design"), List.of("java"), 10);
+
+        assertThat(result.ids).containsExactly(1L);
+        // Categories are counted under the tag filter only: Data would add two java resources
+        assertThat(counts(result.categoryFacets)).containsExactlyInAnyOrderEntriesOf(Map.of("Design", 1, "Data", 2));
+        // Tags are counted under the category filter only
+        assertThat(counts(result.tagFacets)).containsExactlyInAnyOrderEntriesOf(Map.of("java", 1, "sql", 1));
+    }
+
+    @Test
+    void valuesWithinAFacetAreOredAndFacetsAreAnded() {
+        assertThat(searchService.search(null, List.of("Design", "Data"), List.of(), 0).ids)
+                .containsExactly(1L, 2L, 3L, 4L);
+        assertThat(searchService.search(null, List.of("Design", "Data"), List.of("sql"), 0).ids)
+                .containsExactly(2L, 4L);
+        // Unknown names match nothing rather than everything
+        assertThat(searchService.search(null, List.of("Nope"), List.of(), 0).ids).isEmpty();
+    }
+
+    @Test
+    void facetsAreSortedByCountAndLimited() {
+        List<FacetCount> tags = searchService.search(null, List.of(), List.of(), 2).tagFacets;
+
+        assertThat(tags).extracting(facet -> facet.name).containsExactly("java", "sql");
+        assertThat(tags).extracting(facet -> facet.count).containsExactly(3, 2);
+    }
+
+    @Test
+    void intersectionCountWalksEitherSide() {
+        BitSet sparse = BitSet.valueOf(new long[] { 0b1010L });
+        BitSet dense = new BitSet();
+        dense.set(0, 100);
+
+        assertThat(ResourceSearchService.intersectionCount(sparse, sparse.cardinality(), dense)).isEqualTo(2);
+        assertThat(ResourceSearchService.intersectionCount(dense, dense.cardinality(), sparse)).isEqualTo(2);
+    }
+}
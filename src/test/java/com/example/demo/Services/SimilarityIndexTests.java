@@ -0,0 +1,74 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.Repositories.ResourceRepository;
+
+class SimilarityIndexTests {
+
+    private static final String NOTES = "Relational databases store rows in tables. A join combines rows from two "
+            + "tables using a related column, and an index speeds up lookups on that column. Normal forms reduce "
+            + "redundancy by splitting tables until every non-key column depends on the key";
+
+    private final SimilarityIndex index = new SimilarityIndex();
+
+    @Test
+    void nearDuplicatesAreFoundAndUnrelatedTextIsNot() {
+        index.add(1L, SimilarityIndex.signatureOf("SQL notes", NOTES, null));
+        // The same notes with one word changed near the end
+        index.add(2L, SimilarityIndex.signatureOf("SQL notes", NOTES.replace("depends", "relies"), null));
+        index.add(3L, SimilarityIndex.signatureOf("Docker basics", "Containers package an application with its "
+                + "dependencies so it runs the same on every machine, built from layered images", null));
+
+        List<SimilarityIndex.Match> matches = index.similarTo(1L, 10, 0.5);
+
+        assertThat(matches).extracting(match -> match.resourceId).containsExactly(2L);
+        assertThat(matches.get(0).similarity).isGreaterThanOrEqualTo(SimilarityIndex.DUPLICATE_THRESHOLD);
+    }
+
+    @Test
+    void estimateFollowsTheShingleOverlap() {
+        int[] original = SimilarityIndex.signatureOf(null, NOTES, null);
+
+        assertThat(SimilarityIndex.estimate(original, SimilarityIndex.signatureOf(null, NOTES, null))).isEqualTo(1.0);
+        // Half of the text replaced: clearly below the duplicate threshold, clearly above zero
+        String half = NOTES.substring(0, NOTES.length() / 2) + " kubernetes schedules pods onto nodes and "
+                + "restarts them when a health check fails, scaling replicas with the load over time";
+        double estimate = SimilarityIndex.estimate(original, SimilarityIndex.signatureOf(null, half, null));
+        assertThat(estimate).isBetween(0.1, SimilarityIndex.DUPLICATE_THRESHOLD);
+    }
+
+    @Test
+    void signaturesSurviveEncodingAndEmptyTextHasNone() {
+        int[] signature = SimilarityIndex.signatureOf("Title", "Some description", "and text");
+
+        assertThat(SimilarityIndex.decode(SimilarityIndex.encode(signature))).isEqualTo(signature);
+        assertThat(SimilarityIndex.signatureOf("  ", "!!", null)).isNull();
+        assertThat(index.query(null, null, 10, 0)).isEmpty();
+    }
+
+    @Test
+    void rebuildKeepsSignaturesAddedWhileItReads() {
+        ResourceRepository resourceRepository = mock(ResourceRepository.class);
+        ReflectionTestUtils.setField(index, "resourceRepository", resourceRepository);
+        int[] notes = SimilarityIndex.signatureOf("SQL notes", NOTES, null);
+        index.add(1L, notes);
+        when(resourceRepository.findAllForSimilarity()).thenAnswer(invocation -> {
+            assertThat(index.query(notes, null, 10, 0.5)).extracting(match -> match.resourceId).containsExactly(1L);
+            index.add(2L, notes);
+            return List.<Object[]>of(new Object[] { 1L, SimilarityIndex.encode(notes), null, null });
+        });
+
+        index.rebuild();
+
+        assertThat(index.query(notes, null, 10, 0.5)).extracting(match -> match.resourceId)
+                .containsExactlyInAnyOrder(1L, 2L);
+    }
+}
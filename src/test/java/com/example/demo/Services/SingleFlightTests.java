@@ -0,0 +1,85 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SingleFlightTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @Test
+    void concurrentReadsShareOneLoad() throws Exception {
+        SingleFlight singleFlight = new SingleFlight(60_000, 100, registry);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int readers = 20;
+
+        List<Future<String>> results = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(readers);
+        try {
+            for (int i = 0; i < readers; i++) {
+                results.add(pool.submit(() -> singleFlight.get("details", "r1", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "body";
+                })));
+            }
+            // Let every reader reach the leader's future before it completes
+            while (singleFlight.requests("details", "executed") + singleFlight.requests("details", "coalesced") < readers) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("body");
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(singleFlight.requests("details", "coalesced")).isEqualTo(readers - 1);
+        // Inside the window the result is served without loading again
+        assertThat(singleFlight.get("details", "r1", () -> "reloaded")).isEqualTo("body");
+        assertThat(singleFlight.requests("details", "recent")).isEqualTo(1);
+        assertThat(registry.get("singleflight.requests").tag("result", "coalesced").functionCounter().count())
+                .isEqualTo(readers - 1);
+    }
+
+    @Test
+    void failuresReachWaitersButAreNotKept() {
+        SingleFlight singleFlight = new SingleFlight(60_000, 100, registry);
+        assertThatThrownBy(() -> singleFlight.get("comments", "r2", () -> {
+            throw new IllegalStateException("Resource not found");
+        })).hasMessage("Resource not found");
+        assertThat(singleFlight.get("comments", "r2", () -> "loaded")).isEqualTo("loaded");
+    }
+
+    @Test
+    void coalesceDoesNotKeepResults() {
+        SingleFlight singleFlight = new SingleFlight(60_000, 100, registry);
+        assertThat(singleFlight.coalesce("near", "k", () -> "first")).isEqualTo("first");
+        assertThat(singleFlight.coalesce("near", "k", () -> "second")).isEqualTo("second");
+        assertThat(singleFlight.get("near", "k", () -> "third")).isEqualTo("third");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
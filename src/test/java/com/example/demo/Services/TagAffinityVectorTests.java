@@ -0,0 +1,64 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class TagAffinityVectorTests {
+
+    private static float weightOf(TagAffinityVector vector, long tagId) {
+        for (int i = 0; i < vector.size(); i++) {
+            if (vector.tagId(i) == tagId) {
+                return vector.weight(i);
+            }
+        }
+        return 0;
+    }
+
+    @Test
+    void plusSpreadsTheWeightOverTheResourceTags() {
+        TagAffinityVector vector = TagAffinityVector.EMPTY
+                .plus(10, new long[] { 1, 2 }, 3f)
+                .plus(11, new long[] { 2, 3, 4 }, 3f);
+
+        assertThat(vector.size()).isEqualTo(4);
+        assertThat(weightOf(vector, 1)).isEqualTo(1.5f);
+        assertThat(weightOf(vector, 2)).isEqualTo(2.5f);
+        assertThat(weightOf(vector, 4)).isEqualTo(1f);
+        // Sorted by tag id
+        for (int i = 1; i < vector.size(); i++) {
+            assertThat(vector.tagId(i)).isGreaterThan(vector.tagId(i - 1));
+        }
+        assertThat(vector.hasSeen(10)).isTrue();
+        assertThat(vector.hasSeen(11)).isTrue();
+        assertThat(vector.hasSeen(12)).isFalse();
+    }
+
+    @Test
+    void undoingAnEventDropsTheTagsButKeepsTheResourceSeen() {
+        TagAffinityVector vector = TagAffinityVector.EMPTY
+                .plus(10, new long[] { 1, 2 }, 3f)
+                .plus(10, new long[] { 1, 2 }, -3f);
+
+        assertThat(vector.isEmpty()).isTrue();
+        assertThat(vector.hasSeen(10)).isTrue();
+        // Untagged resources only mark the resource as seen
+        assertThat(TagAffinityVector.EMPTY.plus(5, new long[0], 3f).isEmpty()).isTrue();
+    }
+
+    @Test
+    void pruneKeepsTheStrongestTags() {
+        TagAffinityVector vector = TagAffinityVector.EMPTY;
+        int tags = TagAffinityVector.MAX_TAGS + 10;
+        for (int tag = 1; tag <= tags; tag++) {
+            // Weight grows with the tag id; odd ids are dislikes, which count by magnitude
+            vector = vector.plus(1000 + tag, new long[] { tag }, tag % 2 == 0 ? tag : -tag);
+        }
+
+        assertThat(vector.size()).isEqualTo(TagAffinityVector.MAX_TAGS);
+        for (int i = 0; i < vector.size(); i++) {
+            assertThat(vector.tagId(i)).isGreaterThan(10);
+        }
+        assertThat(weightOf(vector, tags - 1)).isEqualTo(-(tags - 1));
+    }
+}
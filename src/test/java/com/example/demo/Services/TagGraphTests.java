@@ -0,0 +1,110 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+
+class TagGraphTests {
+
+    private final ResourceIndex resourceIndex = new ResourceIndex();
+    private final TagGraph tagGraph = new TagGraph();
+    private final Map<Long, Tag> tags = new HashMap<>();
+    private long nextResourceId = 1;
+
+    @BeforeEach
+    void wire() {
+        ReflectionTestUtils.setField(tagGraph, "resourceIndex", resourceIndex);
+    }
+
+    private Tag tag(long id) {
+        return tags.computeIfAbsent(id, k -> {
+            Tag tag = new Tag();
+            tag.id = id;
+            tag.name = "tag" + id;
+            return tag;
+        });
+    }
+
+    // times resources, each carrying all of tagIds
+    private void resources(int times, long... tagIds) {
+        for (int i = 0; i < times; i++) {
+            Resource resource = new Resource();
+            resource.id = nextResourceId++;
+            for (long tagId : tagIds) {
+                resource.tags.add(tag(tagId));
+            }
+            resourceIndex.indexResource(resource);
+        }
+    }
+
+    private static long[] ids(List<TagGraph.RelatedTag> related) {
+        return related.stream().mapToLong(tag -> tag.id).toArray();
+    }
+
+    @Test
+    void deletedTagDisappearsFromRelatedAndSuggestions() {
+        resources(5, 1, 2);
+        resources(5, 1, 3);
+        tagGraph.rebuild();
+        assertThat(ids(tagGraph.related(1, 10))).containsExactlyInAnyOrder(2, 3);
+
+        resourceIndex.removeTag(3L);
+        tagGraph.removeTag(3);
+
+        assertThat(ids(tagGraph.related(1, 10))).containsExactly(2);
+        assertThat(tagGraph.related(3, 10)).isEmpty();
+        assertThat(ids(tagGraph.suggest(new long[0], 10))).containsExactlyInAnyOrder(1, 2);
+        assertThat(tagGraph.suggest(new long[] { 2 }, 10)).allSatisfy(tag -> assertThat(tag.name).isNotNull());
+    }
+
+    @Test
+    void tagsMissingFromTheIndexAreSkipped() {
+        resources(3, 1, 2, 4);
+        tagGraph.rebuild();
+        // Removed from the index only, as between a delete and the graph update
+        resourceIndex.removeTag(4L);
+
+        assertThat(ids(tagGraph.related(1, 10))).containsExactly(2);
+    }
+
+    @Test
+    void relatedTagsAreRankedByDampedNpmi() {
+        resources(20, 1, 2);
+        resources(19, 1);
+        resources(1, 1, 3);
+        resources(60, 9);
+        tagGraph.rebuild();
+
+        List<TagGraph.RelatedTag> related = tagGraph.related(1, 10);
+
+        // Same lift (2.5) for both, but tag 2 has twenty co-occurrences and tag 3 one; tag 9 never meets tag 1
+        assertThat(ids(related)).containsExactly(2, 3);
+        assertThat(related.get(0).lift).isCloseTo(2.5, offset(1e-9));
+        assertThat(related.get(1).lift).isCloseTo(2.5, offset(1e-9));
+        assertThat(related.get(0).coOccurrences).isEqualTo(20);
+        assertThat(related.get(0).score).isGreaterThan(related.get(1).score * 5);
+    }
+
+    @Test
+    void weightIsDampedForLowSupportAndZeroWithoutIt() {
+        assertThat(TagGraph.weight(0, 10, 10, 100)).isZero();
+        assertThat(TagGraph.weight(3, 0, 10, 100)).isZero();
+        // Always together: npmi is 1, damped by support n / (n + 1)
+        assertThat(TagGraph.weight(4, 4, 4, 4)).isEqualTo(0.8);
+        // Perfectly associated but seen once ranks below a strong pair seen fifty times
+        assertThat(TagGraph.weight(1, 1, 1, 1000)).isLessThan(TagGraph.weight(50, 60, 60, 1000));
+        // Independent tags (lift 1) weigh nothing, anti-correlated ones are negative
+        assertThat(TagGraph.weight(10, 100, 100, 1000)).isCloseTo(0, offset(1e-9));
+        assertThat(TagGraph.weight(2, 100, 100, 1000)).isNegative();
+    }
+}
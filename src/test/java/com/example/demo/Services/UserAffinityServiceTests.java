@@ -0,0 +1,97 @@
+package com.example.demo.Services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.Tag;
+import com.example.demo.Repositories.FavoriteRepository;
+import com.example.demo.Repositories.RatingRepository;
+import com.example.demo.Repositories.ResourceRepository;
+
+class UserAffinityServiceTests {
+
+    private final ResourceIndex resourceIndex = new ResourceIndex();
+    private final FavoriteRepository favoriteRepository = mock(FavoriteRepository.class);
+    private final RatingRepository ratingRepository = mock(RatingRepository.class);
+    private final UserAffinityService service = new UserAffinityService();
+
+    @BeforeEach
+    void wire() {
+        ReflectionTestUtils.setField(service, "resourceIndex", resourceIndex);
+        ReflectionTestUtils.setField(service, "favoriteRepository", favoriteRepository);
+        ReflectionTestUtils.setField(service, "ratingRepository", ratingRepository);
+        ReflectionTestUtils.setField(service, "resourceRepository", mock(ResourceRepository.class));
+        // 1: java  2: java, sql  3: python  4: java, python, sql, docker, git  5: sql
+        resource(1, 1);
+        resource(2, 1, 2);
+        resource(3, 3);
+        resource(4, 1, 3, 2, 4, 5);
+        resource(5, 2);
+    }
+
+    private void resource(long id, long... tagIds) {
+        Resource resource = new Resource();
+        resource.id = id;
+        for (long tagId : tagIds) {
+            Tag tag = new Tag();
+            tag.id = tagId;
+            tag.name = "tag" + tagId;
+            resource.tags.add(tag);
+        }
+        resourceIndex.indexResource(resource);
+    }
+
+    private static List<Long> ids(List<UserAffinityService.ScoredResource> ranked) {
+        return ranked.stream().map(r -> r.resourceId).toList();
+    }
+
+    @Test
+    void feedRanksByAffinityAndSkipsSeenResources() {
+        when(favoriteRepository.findResourceIdsByUserId(7L)).thenReturn(List.of(1L));
+
+        List<UserAffinityService.ScoredResource> ranked = service.rankFeed(7L, 0, 10);
+
+        // java-only favorite: the two-tag java resource beats the five-tag one; python/sql ones don't match
+        assertThat(ids(ranked)).containsExactly(2L, 4L);
+        assertThat(ranked.get(0).score).isGreaterThan(ranked.get(1).score);
+        assertThat(ids(service.rankFeed(7L, 1, 10))).containsExactly(4L);
+        assertThat(service.rankFeed(7L, 2, 10)).isEmpty();
+    }
+
+    @Test
+    void eventsPatchALoadedProfile() {
+        assertThat(service.profileOf(8L).isEmpty()).isTrue();
+
+        service.onFavorite(8L, 3L, true);
+
+        assertThat(ids(service.rankFeed(8L, 0, 10))).containsExactly(4L);
+    }
+
+    @Test
+    void onlyDislikesRankNothing() {
+        when(ratingRepository.findResourceRatingsByUserId(9L)).thenReturn(List.<Object[]>of(new Object[] { 1L, 1 }));
+
+        assertThat(service.profileOf(9L).isEmpty()).isFalse();
+        assertThat(service.rankFeed(9L, 0, 10)).isEmpty();
+    }
+
+    @Test
+    void eventsDuringALoadAreNotLost() {
+        // The favorite lands after the load has read the favorites but before the profile is published
+        when(favoriteRepository.findResourceIdsByUserId(10L)).thenAnswer(invocation -> {
+            service.onFavorite(10L, 3L, true);
+            return List.of();
+        });
+
+        assertThat(ids(service.rankFeed(10L, 0, 10))).containsExactly(4L);
+        assertThat(service.profileOf(10L).hasSeen(3L)).isTrue();
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.demo;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import com.example.demo.Entities.Tag;
+
+/**
+ * Statement budgets for every TagController endpoint; see
+ * ResourceControllerQueryBudgetTests.
+ */
+class TagControllerQueryBudgetTests extends SeededCatalogTest {
+
+    private Tag customTag;
+
+    @BeforeEach
+    void newCustomTag() {
+        Tag tag = new Tag("custom-" + System.nanoTime(), "Created for the test", false);
+        tag.createdBy = user(WRITER).id;
+        customTag = tagRepository.save(tag);
+        resourceIndex.registerTag(customTag);
+    }
+
+    private Long javaTagId() {
+        return resourceIndex.tagIdByName("java");
+    }
+
+    @Test
+    @QueryBudget(1)
+    void allTags() throws Exception {
+        mvc.perform(get("/api/tags")).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void predefinedTags() throws Exception {
+        mvc.perform(get("/api/tags/predefined")).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void allTagsNotModified() throws Exception {
+        mvc.perform(get("/api/tags").header(HttpHeaders.IF_NONE_MATCH, changeVersions.tagsETag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void predefinedTagsNotModified() throws Exception {
+        mvc.perform(get("/api/tags/predefined").header(HttpHeaders.IF_NONE_MATCH, changeVersions.tagsETag()))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void popularTags() throws Exception {
+        mvc.perform(get("/api/tags/popular")).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void searchTags() throws Exception {
+        mvc.perform(get("/api/tags/search").param("keyword", "j")).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(3)
+    void createCustomTag() throws Exception {
+        mvc.perform(post("/api/tags")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"budget-" + System.nanoTime() + "\", \"description\": \"New\"}")
+                        .with(loggedInAs(WRITER)))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @QueryBudget(2)
+    void myTags() throws Exception {
+        mvc.perform(get("/api/tags/my-tags").with(loggedInAs(WRITER))).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(3)
+    void deleteTag() throws Exception {
+        mvc.perform(delete("/api/tags/{id}", customTag.id).with(loggedInAs(WRITER))).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(1)
+    void tagDetails() throws Exception {
+        mvc.perform(get("/api/tags/{id}", javaTagId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void relatedTags() throws Exception {
+        mvc.perform(get("/api/tags/{id}/related", javaTagId())).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void suggestTags() throws Exception {
+        mvc.perform(get("/api/tags/suggest").param("tags", "java", "sql")).andExpect(status().isOk());
+    }
+
+    @Test
+    @QueryBudget(0)
+    void relatedAndSuggestedTagsWithANegativeLimit() throws Exception {
+        mvc.perform(get("/api/tags/{id}/related", javaTagId()).param("limit", "-1")).andExpect(status().isOk());
+        mvc.perform(get("/api/tags/suggest").param("tags", "java").param("limit", "0")).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.demo.Entities.Comment;
+import com.example.demo.Entities.Favorite;
+import com.example.demo.Entities.Rating;
+import com.example.demo.Entities.Resource;
+import com.example.demo.Entities.User;
+
+/**
+ * The uploader dashboard against a user of its own, so other tests' uploads
+ * and ratings don't change the numbers.
+ */
+class UserControllerTests extends SeededCatalogTest {
+
+    private static final String UPLOADER = "uploader@example.com";
+
+    private final List<Long> uploads = new ArrayList<>();
+
+    @BeforeEach
+    void seedUploads() {
+        User uploader = user(UPLOADER);
+        if (!resourceRepository.findIdsByUploaderId(uploader.id).isEmpty()) {
+            uploads.addAll(resourceRepository.findIdsByUploaderId(uploader.id).stream().sorted().toList());
+            return;
+        }
+        User fan = user(WRITER);
+        for (int i = 0; i < 3; i++) {
+            Resource resource = new Resource();
+            resource.title = "Upload " + i;
+            resource.filePath = "upload_" + i + ".txt";
+            resource.uploaderId = uploader.id;
+            resource.viewCount = 10 * (i + 1);
+            resource.downloadCount = i;
+            resource = resourceRepository.save(resource);
+            uploads.add(resource.id);
+
+            // Upload i gets i comments, and uploads 1 and 2 a favorite and a rating of 2 and 4
+            for (int c = 0; c < i; c++) {
+                Comment comment = new Comment();
+                comment.content = "Comment " + c;
+                comment.resource = resource;
+                comment.user = fan;
+                commentRepository.save(comment);
+            }
+            if (i > 0) {
+                Favorite favorite = new Favorite();
+                favorite.user = fan;
+                favorite.resource = resource;
+                favoriteRepository.save(favorite);
+
+                Rating rating = new Rating();
+                rating.userId = fan.id;
+                rating.resourceId = resource.id;
+                rating.ratingValue = 2 * i;
+                ratingRepository.save(rating);
+            }
+        }
+    }
+
+    @Test
+    void dashboardListsUploadsNewestFirstWithTotals() throws Exception {
+        mvc.perform(get("/api/users/me/resources").param("size", "2").with(loggedInAs(UPLOADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.hasMore").value(true))
+                .andExpect(jsonPath("$.content[0].id").value(uploads.get(2)))
+                .andExpect(jsonPath("$.content[0].views").value(30))
+                .andExpect(jsonPath("$.content[0].comments").value(2))
+                .andExpect(jsonPath("$.content[0].averageRating").value(4.0))
+                .andExpect(jsonPath("$.totals.resources").value(3))
+                .andExpect(jsonPath("$.totals.views").value(60))
+                .andExpect(jsonPath("$.totals.downloads").value(3))
+                .andExpect(jsonPath("$.totals.ratingCount").value(2))
+                .andExpect(jsonPath("$.totals.averageRating").value(3.0))
+                .andExpect(jsonPath("$.totals.favorites").value(2))
+                .andExpect(jsonPath("$.totals.comments").value(3));
+
+        mvc.perform(get("/api/users/me/resources").param("size", "2").param("page", "1").with(loggedInAs(UPLOADER)))
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].id").value(uploads.get(0)))
+                .andExpect(jsonPath("$.content[0].averageRating").isEmpty())
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    void pastTheLastPageStillHasTotals() throws Exception {
+        mvc.perform(get("/api/users/me/resources").param("page", "5").with(loggedInAs(UPLOADER)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(0))
+                .andExpect(jsonPath("$.totals.resources").value(3));
+    }
+
+    @Test
+    // The user, then one aggregate query for the page and the totals
+    @QueryBudget(2)
+    void dashboardBudget() throws Exception {
+        mvc.perform(get("/api/users/me/resources").with(loggedInAs(UPLOADER))).andExpect(status().isOk());
+    }
+
+    @Test
+    void aPageWhoseOffsetOverflowsIsRejected() throws Exception {
+        mvc.perform(get("/api/users/me/resources").param("page", String.valueOf(1 << 30)).param("size", "4")
+                        .with(loggedInAs(UPLOADER)))
+                .andExpect(status().isBadRequest());
+    }
+}
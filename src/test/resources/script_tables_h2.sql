@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS resource_events (resource_id BIGINT NOT NULL, user_id BIGINT, event_type SMALLINT NOT NULL, occurred_at TIMESTAMP NOT NULL);
+CREATE TABLE IF NOT EXISTS resource_event_hourly (resource_id BIGINT NOT NULL, event_type SMALLINT NOT NULL, bucket_start TIMESTAMP NOT NULL, event_count BIGINT NOT NULL, PRIMARY KEY (resource_id, bucket_start, event_type));
+CREATE TABLE IF NOT EXISTS resource_event_daily (resource_id BIGINT NOT NULL, event_type SMALLINT NOT NULL, bucket_start TIMESTAMP NOT NULL, event_count BIGINT NOT NULL, PRIMARY KEY (resource_id, bucket_start, event_type));
+CREATE TABLE IF NOT EXISTS resource_event_rollup_state (id INT PRIMARY KEY, rolled_up_to TIMESTAMP NOT NULL);
+CREATE TABLE IF NOT EXISTS resource_cards (resource_id BIGINT PRIMARY KEY, card TEXT NOT NULL, refreshed_at TIMESTAMP NOT NULL);
+CREATE SEQUENCE IF NOT EXISTS import_resources_id START WITH 1000000;
+CREATE SEQUENCE IF NOT EXISTS import_tags_id START WITH 1000000;
+CREATE SEQUENCE IF NOT EXISTS import_categories_id START WITH 1000000;
+CREATE ALIAS IF NOT EXISTS pg_get_serial_sequence FOR 'com.example.demo.H2Functions.serialSequence';
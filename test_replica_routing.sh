@@ -0,0 +1,83 @@
+#!/bin/bash
+
+# Read-replica routing against two local PostgreSQL instances.
+#
+#   ./test_replica_routing.sh setup     # streaming replica of localhost:5432 on port 5433
+#   ./test_replica_routing.sh check     # against a running app started with the replica config
+#   ./test_replica_routing.sh teardown  # stop and delete the replica
+#
+# setup needs the PostgreSQL server binaries (pg_basebackup, pg_ctl) on PATH
+# and a primary that accepts replication connections from localhost for
+# PGUSER (the default pg_hba.conf does for local superusers). Then start the
+# app with:
+#   --datasource.replicas.urls=jdbc:postgresql://localhost:5433/innohacks
+#
+# check reads the routing counters from /actuator/prometheus on the management
+# port (METRICS_URL, management.server.port=9464 by default): plain reads
+# should land on replica-0, and reads right after a write on the primary.
+
+GREEN='\033[0;32m'
+RED='\033[0;31m'
+NC='\033[0m'
+
+PRIMARY_PORT=${PRIMARY_PORT:-5432}
+REPLICA_PORT=${REPLICA_PORT:-5433}
+REPLICA_DIR=${REPLICA_DIR:-/tmp/innohacks-replica}
+export PGUSER=${PGUSER:-postgres}
+BASE_URL="http://localhost:8080"
+METRICS_URL=${METRICS_URL:-http://localhost:9464}
+COOKIES=$(mktemp)
+trap 'rm -f "$COOKIES"' EXIT
+
+reads() {
+    curl -s "$METRICS_URL/actuator/prometheus" \
+        | grep "^datasource_routing_reads_total{.*target=\"$1\"" | awk '{ s += $2 } END { print s + 0 }'
+}
+
+check() {
+    if [ "$2" -gt "$3" ]; then
+        echo -e "${GREEN}✓ $1${NC}"
+    else
+        echo -e "${RED}✗ $1 (before $3, after $2)${NC}"
+    fi
+}
+
+case "$1" in
+    setup)
+        rm -rf "$REPLICA_DIR"
+        pg_basebackup -h localhost -p "$PRIMARY_PORT" -D "$REPLICA_DIR" -R -X stream || exit 1
+        chmod 700 "$REPLICA_DIR"
+        pg_ctl -D "$REPLICA_DIR" -o "-p $REPLICA_PORT" -l "$REPLICA_DIR/replica.log" start || exit 1
+        sleep 2
+        psql -h localhost -p "$REPLICA_PORT" -d innohacks -Atc "SELECT 'in recovery: ' || pg_is_in_recovery()"
+        ;;
+    teardown)
+        pg_ctl -D "$REPLICA_DIR" stop
+        rm -rf "$REPLICA_DIR"
+        ;;
+    check)
+        echo "=== Plain reads go to the replica ==="
+        before=$(reads replica-0)
+        # Distinct keywords, so the query cache cannot answer them
+        for i in 1 2 3 4 5; do
+            curl -s -o /dev/null "$BASE_URL/api/resources/search?keyword=replica$RANDOM"
+        done
+        check "replica-0 served reads" "$(reads replica-0)" "$before"
+
+        echo "=== Reads after a write stay on the primary ==="
+        curl -s -o /dev/null -c "$COOKIES" -X POST "$BASE_URL/api/test/users" \
+            -d "email=replica-check-$RANDOM@example.com" -d "name=Replica Check"
+        grep -q READ_PRIMARY "$COOKIES" && echo -e "${GREEN}✓ READ_PRIMARY cookie set${NC}" \
+            || echo -e "${RED}✗ no READ_PRIMARY cookie${NC}"
+        before=$(reads primary)
+        curl -s -o /dev/null -b "$COOKIES" "$BASE_URL/api/resources/search?keyword=replica$RANDOM"
+        check "primary served the read after the write" "$(reads primary)" "$before"
+
+        echo "=== Replica state ==="
+        curl -s "$METRICS_URL/actuator/prometheus" | grep "^datasource_replica_"
+        ;;
+    *)
+        echo "Usage: $0 setup|check|teardown"
+        exit 1
+        ;;
+esac